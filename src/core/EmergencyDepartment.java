@@ -1,21 +1,35 @@
 package core;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.SplittableRandom;
+import processing.CalendarQueue;
+import processing.FutureEventList;
 import processing.PatientArrival;
 import processing.Task;
+import processing.TaskStore;
+import processing.TaskHeap;
+import processing.TaskRing;
 import processing.TasksQueue;
 import resources.Corridor;
 import resources.Human;
+import resources.HumanState;
 import resources.Nurse;
 import resources.Patient;
 import resources.Physician;
 import resources.Room;
 import resources.Transporter;
+import resources.WaitingRoom;
 import utils.DeterministicDistribution;
 import utils.DoorToDoctorTime;
 import utils.ExponentialDistribution;
+import utils.KPICube;
+import utils.KPISeries;
 import utils.KeyPerformanceIndicator;
 import utils.LengthOfStay;
+import utils.RandomStreams;
 import utils.SeverityLevel;
 import utils.SeverityLevel_L1;
 import utils.SeverityLevel_L2;
@@ -43,22 +57,48 @@ public class EmergencyDepartment {
 	protected ArrayList<Room> rooms;
 	protected Corridor corridor;
 	protected ArrayList<Human> staff;
-	protected ArrayList<Event> history;
+	protected History history;
 	protected WorkflowElement[] services;
 	protected SeverityLevel[] severityLevels;
 	protected double time;
 	protected String name;
 	protected PatientFactory patientFactory;
 	protected double[] nextPatientsTimestamp;
+	protected TasksQueue arrivalsQueue;
+	protected FutureEventList futureEventList;
+	protected LinkedHashSet<WorkflowElement> servicesToDispatch;
+	protected boolean eventDrivenDispatch;
+	protected boolean calendarQueues;
+	protected SimulationClock clock;
+	protected HistoryFidelity historyFidelity;
+	protected LinkedHashMap<String, KeyPerformanceIndicator> KPIs;
+	protected KPISeries KPIsSeries;
+	protected KPICube KPIsCube;
+	protected UtilizationMonitor utilizationMonitor;
+	protected SimulationContext context;
+	protected SplittableRandom[] arrivalStreams;
 	
 	public EmergencyDepartment(String name) {
+		this(name, new SimulationContext());
+	}
+	
+	/**
+	 * Create an Emergency Department in the given simulation context, which allocates the IDs of its entities and
+	 * gives its random streams and registries. No other Emergency Department should share this context.
+	 * @param name the name of the Emergency Department
+	 * @param context the simulation context
+	 */
+	public EmergencyDepartment(String name, SimulationContext context) {
 		this.name = name;
+		this.context = context;
 		patients = new ArrayList<Patient>();
 		releasedPatients = new ArrayList<Patient>();
 		rooms = new ArrayList<Room>();
 		corridor = new Corridor(this);
+		context.getRoomRegistry().setFallbackRoom(WaitingRoom.class, corridor);
 		staff = new ArrayList<Human>();
-		history = new ArrayList<Event>();
+		utilizationMonitor = new UtilizationMonitor(0);
+		history = new History(this);
 		services = new WorkflowElement[] {
 				new Triage(new UniformDistribution(2,5), 0., this),
 				new Installation(new DeterministicDistribution(5), 0., this),
@@ -76,35 +116,238 @@ public class EmergencyDepartment {
 		};
 		time = 0;
 		patientFactory = new PatientFactory();
+		configureRandomStreams();
 		nextPatientsTimestamp = new double[severityLevels.length];
 		for (int i = 0; i < nextPatientsTimestamp.length; i++) {
-			nextPatientsTimestamp[i] = severityLevels[i].getProbabilityDistribution().generateSample();
+			nextPatientsTimestamp[i] = generateInterarrivalTime(i + 1);
 		}
-		System.out.println("Hospital " + name + " successfully created !");
+		servicesToDispatch = new LinkedHashSet<WorkflowElement>();
+		eventDrivenDispatch = true;
+		calendarQueues = false;
+		clock = null;
+		historyFidelity = HistoryFidelity.FULL;
+		KPIs = new LinkedHashMap<String, KeyPerformanceIndicator>();
+		KPIs.put("los", new LengthOfStay(this));
+		KPIs.put("dtdt", new DoorToDoctorTime(this));
+		KPIsSeries = new KPISeries(60, 24 * 30);
+		KPIsCube = new KPICube();
+		arrivalsQueue = new TasksQueue();
+		futureEventList = new FutureEventList();
+		futureEventList.addQueue(arrivalsQueue);
+		for (WorkflowElement service : services) {
+			configureTasksQueue(service);
+			futureEventList.addQueue(service.getTasksQueue());
+		}
+		scheduleNextPatientArrival();
 	}
 	
 	/**
-	 * This method searches the next task to execute among the services of the Emergency Department
-	 * and the next patient arrival, then executes it and update the global time.
+	 * This method executes the next task of the Emergency Department and update the global time.
+	 * A service which can start treating a waiting patient does it right away, otherwise the task with
+	 * the smallest timestamp is taken from the future event list, where the services schedule the end of
+	 * their treatments and where the next patient arrival is kept.
+	 * @return true if a task has been executed, false if there was nothing to do
 	 */
-	public void executeNextTask() {
-		TasksQueue queue = new TasksQueue();
-		for (WorkflowElement service : services) {
-			try {
-				queue.addTask(service.getNextTask());
+	public boolean executeNextTask() {
+		Task task = getNextStartTask();
+		if (task == null) {
+			task = futureEventList.pollNextTask();
+			if (task == null) {
+				return false;
 			}
-			catch (NullPointerException e) {
+		}
+		executeTask(task);
+		return true;
+	}
+	
+	/**
+	 * This method executes all the tasks of the Emergency Department up to a given time, and then sets the
+	 * time to this horizon. The tasks after the horizon are left in the future event list.
+	 * @param horizon the time at which the run stops
+	 * @return the summary of the run
+	 */
+	public RunSummary executeUntil(double horizon) {
+		double startTime = time;
+		int patientsCount = patients.size() + releasedPatients.size();
+		int releasedCount = releasedPatients.size();
+		long events = 0;
+		while (true) {
+			Task task = getNextStartTask();
+			if (task == null) {
+				if (futureEventList.getNextTask() == null || futureEventList.getNextTask().getTimestamp() > horizon) {
+					break;
+				}
+				task = futureEventList.pollNextTask();
 			}
+			executeTask(task);
+			events++;
+		}
+		if (time < horizon) {
+			time = horizon;
 		}
-		queue.addTask(this.getNextPatientArrival());
-		Task task = queue.executeNextTask();
+		return new RunSummary(events, patients.size() + releasedPatients.size() - patientsCount,
+				releasedPatients.size() - releasedCount, startTime, time);
+	}
+	
+	/**
+	 * This method executes a given number of tasks of the Emergency Department, or less if there is nothing
+	 * left to do.
+	 * @param n the number of tasks to execute
+	 * @return the summary of the run
+	 */
+	public RunSummary executeEvents(long n) {
+		double startTime = time;
+		int patientsCount = patients.size() + releasedPatients.size();
+		int releasedCount = releasedPatients.size();
+		long events = 0;
+		while (events < n && executeNextTask()) {
+			events++;
+		}
+		return new RunSummary(events, patients.size() + releasedPatients.size() - patientsCount,
+				releasedPatients.size() - releasedCount, startTime, time);
+	}
+	
+	/**
+	 * This method executes a task at its timestamp and records it in the history, unless no history is kept
+	 * @param task the task to execute
+	 */
+	protected void executeTask(Task task) {
 		this.time = task.getTimestamp();
-		this.history.add(new Event(task.getCommand().toString(), this.time));
+		task.getCommand().execute();
+		if (historyFidelity != HistoryFidelity.NONE) {
+			this.history.record(task.getCommand(), this.time);
+		}
+	}
+	
+	/**
+	 * This method searches a service which can start treating one of its waiting patients right now.
+	 * With the event driven dispatch, only the services woken up since they were last found idle are
+	 * asked (see wakeUp and resourceReleased). Otherwise every service is asked.
+	 * @return a StartService task at the current time, null if no service can start
+	 */
+	protected Task getNextStartTask() {
+		if (!eventDrivenDispatch) {
+			for (WorkflowElement service : services) {
+				Task task = service.getNextStartTask();
+				if (task != null) {
+					return task;
+				}
+			}
+			return null;
+		}
+		Iterator<WorkflowElement> iterator = servicesToDispatch.iterator();
+		while (iterator.hasNext()) {
+			Task task = iterator.next().getNextStartTask();
+			if (task != null) {
+				return task;
+			}
+			iterator.remove();
+		}
+		return null;
+	}
+	
+	/**
+	 * Mark a service of the Emergency Department as having to be dispatched again, because something which
+	 * can let it start a treatment happened (a patient joined its waiting queue for instance)
+	 * @param service the service to wake up
+	 */
+	public void wakeUp(WorkflowElement service) {
+		for (WorkflowElement registeredService : services) {
+			if (registeredService == service) {
+				servicesToDispatch.add(service);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Wake up the services depending on a resource which has just been released, added to the
+	 * Emergency Department, or which became available again
+	 * @param resource the staff member or room released
+	 */
+	public void resourceReleased(Entity resource) {
+		for (WorkflowElement service : services) {
+			if (service.dependsOn(resource)) {
+				servicesToDispatch.add(service);
+			}
+		}
+	}
+	
+	/**
+	 * Update the idle staff pools after the state of a human changed, and wake up the services depending on
+	 * him if he became idle. Nothing happens if the human isn't a staff member of the Emergency Department.
+	 * @param human the human whose state changed
+	 */
+	public void staffStateChanged(Human human) {
+		if (context.getStaffRegistry().contains(human)) {
+			context.getStaffRegistry().update(human);
+			staffUtilizationChanged(human);
+			if (human.getHumanState() == HumanState.IDLE) {
+				resourceReleased(human);
+			}
+		}
+	}
+	
+	private void staffUtilizationChanged(Human human) {
+		int total = context.getStaffRegistry().countStaff(human.getClass());
+		utilizationMonitor.staffChanged(human.getClass(), time, total - context.getStaffRegistry().countIdleStaff(human.getClass()), total);
+	}
+	
+	/**
+	 * Update the available rooms and the occupancy of the rooms after a patient entered or left a room, or after
+	 * its capacity changed. Only the rooms of the Emergency Department (and its corridor) are taken into account.
+	 * @param room the room which changed
+	 */
+	public void roomChanged(Room room) {
+		if (context.getRoomRegistry().contains(room) || room == corridor) {
+			context.getRoomRegistry().update(room);
+			utilizationMonitor.roomChanged(room, time);
+		}
+	}
+	
+	/**
+	 * This method notifies the utilization monitor that the length of the waiting queue of a service changed.
+	 * @param service the service
+	 * @param length the number of patients waiting for the service
+	 */
+	public void waitingQueueChanged(WorkflowElement service, int length) {
+		utilizationMonitor.queueChanged(service.getName(), time, length);
 	}
 	
 	/**
-	 * Calculate the time of the next arrival of a patient, generate the patient and return
-	 * the corresponding task
+	 * Add a duration to a time. With a tick clock, both are rounded to the nearest tick and added exactly.
+	 * @param time a time in minutes
+	 * @param duration a duration in minutes
+	 * @return the time after the duration
+	 */
+	public double addDuration(double time, double duration) {
+		if (clock == null) {
+			return time + duration;
+		}
+		return clock.add(time, duration);
+	}
+	
+	/**
+	 * Wake up all the services of the Emergency Department
+	 */
+	public void wakeUpAllServices() {
+		for (WorkflowElement service : services) {
+			servicesToDispatch.add(service);
+		}
+	}
+	
+	/**
+	 * Replace the pending patient arrival of the future event list by the next one, computed with
+	 * getNextPatientArrival
+	 */
+	public void scheduleNextPatientArrival() {
+		arrivalsQueue.clear();
+		arrivalsQueue.addTask(this.getNextPatientArrival());
+	}
+	
+	/**
+	 * Calculate the time and the severity level of the next arrival of a patient and return
+	 * the corresponding task. The patient itself is only generated when the arrival is executed.
 	 * @return the task corresponding to the arrival of the next patient
 	 */
 	public Task getNextPatientArrival() {
@@ -114,67 +357,214 @@ public class EmergencyDepartment {
 				argmin = i;
 			}
 		}
-		Patient patient = patientFactory.create(severityLevels[argmin], this);
-		PatientArrival patientArrival = new PatientArrival(patient, this);
+		PatientArrival patientArrival = new PatientArrival(severityLevels[argmin], this);
 		return new Task(nextPatientsTimestamp[argmin], patientArrival);
 	}
 
+	/**
+	 * Draw the time until the next arrival of a patient of the given severity level, from the arrivals stream
+	 * of this level
+	 * @param level the severity level, from 1 to 5
+	 * @return the time between two arrivals of patients of this level
+	 */
+	protected double generateInterarrivalTime(int level) {
+		return severityLevels[level - 1].getProbabilityDistribution().generateSample(arrivalStreams[level - 1]);
+	}
+
+	/**
+	 * Give their random streams to the services, the patient factory and the arrivals of each severity level
+	 */
+	protected void configureRandomStreams() {
+		for (WorkflowElement service : services) {
+			service.setRandomStreams(context.getRandomStreams());
+		}
+		patientFactory.setRandom(context.getRandomStreams().getStream("patients"));
+		arrivalStreams = new SplittableRandom[severityLevels.length];
+		for (int i = 0; i < severityLevels.length; i++) {
+			arrivalStreams[i] = context.getRandomStreams().getStream(severityLevels[i].getName() + " arrivals");
+		}
+	}
+
+	/**
+	 * Seed the random streams of the Emergency Department: two Emergency Departments with the same configuration
+	 * and the same seed give exactly the same simulation. The next arrivals are drawn again from the current time,
+	 * so the seed should be set before the simulation starts.
+	 * @param seed the seed of the simulation
+	 */
+	public void setSeed(long seed) {
+		context.setRandomStreams(new RandomStreams(seed));
+		configureRandomStreams();
+		for (int i = 0; i < nextPatientsTimestamp.length; i++) {
+			nextPatientsTimestamp[i] = addDuration(time, generateInterarrivalTime(i + 1));
+		}
+		scheduleNextPatientArrival();
+	}
+
+	public long getSeed() {
+		return context.getRandomStreams().getSeed();
+	}
+
+	public RandomStreams getRandomStreams() {
+		return context.getRandomStreams();
+	}
+
+	public SimulationContext getContext() {
+		return context;
+	}
+
 	/**
 	 * Add a patient in the Emergency Departement and put him in a waiting room (waiting for registration)
 	 * @param patient to register
 	 */
 	public void patientArrival(Patient patient) {
-		Room waitingRoom = getAvailableRoom("WaitingRoom");
+		Room waitingRoom = getAvailableRoom(WaitingRoom.class);
 		int level = patient.getSeverityLevel().getLevel();
-		nextPatientsTimestamp[level-1] = nextPatientsTimestamp[level-1] + severityLevels[level-1].getProbabilityDistribution().generateSample();
+		nextPatientsTimestamp[level-1] = addDuration(nextPatientsTimestamp[level-1], generateInterarrivalTime(level));
 		if (waitingRoom != null) {
 			patient.setLocation(waitingRoom);
 			waitingRoom.addPatient(patient);
 			patient.setArrivalTime(time);
-			patient.addEvent(new Event("Arrival", time));
+			patient.addEvent(EventType.ARRIVAL, time);
 			addPatient(patient); // Add the patient in the ED
 			getService("Triage").addPatientToWaitingList(patient);
 		}
+		scheduleNextPatientArrival();
 	}
 	
 	/**
-	 * This method computes the given KPI of the emergency department
+	 * This method computes the given KPI of the emergency department, in O(1): the KPIs are updated each time
+	 * a patient reaches a milestone.
 	 * @param category a string representing the category of KPI wanted by the user
 	 * @return the average KPI of the emergency department if the String is correct, an Exception otherwise
 	 */
 	public double computeKPI(String category) throws Exception {
-		KeyPerformanceIndicator KPI;
-		if (category.contentEquals("los")) {
-			KPI = new LengthOfStay(this);
+		KeyPerformanceIndicator KPI = KPIs.get(category);
+		if (KPI == null) {
+			throw new Exception();
+		}
+		return KPI.getMean();
+	}
+	
+	/**
+	 * This method computes a statistic of the given KPI of the emergency department, for all the patients or
+	 * for the patients of a severity level.
+	 * @param category the name of the KPI (los or dtdt)
+	 * @param statistic mean, or a percentile p0 to p100 (p50, p90, p99...)
+	 * @param level the severity level of the patients considered, from 1 to 5, or 0 for all the patients
+	 * @return the statistic of the KPI, NaN for a percentile if no patient reached the milestone of the KPI
+	 * @throws IllegalArgumentException if the KPI, the statistic or the level is unknown
+	 */
+	public double computeKPI(String category, String statistic, int level) {
+		KeyPerformanceIndicator KPI = KPIs.get(category);
+		if (KPI == null) {
+			throw new IllegalArgumentException("Unknown KPI " + category);
 		}
-		else if (category.contentEquals("dtdt")) {
-			KPI = new DoorToDoctorTime(this);
+		if (level < 0 || level > SeverityLevel.LEVELS) {
+			throw new IllegalArgumentException("Unknown severity level " + level);
 		}
-		else {
-			throw new Exception();
+		if (statistic.equals("mean")) {
+			return level == 0 ? KPI.getMean() : KPI.getStatistics(level).getMean();
+		}
+		if (statistic.matches("p[0-9]+(\\.[0-9]+)?")) {
+			double quantile = Double.parseDouble(statistic.substring(1)) / 100;
+			if (quantile <= 1) {
+				return level == 0 ? KPI.getQuantile(quantile) : KPI.getSketch(level).getQuantile(quantile);
+			}
 		}
-		return KPI.computeAverageKPI();
+		throw new IllegalArgumentException("Unknown statistic " + statistic);
 	}
 	
 	/**
-	 * This method searches an available room of a given type and return it if found, or null if there isn't one
-	 * @param roomType a string representing the type of the room
-	 * @return an available room of the given type if there is one, null otherwise
+	 * This method return a KPI of the emergency department.
+	 * @param category the name of the KPI (los or dtdt)
+	 * @return the KPI, null if there is no KPI with this name
 	 */
-	public Room getAvailableRoom(String roomType) {
-		for (Room room: rooms) {
-			try {
-				if(Class.forName("resources." + roomType).isInstance(room) && room.isAvailable()) {
-					return room;
-				}
-			} catch (ClassNotFoundException e) {
-				e.printStackTrace();
+	public KeyPerformanceIndicator getKPI(String category) {
+		return KPIs.get(category);
+	}
+	
+	public LinkedHashMap<String, KeyPerformanceIndicator> getKPIs() {
+		return KPIs;
+	}
+	
+	/**
+	 * This method notifies the KPIs, their series and their cube that a patient reached a milestone of his stay.
+	 * @param patient the patient
+	 * @param milestone the milestone he reached
+	 * @param timestamp the time at which he reached it
+	 */
+	public void milestoneReached(Patient patient, Milestone milestone, double timestamp) {
+		for (KeyPerformanceIndicator KPI : KPIs.values()) {
+			KPI.milestoneReached(patient, milestone, timestamp);
+		}
+		if (milestone == Milestone.RELEASE) {
+			KPIsCube.add(patient);
+		}
+		if (KPIsSeries != null) {
+			switch (milestone) {
+			case ARRIVAL:
+				KPIsSeries.add(KPISeries.Metric.ARRIVALS, timestamp, 0);
+				break;
+			case FIRST_CONSULTATION:
+				KPIsSeries.add(KPISeries.Metric.DTDT, timestamp, timestamp - patient.getArrivalTime());
+				break;
+			case RELEASE:
+				KPIsSeries.add(KPISeries.Metric.RELEASES, timestamp, 0);
+				KPIsSeries.add(KPISeries.Metric.LOS, timestamp, timestamp - patient.getArrivalTime());
+				break;
+			default:
+				break;
 			}
 		}
-		if (roomType == "WaitingRoom") {
-			return corridor;
+	}
+	
+	/**
+	 * This method return the breakdown of the KPIs of the released patients by severity level, health insurance
+	 * and examination path.
+	 * @return the cube of the KPIs
+	 */
+	public KPICube getKPICube() {
+		return KPIsCube;
+	}
+
+	/**
+	 * This method return the series of the KPIs of the emergency department over windows of time, up to date
+	 * with the current time.
+	 * @return the series of the KPIs, null if no series is kept
+	 */
+	public KPISeries getKPISeries() {
+		if (KPIsSeries != null) {
+			KPIsSeries.update(time);
 		}
-		return null;
+		return KPIsSeries;
+	}
+
+	/**
+	 * Choose the series keeping the KPIs over windows of time (by default, the last 30 days hour by hour).
+	 * @param KPIsSeries the new series, null to keep no series
+	 */
+	public void setKPISeries(KPISeries KPIsSeries) {
+		this.KPIsSeries = KPIsSeries;
+	}
+	
+	/**
+	 * This method searches an available room of a given type and return it if found, or null if there isn't one.
+	 * When no waiting room is available, the corridor is returned.
+	 * @param roomType a string representing the type of the room
+	 * @return an available room of the given type if there is one, null otherwise
+	 */
+	public Room getAvailableRoom(String roomType) {
+		return context.getRoomRegistry().getAvailableRoom(roomType);
+	}
+	
+	/**
+	 * This method searches an available room of a given type and return it if found, or null if there isn't one.
+	 * When no waiting room is available, the corridor is returned.
+	 * @param roomType the class of the room
+	 * @return an available room of the given type if there is one, null otherwise
+	 */
+	public Room getAvailableRoom(Class<? extends Room> roomType) {
+		return context.getRoomRegistry().getAvailableRoom(roomType);
 	}
 	
 	/**
@@ -182,12 +572,7 @@ public class EmergencyDepartment {
 	 * @return an idle physician if there is one, null otherwise
 	 */
 	public Physician getIdlePhysician() {
-		for (Human employee: staff) {
-			if(employee instanceof Physician && employee.getState() == "idle") {
-				return (Physician) employee;
-			}
-		}
-		return null;
+		return context.getStaffRegistry().getIdleStaff(Physician.class);
 	}
 	
 	/**
@@ -195,12 +580,7 @@ public class EmergencyDepartment {
 	 * @return an idle nurse if there is one, null otherwise
 	 */
 	public Nurse getIdleNurse() {
-		for (Human employee: staff) {
-			if(employee instanceof Nurse && employee.getState() == "idle") {
-				return (Nurse) employee;
-			}
-		}
-		return null;
+		return context.getStaffRegistry().getIdleStaff(Nurse.class);
 	}
 	
 	/**
@@ -208,18 +588,13 @@ public class EmergencyDepartment {
 	 * @return an idle transporter if there is one, null otherwise
 	 */
 	public Transporter getIdleTransporter() {
-		for (Human employee: staff) {
-			if(employee instanceof Transporter && employee.getState() == "idle") {
-				return (Transporter) employee;
-			}
-		}
-		return null;
+		return context.getStaffRegistry().getIdleStaff(Transporter.class);
 	}
 
 	/**
 	 * This method return a service of the hospital by name
 	 * @param serviceName the wanted service
-	 * @return the searched service
+	 * @return the searched service, null if there is no such service
 	 */
 	public WorkflowElement getService(String serviceName) {
 		for (WorkflowElement service: services) {
@@ -228,20 +603,25 @@ public class EmergencyDepartment {
 					return service;
 				}
 			} catch (ClassNotFoundException e) {
-				e.printStackTrace();
+				return null;
 			}
 		}
 		return null;
 	}
 	
 	/**
-	 * Add staff members to the emergency department given a factory
+	 * Add staff members to the emergency department given a factory.
+	 * The factory draws the names from the staff stream of the Emergency Department, it is locked meanwhile
+	 * as it may be shared with Emergency Departments running on other threads.
 	 * @param n number of staff members to add
 	 * @param factory which product staff members type you want to add
 	 */
 	public void addStaff(int n, HumanFactory factory) {
-		for (int i = 0; i < n; i++) {
-			staff.add(factory.create(this));
+		synchronized (factory) {
+			factory.setRandom(context.getRandomStreams().getStream("staff"));
+			for (int i = 0; i < n; i++) {
+				addEmployee(factory.create(this));
+			}
 		}
 	}
 	
@@ -254,6 +634,7 @@ public class EmergencyDepartment {
 		content.append("\n----- Emergency Department Report -----\n");
 		content.append(this.toString() + "\n");
 		content.append("Current time : " + time + "\n");
+		content.append("Seed : " + getSeed() + "\n");
 		content.append("- Patients : \n");
 		for (Patient patient : patients) {
 			content.append(patient).append('\n');
@@ -322,7 +703,12 @@ public class EmergencyDepartment {
 		this.patients = patients;
 	}
 
+	/**
+	 * Add a patient to the Emergency Department, moving it to the Emergency Department like addRoom.
+	 * @param patient the patient
+	 */
 	public void addPatient(Patient patient) {
+		patient.setEmergencyDepartment(this);
 		this.patients.add(patient);
 	}
 	
@@ -336,21 +722,43 @@ public class EmergencyDepartment {
 	}
 
 	public void setRooms(ArrayList<Room> rooms) {
+		for (Room room : this.rooms) {
+			utilizationMonitor.roomRemoved(room, time);
+		}
 		this.rooms = rooms;
+		context.getRoomRegistry().clear();
+		for (Room room : rooms) {
+			room.setEmergencyDepartment(this);
+			context.getRoomRegistry().register(room);
+			utilizationMonitor.roomChanged(room, time);
+		}
+		wakeUpAllServices();
 	}
 
+	/**
+	 * Add a room to the Emergency Department. A room created for another Emergency Department, or without one, is
+	 * moved to it and takes a new ID in its simulation context, so that the History never mixes it up with another
+	 * entity of the Emergency Department.
+	 * @param room the room
+	 */
 	public void addRoom(Room room) {
+		room.setEmergencyDepartment(this);
 		this.rooms.add(room);
+		context.getRoomRegistry().register(room);
+		utilizationMonitor.roomChanged(room, time);
+		resourceReleased(room);
 	}
 	
 	public void addRooms(Room[] rooms) {
 		for (Room room : rooms) {
-			this.rooms.add(room);
+			addRoom(room);
 		}
 	}
 	
 	public void removeRoom(Room room) {
 		this.rooms.remove(room);
+		context.getRoomRegistry().unregister(room);
+		utilizationMonitor.roomRemoved(room, time);
 	}
 	
 	public ArrayList<Human> getStaff() {
@@ -358,22 +766,45 @@ public class EmergencyDepartment {
 	}
 
 	public void setStaff(ArrayList<Human> staff) {
+		ArrayList<Human> previousStaff = this.staff;
 		this.staff = staff;
+		context.getStaffRegistry().clear();
+		for (Human employee : staff) {
+			employee.setEmergencyDepartment(this);
+			context.getStaffRegistry().register(employee);
+		}
+		for (Human employee : previousStaff) {
+			staffUtilizationChanged(employee);
+		}
+		for (Human employee : staff) {
+			staffUtilizationChanged(employee);
+		}
+		wakeUpAllServices();
 	}
 	
+	/**
+	 * Add an employee to the Emergency Department, moving it to the Emergency Department like addRoom.
+	 * @param employee the nurse, physician or transporter
+	 */
 	public void addEmployee(Human employee) {
+		employee.setEmergencyDepartment(this);
 		this.staff.add(employee);
+		context.getStaffRegistry().register(employee);
+		staffUtilizationChanged(employee);
+		resourceReleased(employee);
 	}
 	
 	public void removeEmployee(Human employee) {
 		this.staff.remove(employee);
+		context.getStaffRegistry().unregister(employee);
+		staffUtilizationChanged(employee);
 	}
 
-	public ArrayList<Event> getHistory() {
+	public History getHistory() {
 		return history;
 	}
 
-	public void setHistory(ArrayList<Event> history) {
+	public void setHistory(History history) {
 		this.history = history;
 	}
 
@@ -389,8 +820,22 @@ public class EmergencyDepartment {
 		return services;
 	}
 
+	/**
+	 * Replace the services of the Emergency Department, and their tasks queues in the future event list
+	 * @param services the new services
+	 */
 	public void setServices(WorkflowElement[] services) {
+		for (WorkflowElement service : this.services) {
+			futureEventList.removeQueue(service.getTasksQueue());
+		}
 		this.services = services;
+		for (WorkflowElement service : services) {
+			configureTasksQueue(service);
+			service.setRandomStreams(context.getRandomStreams());
+			futureEventList.addQueue(service.getTasksQueue());
+		}
+		servicesToDispatch.clear();
+		wakeUpAllServices();
 	}
 
 	public SeverityLevel[] getSeverityLevels() {
@@ -399,6 +844,7 @@ public class EmergencyDepartment {
 
 	public void setSeverityLevels(SeverityLevel[] severityLevels) {
 		this.severityLevels = severityLevels;
+		configureRandomStreams();
 	}
 	
 	public SeverityLevel getSeverityLevel(int level) {
@@ -432,6 +878,7 @@ public class EmergencyDepartment {
 
 	public void setPatientFactory(PatientFactory patientFactory) {
 		this.patientFactory = patientFactory;
+		patientFactory.setRandom(context.getRandomStreams().getStream("patients"));
 	}
 
 	public double[] getNextPatientsTimestamp() {
@@ -440,6 +887,128 @@ public class EmergencyDepartment {
 
 	public void setNextPatientsTimestamp(double[] nextPatientsTimestamp) {
 		this.nextPatientsTimestamp = nextPatientsTimestamp;
+		scheduleNextPatientArrival();
+	}
+	
+	public StaffRegistry getStaffRegistry() {
+		return context.getStaffRegistry();
+	}
+	
+	public RoomRegistry getRoomRegistry() {
+		return context.getRoomRegistry();
+	}
+	
+	public FutureEventList getFutureEventList() {
+		return futureEventList;
+	}
+
+	public boolean isEventDrivenDispatch() {
+		return eventDrivenDispatch;
+	}
+
+	/**
+	 * Choose how the services are dispatched. With the event driven dispatch (default), a service is asked
+	 * if it can start a treatment only after a patient joined its waiting queue or a resource it depends on
+	 * was released. Otherwise every service is asked at each step.
+	 * @param eventDrivenDispatch true for the event driven dispatch, false to ask every service at each step
+	 */
+	public void setEventDrivenDispatch(boolean eventDrivenDispatch) {
+		this.eventDrivenDispatch = eventDrivenDispatch;
+		wakeUpAllServices();
+	}
+	
+	public boolean isCalendarQueues() {
+		return calendarQueues;
+	}
+
+	/**
+	 * Choose the structure keeping the pending tasks of the services whose duration isn't deterministic.
+	 * The calendar queues are faster than the binary heaps (default) when many treatments are running at the same time.
+	 * @param calendarQueues true to use calendar queues, false to use binary heaps
+	 */
+	public void setCalendarQueues(boolean calendarQueues) {
+		this.calendarQueues = calendarQueues;
+		for (WorkflowElement service : services) {
+			configureTasksQueue(service);
+		}
+	}
+
+	/**
+	 * Give the tasks queue of a service the structure fitting it, if it doesn't have it yet.
+	 * The treatments of a service with a deterministic duration end in the order they started, so their
+	 * end tasks are kept in a ring buffer. The other services use the structure chosen for the Emergency
+	 * Department (binary heap or calendar queue).
+	 * @param service A service of the Emergency Department
+	 */
+	public void configureTasksQueue(WorkflowElement service) {
+		TasksQueue tasksQueue = service.getTasksQueue();
+		if (service.getDurationProbability() instanceof DeterministicDistribution) {
+			if (!(tasksQueue.getQueue() instanceof TaskRing)) {
+				tasksQueue.setQueue(new TaskRing());
+			}
+		}
+		else if (calendarQueues) {
+			if (!(tasksQueue.getQueue() instanceof CalendarQueue)) {
+				tasksQueue.setQueue(new CalendarQueue());
+			}
+		}
+		else if (!(tasksQueue.getQueue() instanceof TaskHeap)) {
+			tasksQueue.setQueue(new TaskHeap());
+		}
+	}
+	
+	public SimulationClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Choose the clock of the simulation. With a tick clock, every time is a multiple of its resolution and the
+	 * durations are added exactly, whatever the length of the simulation, so that the tasks due at the same tick
+	 * compare equal in the queues of the services and are executed in their order of insertion.
+	 * Without clock (default), the times are continuous.
+	 * The current time, the next arrivals and the pending tasks are rounded to the new resolution.
+	 * @param clock the tick clock, null for a continuous time
+	 */
+	public void setClock(SimulationClock clock) {
+		this.clock = clock;
+		if (clock != null) {
+			time = clock.round(time);
+			for (int i = 0; i < nextPatientsTimestamp.length; i++) {
+				nextPatientsTimestamp[i] = clock.round(nextPatientsTimestamp[i]);
+			}
+			for (WorkflowElement service : services) {
+				TaskStore queue = service.getTasksQueue().getQueue();
+				Task[] tasks = new Task[queue.size()];
+				int i = 0;
+				for (Task task : queue) {
+					tasks[i++] = task;
+				}
+				for (Task task : tasks) {
+					task.reschedule(clock.round(task.getTimestamp()));
+				}
+			}
+			scheduleNextPatientArrival();
+		}
+		for (WorkflowElement service : services) {
+			configureTasksQueue(service);
+		}
+	}
+	
+	public UtilizationMonitor getUtilizationMonitor() {
+		return utilizationMonitor;
+	}
+
+	public HistoryFidelity getHistoryFidelity() {
+		return historyFidelity;
+	}
+
+	/**
+	 * Choose how much of the history is kept. The full history (default) is printed and kept event by event;
+	 * bulk runs can keep only the milestones of the patients, with or without the history of the commands.
+	 * @param historyFidelity the fidelity of the history
+	 */
+	public void setHistoryFidelity(HistoryFidelity historyFidelity) {
+		this.historyFidelity = historyFidelity;
 	}
 	
 	public ArrayList<Patient> getAllPatients() {
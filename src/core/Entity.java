@@ -2,27 +2,31 @@ package core;
 
 /**
  * Entity is an abstract class to represent all the different entities of the Emergency Department
- * It attributes them a unique ID and a name
+ * It attributes them a name and an ID, unique in the simulation context of their Emergency Department
  * @author Thomas
  *
  */
 public abstract class Entity {
-	protected static int lastID = 0;
-	protected int ID;
+	protected long ID;
+	protected SimulationContext context;
 	protected String name;
 	protected EmergencyDepartment emergencyDepartment;
 	
 	public Entity(String name, EmergencyDepartment emergencyDepartment) {
-		this.ID = lastID + 1;
+		this.context = emergencyDepartment == null ? SimulationContext.getShared() : emergencyDepartment.getContext();
+		this.ID = context.nextID();
 		this.name = name;
 		this.emergencyDepartment = emergencyDepartment;
-		lastID++;
 	}
 
-	public int getID() {
+	public long getID() {
 		return ID;
 	}
 
+	public SimulationContext getContext() {
+		return context;
+	}
+
 	public String getName() {
 		return name;
 	}
@@ -35,7 +39,17 @@ public abstract class Entity {
 		return emergencyDepartment;
 	}
 
+	/**
+	 * This method moves the entity to another Emergency Department. If the simulation context changes, the entity
+	 * takes a new ID in the new context.
+	 * @param emergencyDepartment the new Emergency Department
+	 */
 	public void setEmergencyDepartment(EmergencyDepartment emergencyDepartment) {
+		SimulationContext newContext = emergencyDepartment == null ? SimulationContext.getShared() : emergencyDepartment.getContext();
+		if (newContext != context) {
+			context = newContext;
+			ID = context.nextID();
+		}
 		this.emergencyDepartment = emergencyDepartment;
 	}
 
@@ -48,7 +62,7 @@ public abstract class Entity {
 		if (!(obj instanceof Entity))
 			return false;
 		Entity other = (Entity) obj;
-		if (ID != other.ID)
+		if (ID != other.ID || context != other.context)
 			return false;
 		return true;
 	}
@@ -2,16 +2,26 @@ package core;
 
 /**
  * This class represents an event happening to a patient
+ * The type of the event is deduced from its name, so that the events can be told apart without comparing names.
  * @author Thomas
  *
  */
 public class Event {
 	protected String name;
+	protected EventType type;
 	protected double timestamp;
 	
 	public Event(String name, double timestamp) {
 		super();
 		this.name = name;
+		this.type = EventType.fromLabel(name);
+		this.timestamp = timestamp;
+	}
+	
+	public Event(EventType type, double timestamp) {
+		super();
+		this.name = type.toString();
+		this.type = type;
 		this.timestamp = timestamp;
 	}
 
@@ -21,6 +31,11 @@ public class Event {
 
 	public void setName(String name) {
 		this.name = name;
+		this.type = EventType.fromLabel(name);
+	}
+
+	public EventType getType() {
+		return type;
 	}
 
 	public double getTimestamp() {
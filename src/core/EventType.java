@@ -0,0 +1,109 @@
+package core;
+
+import java.util.HashMap;
+
+/**
+ * This enumeration lists the types of the events happening to the humans of the Emergency Department.
+ * Each type has a label, which is the name of the event as displayed in the histories, and may mark a
+ * milestone of the stay of a patient. The prescriptions of examinations also give the name of the examination,
+ * and a bit identifying it in the set of the examinations of a patient.
+ * The events whose name doesn't match any label are of type OTHER.
+ * @author Thomas
+ *
+ */
+public enum EventType {
+	ARRIVAL("Arrival", Milestone.ARRIVAL),
+	REGISTRATION_BEGINNING("Registration beginning", Milestone.REGISTRATION),
+	REGISTRATION_ENDING("Registration ending"),
+	INSTALLATION_BEGINNING("Installation beginning", Milestone.INSTALLATION),
+	INSTALLATION_ENDING("Installation ending"),
+	CONSULTATION_BEGINNING("Consultation beginning", Milestone.FIRST_CONSULTATION),
+	CONSULTATION_ENDING("Consultation ending"),
+	BLOOD_TEST_PRESCRIBED("BloodTest prescribed", Milestone.EXAM_PRESCRIBED, "BloodTest", 1),
+	XRAY_PRESCRIBED("XRay prescribed", Milestone.EXAM_PRESCRIBED, "XRay", 2),
+	MRI_PRESCRIBED("MRI prescribed", Milestone.EXAM_PRESCRIBED, "MRI", 4),
+	TRANSPORTATION_BEGINNING("Transportation beginning"),
+	TRANSPORTATION_ENDING("Transportation ending"),
+	TRANSPORT_BEGINNING("Transport beginning"),
+	TRANSPORT_ENDING("Transport ending"),
+	BLOOD_TEST_BEGINNING("BloodTest beginning"),
+	BLOOD_TEST_ENDING("BloodTest ending"),
+	XRAY_BEGINNING("XRay beginning"),
+	XRAY_ENDING("XRay ending"),
+	MRI_BEGINNING("MRI beginning"),
+	MRI_ENDING("MRI ending"),
+	RELEASED("Released", Milestone.RELEASE),
+	OTHER(null);
+	
+	private static final HashMap<String, EventType> typesByLabel = new HashMap<String, EventType>();
+	static {
+		for (EventType type : values()) {
+			if (type.label != null) {
+				typesByLabel.put(type.label, type);
+			}
+		}
+	}
+	
+	private final String label;
+	private final Milestone milestone;
+	private final String examination;
+	private final int examinationBit;
+	
+	private EventType(String label) {
+		this(label, null, null, 0);
+	}
+	
+	private EventType(String label, Milestone milestone) {
+		this(label, milestone, null, 0);
+	}
+	
+	private EventType(String label, Milestone milestone, String examination, int examinationBit) {
+		this.label = label;
+		this.milestone = milestone;
+		this.examination = examination;
+		this.examinationBit = examinationBit;
+	}
+	
+	public String getLabel() {
+		return label;
+	}
+	
+	/**
+	 * Return the milestone marked by the events of this type
+	 * @return the milestone, null if the events of this type don't mark any milestone
+	 */
+	public Milestone getMilestone() {
+		return milestone;
+	}
+	
+	/**
+	 * Return the examination prescribed by the events of this type
+	 * @return the name of the examination (and of its service), null if this type isn't a prescription
+	 */
+	public String getExamination() {
+		return examination;
+	}
+	
+	/**
+	 * Return the bit of the examination prescribed by the events of this type
+	 * @return a power of 2 identifying the examination, 0 if this type isn't a prescription
+	 */
+	public int getExaminationBit() {
+		return examinationBit;
+	}
+	
+	/**
+	 * Return the type corresponding to a label
+	 * @param label the name of an event
+	 * @return the corresponding type, OTHER if no type has this label
+	 */
+	public static EventType fromLabel(String label) {
+		EventType type = typesByLabel.get(label);
+		return type == null ? OTHER : type;
+	}
+	
+	@Override
+	public String toString() {
+		return label == null ? "other" : label;
+	}
+}
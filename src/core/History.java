@@ -0,0 +1,243 @@
+package core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import processing.Command;
+import processing.EndService;
+import processing.PatientArrival;
+import processing.StartService;
+import resources.Human;
+import resources.Patient;
+import resources.Room;
+import workflow.WorkflowElement;
+
+/**
+ * This class represents the history of the tasks executed in an Emergency Department.
+ * Each executed task is recorded as a compact typed record in primitive arrays: the kind of command, the IDs of the
+ * service, of the patient, of the staff member and of the room (0 if there is none), and the timestamp.
+ * The text of an event ("End of service X on Patient Y by Physician Z in Room R") is only produced when the
+ * event is read, so that no string is built while the simulation runs.
+ * The events added directly (like the arrivals of the patients added by hand) and the unknown commands are kept as
+ * they are.
+ * @author Thomas
+ *
+ */
+public class History extends AbstractList<Event> {
+	public static final byte ARRIVAL = 0;
+	public static final byte START = 1;
+	public static final byte END = 2;
+	public static final byte EVENT = 3;
+	public static final byte COMMAND = 4;
+
+	protected EmergencyDepartment emergencyDepartment;
+	protected byte[] kinds;
+	protected int[] services;
+	protected int[] patients;
+	protected int[] employees;
+	protected int[] rooms;
+	protected double[] timestamps;
+	protected Object[] objects;
+	protected int size;
+	protected Entity[] entities;
+
+	public History(EmergencyDepartment emergencyDepartment) {
+		super();
+		this.emergencyDepartment = emergencyDepartment;
+		int capacity = 64;
+		kinds = new byte[capacity];
+		services = new int[capacity];
+		patients = new int[capacity];
+		employees = new int[capacity];
+		rooms = new int[capacity];
+		timestamps = new double[capacity];
+		objects = new Object[capacity];
+		size = 0;
+		entities = new Entity[capacity];
+	}
+
+	/**
+	 * Record an executed command
+	 * @param command the executed command
+	 * @param timestamp the time of the execution
+	 */
+	public void record(Command command, double timestamp) {
+		if (command instanceof StartService) {
+			StartService startService = (StartService) command;
+			record(START, startService.getService(), startService.getPatient(), null, null, timestamp);
+		}
+		else if (command instanceof EndService) {
+			EndService endService = (EndService) command;
+			record(END, endService.getService(), endService.getPatient(), endService.getEmployee(), endService.getRoom(), timestamp);
+		}
+		else if (command instanceof PatientArrival) {
+			record(ARRIVAL, null, ((PatientArrival) command).getPatient(), null, null, timestamp);
+		}
+		else {
+			insert(size, COMMAND, 0, 0, 0, 0, timestamp, command);
+		}
+	}
+
+	/**
+	 * Return the kind of an event of the history (ARRIVAL, START, END, EVENT or COMMAND)
+	 * @param index the index of the event
+	 * @return the kind of the event
+	 */
+	public byte getKind(int index) {
+		checkIndex(index);
+		return kinds[index];
+	}
+
+	/**
+	 * Return the timestamp of an event of the history, without building the event
+	 * @param index the index of the event
+	 * @return the timestamp of the event
+	 */
+	public double getTimestamp(int index) {
+		checkIndex(index);
+		return timestamps[index];
+	}
+
+	/**
+	 * Return an event of the history. Its text is built from the record.
+	 */
+	@Override
+	public Event get(int index) {
+		checkIndex(index);
+		switch (kinds[index]) {
+		case EVENT:
+			return (Event) objects[index];
+		case COMMAND:
+			return new Event(objects[index].toString(), timestamps[index]);
+		default:
+			return new Event(render(index), timestamps[index]);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Add an event as it is at a given place of the history
+	 */
+	@Override
+	public void add(int index, Event event) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		insert(index, EVENT, 0, 0, 0, 0, event.getTimestamp(), event);
+	}
+
+	@Override
+	public Event remove(int index) {
+		Event event = get(index);
+		int moved = size - index - 1;
+		System.arraycopy(kinds, index + 1, kinds, index, moved);
+		System.arraycopy(services, index + 1, services, index, moved);
+		System.arraycopy(patients, index + 1, patients, index, moved);
+		System.arraycopy(employees, index + 1, employees, index, moved);
+		System.arraycopy(rooms, index + 1, rooms, index, moved);
+		System.arraycopy(timestamps, index + 1, timestamps, index, moved);
+		System.arraycopy(objects, index + 1, objects, index, moved);
+		size--;
+		objects[size] = null;
+		modCount++;
+		return event;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(objects, 0, size, null);
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Return the events of the history as a list of events, with their text
+	 * @return a new list of events
+	 */
+	public ArrayList<Event> toEvents() {
+		return new ArrayList<Event>(this);
+	}
+
+	private void record(byte kind, WorkflowElement service, Patient patient, Human employee, Room room, double timestamp) {
+		insert(size, kind, register(service), register(patient), register(employee), register(room), timestamp, null);
+	}
+
+	private void insert(int index, byte kind, int service, int patient, int employee, int room, double timestamp, Object object) {
+		if (size == kinds.length) {
+			int capacity = 2 * kinds.length;
+			kinds = Arrays.copyOf(kinds, capacity);
+			services = Arrays.copyOf(services, capacity);
+			patients = Arrays.copyOf(patients, capacity);
+			employees = Arrays.copyOf(employees, capacity);
+			rooms = Arrays.copyOf(rooms, capacity);
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			objects = Arrays.copyOf(objects, capacity);
+		}
+		if (index < size) {
+			int moved = size - index;
+			System.arraycopy(kinds, index, kinds, index + 1, moved);
+			System.arraycopy(services, index, services, index + 1, moved);
+			System.arraycopy(patients, index, patients, index + 1, moved);
+			System.arraycopy(employees, index, employees, index + 1, moved);
+			System.arraycopy(rooms, index, rooms, index + 1, moved);
+			System.arraycopy(timestamps, index, timestamps, index + 1, moved);
+			System.arraycopy(objects, index, objects, index + 1, moved);
+		}
+		kinds[index] = kind;
+		services[index] = service;
+		patients[index] = patient;
+		employees[index] = employee;
+		rooms[index] = room;
+		timestamps[index] = timestamp;
+		objects[index] = object;
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Remember an entity by its ID, so that the record can be rendered later, and return its ID (0 for null)
+	 */
+	private int register(Entity entity) {
+		if (entity == null) {
+			return 0;
+		}
+		int id = Math.toIntExact(entity.getID());
+		if (id >= entities.length) {
+			entities = Arrays.copyOf(entities, Math.max(2 * entities.length, id + 1));
+		}
+		entities[id] = entity;
+		return id;
+	}
+
+	private Entity entity(int id) {
+		return id == 0 ? null : entities[id];
+	}
+
+	/**
+	 * Build the text of a record, with the same format as the toString of its command
+	 */
+	private String render(int index) {
+		WorkflowElement service = (WorkflowElement) entity(services[index]);
+		Patient patient = (Patient) entity(patients[index]);
+		switch (kinds[index]) {
+		case ARRIVAL:
+			return new PatientArrival(patient, emergencyDepartment).toString();
+		case START:
+			return new StartService(service, patient).toString();
+		default:
+			return new EndService(service, patient, (Human) entity(employees[index]), (Room) entity(rooms[index])).toString();
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+}
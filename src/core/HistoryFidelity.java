@@ -0,0 +1,54 @@
+package core;
+
+import java.util.HashMap;
+
+/**
+ * This enumeration lists how much of the history an Emergency Department keeps.
+ * With FULL, every event is kept in the history of the humans and printed, and every command executed is kept
+ * in the history of the Emergency Department. With MILESTONES, the patients only keep the time of their
+ * milestones, which is enough for the KPIs, and nothing is printed. With NONE, the history of the Emergency
+ * Department isn't kept either: only the milestones and the examination prescribed to each patient are recorded.
+ * @author Thomas
+ *
+ */
+public enum HistoryFidelity {
+	NONE("none"),
+	MILESTONES("milestones"),
+	FULL("full");
+	
+	private static final HashMap<String, HistoryFidelity> fidelitiesByLabel = new HashMap<String, HistoryFidelity>();
+	static {
+		for (HistoryFidelity fidelity : values()) {
+			fidelitiesByLabel.put(fidelity.label, fidelity);
+		}
+	}
+	
+	private final String label;
+	
+	private HistoryFidelity(String label) {
+		this.label = label;
+	}
+	
+	public String getLabel() {
+		return label;
+	}
+	
+	/**
+	 * Return the fidelity corresponding to a label
+	 * @param label the label of the fidelity
+	 * @return the corresponding fidelity
+	 * @throws IllegalArgumentException if no fidelity has this label
+	 */
+	public static HistoryFidelity fromLabel(String label) {
+		HistoryFidelity fidelity = fidelitiesByLabel.get(label);
+		if (fidelity == null) {
+			throw new IllegalArgumentException("Unknown history fidelity " + label);
+		}
+		return fidelity;
+	}
+	
+	@Override
+	public String toString() {
+		return label;
+	}
+}
@@ -1,6 +1,6 @@
 package core;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import resources.Human;
 import utils.GoldInsurance;
@@ -16,13 +16,13 @@ import utils.SilverInsurance;
 public abstract class HumanFactory {
 	private String[] names;
 	private String[] surnames;
-	private Random rand;
+	private SplittableRandom rand;
 	
 	public HumanFactory(String[] names, String[] surnames) {
 		super();
 		this.names = names;
 		this.surnames = surnames;
-		this.rand = new Random();
+		this.rand = new SplittableRandom();
 	}
 	
 	public HumanFactory() {
@@ -36,11 +36,19 @@ public abstract class HumanFactory {
 		this.surnames = new String[]{"Smith","Johnson","Williams","Jones","Brown","Davis","Miller","Wilson",
 				"Moore","Taylor","Anderson","Thomas","Jackson","White","Harris","Martin","Thompson",
 				"Garcia","Martinez","Robinson","Clark","Rodriguez","Lewis","Lee","Walker"};
-		this.rand = new Random();
+		this.rand = new SplittableRandom();
 	}
 	
 	protected abstract Human create(EmergencyDepartment emergencyDepartment);
 	
+	/**
+	 * Set the random stream used to draw the names, surnames and insurances
+	 * @param rand the random stream
+	 */
+	public void setRandom(SplittableRandom rand) {
+		this.rand = rand;
+	}
+	
 	protected String getRandomName() {
 		return names[rand.nextInt(names.length)];
 	}
@@ -0,0 +1,33 @@
+package core;
+
+/**
+ * This enumeration lists the milestones of the stay of a patient in the Emergency Department.
+ * Each patient keeps the time at which he reached each milestone in a fixed slot (the ordinal of the milestone),
+ * so that the KPIs are computed without going through his history.
+ * Some milestones can be reached several times (a patient is installed again after each examination): the
+ * first time is kept for the ones marking the beginning of a step of the stay, the last time for the others.
+ * @author Thomas
+ *
+ */
+public enum Milestone {
+	ARRIVAL(true),
+	REGISTRATION(true),
+	INSTALLATION(true),
+	FIRST_CONSULTATION(true),
+	EXAM_PRESCRIBED(false),
+	RELEASE(false);
+	
+	private final boolean keepFirst;
+	
+	private Milestone(boolean keepFirst) {
+		this.keepFirst = keepFirst;
+	}
+	
+	/**
+	 * Tell if the first time the milestone is reached is kept, rather than the last one
+	 * @return true if the first time is kept, false if the last one is
+	 */
+	public boolean keepsFirst() {
+		return keepFirst;
+	}
+}
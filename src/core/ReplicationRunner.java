@@ -0,0 +1,73 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class runs independent replications of the simulation of an Emergency Department on all the cores of the
+ * machine, and sums them up in a ReplicationSummary.
+ * Each replication is a whole Emergency Department, with its own simulation context: the replications don't share
+ * anything and are simulated on the threads of a ForkJoinPool without any synchronization. They should be given
+ * different seeds (see RandomStreams.deriveSeed), and no history (HistoryFidelity.NONE) to run quietly and fast.
+ * @author Thomas
+ *
+ */
+public class ReplicationRunner {
+	protected int parallelism;
+
+	/**
+	 * Create a runner using all the available processors
+	 */
+	public ReplicationRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public ReplicationRunner(int parallelism) {
+		super();
+		this.parallelism = Math.max(parallelism, 1);
+	}
+
+	/**
+	 * This method simulates each replication until the given horizon, in parallel, and sums them up.
+	 * @param replications the Emergency Departments to simulate, one per replication
+	 * @param horizon the duration to simulate, from the current time of each replication
+	 * @return the summary of the replications
+	 * @throws InterruptedException if the thread is interrupted while waiting for the replications
+	 * @throws ExecutionException if a replication failed
+	 */
+	public ReplicationSummary run(List<EmergencyDepartment> replications, final double horizon) throws InterruptedException, ExecutionException {
+		ArrayList<Callable<RunSummary>> tasks = new ArrayList<Callable<RunSummary>>();
+		for (final EmergencyDepartment emergencyDepartment : replications) {
+			tasks.add(new Callable<RunSummary>() {
+				@Override
+				public RunSummary call() {
+					return emergencyDepartment.executeUntil(emergencyDepartment.getTime() + horizon);
+				}
+			});
+		}
+		ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, Math.max(replications.size(), 1)));
+		try {
+			List<Future<RunSummary>> results = pool.invokeAll(tasks);
+			ReplicationSummary summary = new ReplicationSummary(horizon);
+			for (int i = 0; i < replications.size(); i++) {
+				summary.add(replications.get(i), results.get(i).get());
+			}
+			return summary;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = Math.max(parallelism, 1);
+	}
+
+}
@@ -0,0 +1,127 @@
+package core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import utils.KeyPerformanceIndicator;
+import utils.OnlineStatistics;
+import utils.QuantileSketch;
+
+/**
+ * This class sums up independent replications of the simulation of an Emergency Department. For each KPI, it keeps
+ * the statistics of the means of the replications, from which the 95% confidence interval of the KPI is computed,
+ * and the statistics and quantile sketch of all the patients of all the replications, merged together.
+ * The replications where no patient reached the milestone of a KPI don't count in the means of this KPI.
+ * @author Thomas
+ *
+ */
+public class ReplicationSummary {
+	protected int replications;
+	protected double horizon;
+	protected long events;
+	protected OnlineStatistics releases;
+	protected LinkedHashMap<String, OnlineStatistics> means;
+	protected LinkedHashMap<String, OnlineStatistics> pooledStatistics;
+	protected LinkedHashMap<String, QuantileSketch> pooledSketches;
+
+	public ReplicationSummary(double horizon) {
+		super();
+		this.replications = 0;
+		this.horizon = horizon;
+		this.events = 0;
+		this.releases = new OnlineStatistics();
+		this.means = new LinkedHashMap<String, OnlineStatistics>();
+		this.pooledStatistics = new LinkedHashMap<String, OnlineStatistics>();
+		this.pooledSketches = new LinkedHashMap<String, QuantileSketch>();
+	}
+
+	/**
+	 * This method adds a replication to the summary, merging its KPIs with the ones of the other replications.
+	 * @param emergencyDepartment the Emergency Department of the replication, once simulated
+	 * @param summary the summary of the run of the replication
+	 */
+	public void add(EmergencyDepartment emergencyDepartment, RunSummary summary) {
+		replications++;
+		events += summary.getEvents();
+		releases.add(summary.getReleases());
+		for (Map.Entry<String, KeyPerformanceIndicator> entry : emergencyDepartment.getKPIs().entrySet()) {
+			String category = entry.getKey();
+			KeyPerformanceIndicator KPI = entry.getValue();
+			if (!means.containsKey(category)) {
+				means.put(category, new OnlineStatistics());
+				pooledStatistics.put(category, new OnlineStatistics());
+				pooledSketches.put(category, new QuantileSketch(KPI.getSketch().getAccuracy()));
+			}
+			if (KPI.getStatistics().getCount() > 0) {
+				means.get(category).add(KPI.getMean());
+			}
+			pooledStatistics.get(category).merge(KPI.getStatistics());
+			pooledSketches.get(category).merge(KPI.getSketch());
+		}
+	}
+
+	public int getReplications() {
+		return replications;
+	}
+
+	public double getHorizon() {
+		return horizon;
+	}
+
+	public long getEvents() {
+		return events;
+	}
+
+	public OnlineStatistics getReleases() {
+		return releases;
+	}
+
+	/**
+	 * This method return the statistics of the means of a KPI over the replications.
+	 * @param category the name of the KPI (los or dtdt)
+	 * @return the statistics, null if there is no such KPI
+	 */
+	public OnlineStatistics getMeans(String category) {
+		return means.get(category);
+	}
+
+	/**
+	 * This method return the statistics of a KPI over all the patients of all the replications.
+	 * @param category the name of the KPI (los or dtdt)
+	 * @return the statistics, null if there is no such KPI
+	 */
+	public OnlineStatistics getPooledStatistics(String category) {
+		return pooledStatistics.get(category);
+	}
+
+	/**
+	 * This method return the quantile sketch of a KPI over all the patients of all the replications.
+	 * @param category the name of the KPI (los or dtdt)
+	 * @return the quantile sketch, null if there is no such KPI
+	 */
+	public QuantileSketch getPooledSketch(String category) {
+		return pooledSketches.get(category);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder content = new StringBuilder();
+		content.append(replications + " replications of " + horizon + " minutes (" + events + " events, "
+				+ releases.getMean() + " releases per replication)");
+		for (String category : means.keySet()) {
+			OnlineStatistics statistics = means.get(category);
+			if (statistics.getCount() == 0) {
+				content.append("\n" + category + ": no patient in " + replications + " replications");
+				continue;
+			}
+			double halfWidth = statistics.getConfidenceHalfWidth();
+			content.append("\n" + category + ": mean " + statistics.getMean() + ", standard deviation "
+					+ statistics.getStandardDeviation() + ", 95% confidence interval [" + (statistics.getMean() - halfWidth)
+					+ ", " + (statistics.getMean() + halfWidth) + "] over " + statistics.getCount() + " replications, p90 "
+					+ pooledSketches.get(category).getQuantile(0.9) + " over " + pooledStatistics.get(category).getCount()
+					+ " patients");
+		}
+		return content.toString();
+	}
+
+}
@@ -0,0 +1,183 @@
+package core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import resources.Patient;
+import resources.Room;
+
+/**
+ * This class indexes the rooms of an Emergency Department by type. For each room class (and each of its
+ * superclasses), it keeps the set of the rooms of this type which still have a free place, so that an
+ * available room of a given type is found in O(1). The rooms keep it up to date by calling update each
+ * time a patient enters or leaves them.
+ * A fallback room can be given for a room type, it is returned when no room of this type is available
+ * (the corridor for the waiting rooms).
+ * @author Thomas
+ *
+ */
+public class RoomRegistry {
+	protected Set<Room> rooms;
+	protected HashMap<Class<?>, LinkedHashSet<Room>> availableRooms;
+	protected HashMap<Class<?>, Room> fallbackRooms;
+	protected HashMap<String, Class<?>> roomTypes;
+
+	public RoomRegistry() {
+		super();
+		rooms = Collections.newSetFromMap(new IdentityHashMap<Room, Boolean>());
+		availableRooms = new HashMap<Class<?>, LinkedHashSet<Room>>();
+		fallbackRooms = new HashMap<Class<?>, Room>();
+		roomTypes = new HashMap<String, Class<?>>();
+	}
+
+	/**
+	 * Add a room to the registry
+	 * @param room the room to add
+	 */
+	public void register(Room room) {
+		if (rooms.add(room)) {
+			update(room);
+		}
+	}
+
+	/**
+	 * Remove a room from the registry
+	 * @param room the room to remove
+	 */
+	public void unregister(Room room) {
+		if (rooms.remove(room)) {
+			for (Class<?> roomClass = room.getClass(); Room.class.isAssignableFrom(roomClass); roomClass = roomClass.getSuperclass()) {
+				LinkedHashSet<Room> available = availableRooms.get(roomClass);
+				if (available != null) {
+					available.remove(room);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all the rooms from the registry. The fallback rooms are kept.
+	 */
+	public void clear() {
+		rooms.clear();
+		availableRooms.clear();
+	}
+
+	/**
+	 * Tell if a room is registered
+	 * @param room the room
+	 * @return true if the room is registered, false otherwise
+	 */
+	public boolean contains(Room room) {
+		return rooms.contains(room);
+	}
+
+	/**
+	 * Update the availability of a room. Nothing happens if the room is not registered.
+	 * @param room the room whose occupancy changed
+	 */
+	public void update(Room room) {
+		if (!rooms.contains(room)) {
+			return;
+		}
+		boolean available = room.isAvailable();
+		for (Class<?> roomClass = room.getClass(); Room.class.isAssignableFrom(roomClass); roomClass = roomClass.getSuperclass()) {
+			LinkedHashSet<Room> availableOfType = availableRooms.get(roomClass);
+			if (available) {
+				if (availableOfType == null) {
+					availableOfType = new LinkedHashSet<Room>();
+					availableRooms.put(roomClass, availableOfType);
+				}
+				availableOfType.add(room);
+			}
+			else if (availableOfType != null) {
+				availableOfType.remove(room);
+			}
+		}
+	}
+
+	/**
+	 * Set the room returned when no room of the given type is available
+	 * @param roomType the type of room
+	 * @param room the fallback room
+	 */
+	public void setFallbackRoom(Class<? extends Room> roomType, Room room) {
+		fallbackRooms.put(roomType, room);
+	}
+
+	/**
+	 * Return an available room of the given type, or the fallback room of this type if there isn't one
+	 * @param roomType the class of the room
+	 * @return an available room of the given type if there is one, the fallback room (or null) otherwise
+	 */
+	public Room getAvailableRoom(Class<? extends Room> roomType) {
+		LinkedHashSet<Room> available = availableRooms.get(roomType);
+		if (available != null && !available.isEmpty()) {
+			return available.iterator().next();
+		}
+		return fallbackRooms.get(roomType);
+	}
+
+	/**
+	 * Return an available room of the given type, or the fallback room of this type if there isn't one
+	 * @param roomType the name of the class of the room, in the resources package
+	 * @return an available room of the given type if there is one, the fallback room (or null) otherwise
+	 */
+	public Room getAvailableRoom(String roomType) {
+		Class<? extends Room> roomClass = getRoomType(roomType);
+		if (roomClass == null) {
+			return null;
+		}
+		return getAvailableRoom(roomClass);
+	}
+
+	/**
+	 * Put a patient in an available room of the given type
+	 * @param roomType the class of the room
+	 * @param patient the patient entering the room
+	 * @return the room where the patient has been put, null if no room of this type is available
+	 */
+	public Room acquireRoom(Class<? extends Room> roomType, Patient patient) {
+		Room room = getAvailableRoom(roomType);
+		if (room != null) {
+			room.addPatient(patient);
+		}
+		return room;
+	}
+
+	/**
+	 * Take a patient out of a room, which becomes available again for its type
+	 * @param room the room the patient leaves
+	 * @param patient the patient leaving the room
+	 */
+	public void releaseRoom(Room room, Patient patient) {
+		room.removePatient(patient);
+	}
+
+	/**
+	 * Return the room class corresponding to a room type name. The result is cached, so that the class
+	 * is looked up only once per name.
+	 * @param roomType the name of the class of the room, in the resources package
+	 * @return the class of the room, null if there is no such room type
+	 */
+	@SuppressWarnings("unchecked")
+	public Class<? extends Room> getRoomType(String roomType) {
+		if (!roomTypes.containsKey(roomType)) {
+			Class<?> roomClass = null;
+			try {
+				roomClass = Class.forName("resources." + roomType);
+				if (!Room.class.isAssignableFrom(roomClass)) {
+					roomClass = null;
+				}
+			} catch (ClassNotFoundException e) {
+				e.printStackTrace();
+			}
+			roomTypes.put(roomType, roomClass);
+		}
+		return (Class<? extends Room>) roomTypes.get(roomType);
+	}
+
+}
@@ -0,0 +1,51 @@
+package core;
+
+/**
+ * This class sums up a run of the simulation of an Emergency Department: the number of executed events,
+ * of patients who arrived and of patients who were released, and the time at the beginning and at the end of the run.
+ * @author Thomas
+ *
+ */
+public class RunSummary {
+	protected long events;
+	protected long arrivals;
+	protected long releases;
+	protected double startTime;
+	protected double endTime;
+
+	public RunSummary(long events, long arrivals, long releases, double startTime, double endTime) {
+		super();
+		this.events = events;
+		this.arrivals = arrivals;
+		this.releases = releases;
+		this.startTime = startTime;
+		this.endTime = endTime;
+	}
+
+	public long getEvents() {
+		return events;
+	}
+
+	public long getArrivals() {
+		return arrivals;
+	}
+
+	public long getReleases() {
+		return releases;
+	}
+
+	public double getStartTime() {
+		return startTime;
+	}
+
+	public double getEndTime() {
+		return endTime;
+	}
+
+	@Override
+	public String toString() {
+		return events + " events executed from time " + startTime + " to time " + endTime + " (" + arrivals
+				+ " arrivals, " + releases + " releases)";
+	}
+
+}
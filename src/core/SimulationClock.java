@@ -0,0 +1,73 @@
+package core;
+
+/**
+ * This class represents a clock with a fixed resolution, counting the time in ticks (long integers) instead of
+ * minutes (doubles). The durations added to a time are rounded to the nearest tick and added as integers, so that
+ * the times stay exact on very long simulations and two events at the same time always have the same timestamp.
+ * The timestamps are still given in minutes to the rest of the Emergency Department: they are multiples of the
+ * resolution, which are converted back to the exact tick.
+ * @author Thomas
+ *
+ */
+public class SimulationClock {
+	public static final long MICROSECONDS = 60000000L;
+	public static final long MILLISECONDS = 60000L;
+	public static final long SECONDS = 60L;
+
+	protected long ticksPerMinute;
+
+	public SimulationClock(long ticksPerMinute) {
+		super();
+		if (ticksPerMinute <= 0) {
+			throw new IllegalArgumentException("The number of ticks per minute must be positive");
+		}
+		this.ticksPerMinute = ticksPerMinute;
+	}
+
+	/**
+	 * Convert a time in minutes to the nearest number of ticks
+	 * @param minutes a time or a duration in minutes
+	 * @return the number of ticks
+	 */
+	public long toTicks(double minutes) {
+		return Math.round(minutes * ticksPerMinute);
+	}
+
+	/**
+	 * Convert a number of ticks to minutes
+	 * @param ticks a time or a duration in ticks
+	 * @return the time in minutes
+	 */
+	public double toMinutes(long ticks) {
+		return (double) ticks / ticksPerMinute;
+	}
+
+	/**
+	 * Round a time to the nearest tick
+	 * @param minutes a time in minutes
+	 * @return the time of the nearest tick, in minutes
+	 */
+	public double round(double minutes) {
+		return toMinutes(toTicks(minutes));
+	}
+
+	/**
+	 * Add a duration to a time, both rounded to the nearest tick
+	 * @param time a time in minutes
+	 * @param duration a duration in minutes
+	 * @return the time of the tick after the duration, in minutes
+	 */
+	public double add(double time, double duration) {
+		return toMinutes(toTicks(time) + toTicks(duration));
+	}
+
+	public long getTicksPerMinute() {
+		return ticksPerMinute;
+	}
+
+	@Override
+	public String toString() {
+		return ticksPerMinute + " ticks per minute";
+	}
+
+}
@@ -0,0 +1,80 @@
+package core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import utils.RandomStreams;
+
+/**
+ * This class holds everything a simulation used to share with the other simulations of the process: the allocation
+ * of the IDs of the entities, the random streams, and the registries of the rooms and of the staff.
+ * Each Emergency Department owns its context, so that several Emergency Departments can be built and run at the
+ * same time on different threads without disturbing each other. The IDs of the entities are unique in a context
+ * only, starting from 1.
+ * The entities built without an Emergency Department take their IDs from a context shared by the whole process.
+ * @author Thomas
+ *
+ */
+public class SimulationContext {
+	protected static final SimulationContext SHARED = new SimulationContext(0);
+
+	protected AtomicLong lastID;
+	protected RandomStreams randomStreams;
+	protected RoomRegistry roomRegistry;
+	protected StaffRegistry staffRegistry;
+
+	/**
+	 * Create a context whose random streams have a seed drawn at random
+	 */
+	public SimulationContext() {
+		this(new RandomStreams());
+	}
+
+	public SimulationContext(long seed) {
+		this(new RandomStreams(seed));
+	}
+
+	public SimulationContext(RandomStreams randomStreams) {
+		super();
+		lastID = new AtomicLong(0);
+		this.randomStreams = randomStreams;
+		roomRegistry = new RoomRegistry();
+		staffRegistry = new StaffRegistry();
+	}
+
+	/**
+	 * This method returns the context of the entities built without an Emergency Department.
+	 * @return the context shared by the whole process
+	 */
+	public static SimulationContext getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * This method allocates a new ID, unique in the context.
+	 * @return the new ID
+	 */
+	public long nextID() {
+		return lastID.incrementAndGet();
+	}
+
+	public long getLastID() {
+		return lastID.get();
+	}
+
+	public RandomStreams getRandomStreams() {
+		return randomStreams;
+	}
+
+	public void setRandomStreams(RandomStreams randomStreams) {
+		this.randomStreams = randomStreams;
+	}
+
+	public RoomRegistry getRoomRegistry() {
+		return roomRegistry;
+	}
+
+	public StaffRegistry getStaffRegistry() {
+		return staffRegistry;
+	}
+
+}
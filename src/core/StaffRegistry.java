@@ -0,0 +1,136 @@
+package core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import resources.Human;
+import resources.HumanState;
+
+/**
+ * This class keeps track of the idle staff members of an Emergency Department by role. For each staff
+ * class (and each of its superclasses), it keeps the set of the idle staff members of this role, so that
+ * an idle nurse, physician or transporter is found in O(1) whatever the size of the staff.
+ * The staff members keep it up to date by notifying each change of state.
+ * @author Thomas
+ *
+ */
+public class StaffRegistry {
+	protected Set<Human> staff;
+	protected HashMap<Class<?>, LinkedHashSet<Human>> idleStaff;
+	protected HashMap<Class<?>, Integer> staffCounts;
+
+	public StaffRegistry() {
+		super();
+		staff = Collections.newSetFromMap(new IdentityHashMap<Human, Boolean>());
+		idleStaff = new HashMap<Class<?>, LinkedHashSet<Human>>();
+		staffCounts = new HashMap<Class<?>, Integer>();
+	}
+
+	/**
+	 * Add a staff member to the registry
+	 * @param employee the staff member to add
+	 */
+	public void register(Human employee) {
+		if (staff.add(employee)) {
+			for (Class<?> role = employee.getClass(); Human.class.isAssignableFrom(role); role = role.getSuperclass()) {
+				staffCounts.put(role, countStaff(role) + 1);
+			}
+			update(employee);
+		}
+	}
+
+	/**
+	 * Remove a staff member from the registry
+	 * @param employee the staff member to remove
+	 */
+	public void unregister(Human employee) {
+		if (staff.remove(employee)) {
+			for (Class<?> role = employee.getClass(); Human.class.isAssignableFrom(role); role = role.getSuperclass()) {
+				staffCounts.put(role, countStaff(role) - 1);
+				LinkedHashSet<Human> idle = idleStaff.get(role);
+				if (idle != null) {
+					idle.remove(employee);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all the staff members from the registry
+	 */
+	public void clear() {
+		staff.clear();
+		idleStaff.clear();
+		staffCounts.clear();
+	}
+
+	/**
+	 * Tell if a human is registered as a staff member
+	 * @param human the human
+	 * @return true if the human is a registered staff member, false otherwise
+	 */
+	public boolean contains(Human human) {
+		return staff.contains(human);
+	}
+
+	/**
+	 * Update the idle pools after the state of a staff member changed. Nothing happens if he is not registered.
+	 * @param employee the staff member whose state changed
+	 */
+	public void update(Human employee) {
+		if (!staff.contains(employee)) {
+			return;
+		}
+		boolean idle = employee.getHumanState() == HumanState.IDLE;
+		for (Class<?> role = employee.getClass(); Human.class.isAssignableFrom(role); role = role.getSuperclass()) {
+			LinkedHashSet<Human> idleOfRole = idleStaff.get(role);
+			if (idle) {
+				if (idleOfRole == null) {
+					idleOfRole = new LinkedHashSet<Human>();
+					idleStaff.put(role, idleOfRole);
+				}
+				idleOfRole.add(employee);
+			}
+			else if (idleOfRole != null) {
+				idleOfRole.remove(employee);
+			}
+		}
+	}
+
+	/**
+	 * Return an idle staff member of the given role
+	 * @param role the class of the staff member
+	 * @return an idle staff member of this role if there is one, null otherwise
+	 */
+	public <T extends Human> T getIdleStaff(Class<T> role) {
+		LinkedHashSet<Human> idle = idleStaff.get(role);
+		if (idle == null || idle.isEmpty()) {
+			return null;
+		}
+		return role.cast(idle.iterator().next());
+	}
+
+	/**
+	 * Return the number of idle staff members of the given role
+	 * @param role the class of the staff member
+	 * @return the number of idle staff members of this role
+	 */
+	public int countIdleStaff(Class<? extends Human> role) {
+		LinkedHashSet<Human> idle = idleStaff.get(role);
+		return idle == null ? 0 : idle.size();
+	}
+
+	/**
+	 * Return the number of staff members of the given role
+	 * @param role the class of the staff member
+	 * @return the number of registered staff members of this role
+	 */
+	public int countStaff(Class<?> role) {
+		Integer count = staffCounts.get(role);
+		return count == null ? 0 : count;
+	}
+
+}
@@ -0,0 +1,226 @@
+package core;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import resources.Human;
+import resources.Room;
+import utils.TimeWeightedStatistic;
+
+/**
+ * This class measures how busy the resources of an Emergency Department are over time: the number of busy staff
+ * members of each role, the number of occupied places in the rooms of each type, and the length of the waiting
+ * queue of each service. The Emergency Department notifies it of each change, and each level is integrated over
+ * time in O(1), so that its time average and its maximum can be read at any time.
+ * The number of staff members and of places are integrated too, so that the utilization of a role or of a room
+ * type is the average number of busy staff members (or occupied places) over their average number.
+ * @author Thomas
+ *
+ */
+public class UtilizationMonitor {
+	protected double startTime;
+	protected LinkedHashMap<Class<?>, TimeWeightedStatistic[]> staff;
+	protected LinkedHashMap<Class<?>, TimeWeightedStatistic[]> rooms;
+	protected IdentityHashMap<Room, int[]> roomsLevels;
+	protected LinkedHashMap<String, TimeWeightedStatistic> queues;
+
+	public UtilizationMonitor(double startTime) {
+		super();
+		this.startTime = startTime;
+		staff = new LinkedHashMap<Class<?>, TimeWeightedStatistic[]>();
+		rooms = new LinkedHashMap<Class<?>, TimeWeightedStatistic[]>();
+		roomsLevels = new IdentityHashMap<Room, int[]>();
+		queues = new LinkedHashMap<String, TimeWeightedStatistic>();
+	}
+
+	/**
+	 * Update the number of busy staff members of a role
+	 * @param role the class of the staff members
+	 * @param time the time of the change
+	 * @param busy the number of staff members of this role who aren't idle
+	 * @param total the number of staff members of this role
+	 */
+	public void staffChanged(Class<? extends Human> role, double time, int busy, int total) {
+		TimeWeightedStatistic[] statistics = getStatistics(staff, role);
+		statistics[0].update(time, busy);
+		statistics[1].update(time, total);
+	}
+
+	/**
+	 * Update the number of occupied places of the type of a room after a patient entered or left it, or after its
+	 * capacity changed. The rooms without a capacity (the corridor) only count their patients.
+	 * @param room the room which changed
+	 * @param time the time of the change
+	 */
+	public void roomChanged(Room room, double time) {
+		int[] levels = roomsLevels.get(room);
+		if (levels == null) {
+			levels = new int[2];
+			roomsLevels.put(room, levels);
+		}
+		int occupied = room.getPatients().size();
+		int capacity = Math.max(room.getCapacity(), 0);
+		TimeWeightedStatistic[] statistics = getStatistics(rooms, room.getClass());
+		if (occupied != levels[0]) {
+			statistics[0].add(time, occupied - levels[0]);
+		}
+		if (capacity != levels[1]) {
+			statistics[1].add(time, capacity - levels[1]);
+		}
+		levels[0] = occupied;
+		levels[1] = capacity;
+	}
+
+	/**
+	 * Remove the places of a room which is no longer in the Emergency Department
+	 * @param room the room removed
+	 * @param time the time of the removal
+	 */
+	public void roomRemoved(Room room, double time) {
+		int[] levels = roomsLevels.remove(room);
+		if (levels != null) {
+			TimeWeightedStatistic[] statistics = getStatistics(rooms, room.getClass());
+			statistics[0].add(time, -levels[0]);
+			statistics[1].add(time, -levels[1]);
+		}
+	}
+
+	/**
+	 * Update the length of the waiting queue of a service
+	 * @param service the name of the service
+	 * @param time the time of the change
+	 * @param length the number of patients waiting for the service
+	 */
+	public void queueChanged(String service, double time, int length) {
+		TimeWeightedStatistic statistic = queues.get(service);
+		if (statistic == null) {
+			statistic = new TimeWeightedStatistic(startTime);
+			queues.put(service, statistic);
+		}
+		statistic.update(time, length);
+	}
+
+	/**
+	 * Start all the measures again from a given time, keeping the current levels
+	 * @param time the new start time
+	 */
+	public void reset(double time) {
+		startTime = time;
+		for (TimeWeightedStatistic[] statistics : staff.values()) {
+			statistics[0].reset(time);
+			statistics[1].reset(time);
+		}
+		for (TimeWeightedStatistic[] statistics : rooms.values()) {
+			statistics[0].reset(time);
+			statistics[1].reset(time);
+		}
+		for (TimeWeightedStatistic statistic : queues.values()) {
+			statistic.reset(time);
+		}
+	}
+
+	/**
+	 * Return the statistic of the number of busy staff members of a role
+	 * @param role the class of the staff members
+	 * @return the statistic, null if there has never been any staff member of this role
+	 */
+	public TimeWeightedStatistic getBusyStaff(Class<? extends Human> role) {
+		TimeWeightedStatistic[] statistics = staff.get(role);
+		return statistics == null ? null : statistics[0];
+	}
+
+	/**
+	 * Return the utilization of the staff members of a role: the average number of busy staff members over the
+	 * average number of staff members
+	 * @param role the class of the staff members
+	 * @param time the end of the period
+	 * @return the utilization, between 0 and 1; 0 if there has never been any staff member of this role
+	 */
+	public double getStaffUtilization(Class<? extends Human> role, double time) {
+		return utilization(staff.get(role), time);
+	}
+
+	/**
+	 * Return the statistic of the number of occupied places in the rooms of a type
+	 * @param roomType the class of the rooms
+	 * @return the statistic, null if there has never been any room of this type
+	 */
+	public TimeWeightedStatistic getOccupiedPlaces(Class<? extends Room> roomType) {
+		TimeWeightedStatistic[] statistics = rooms.get(roomType);
+		return statistics == null ? null : statistics[0];
+	}
+
+	/**
+	 * Return the occupancy rate of the rooms of a type: the average number of occupied places over the average
+	 * number of places
+	 * @param roomType the class of the rooms
+	 * @param time the end of the period
+	 * @return the occupancy rate, between 0 and 1; 0 if these rooms never had any place
+	 */
+	public double getRoomUtilization(Class<? extends Room> roomType, double time) {
+		return utilization(rooms.get(roomType), time);
+	}
+
+	/**
+	 * Return the statistic of the length of the waiting queue of a service
+	 * @param service the name of the service
+	 * @return the statistic, null if no patient ever waited for this service
+	 */
+	public TimeWeightedStatistic getQueueLength(String service) {
+		return queues.get(service);
+	}
+
+	public double getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Return a report of the utilization of the resources and of the waiting queues
+	 * @param time the end of the period
+	 * @return the report, one line per role, room type and service
+	 */
+	public String getReport(double time) {
+		StringBuffer content = new StringBuffer();
+		content.append("- Staff (busy on average / maximum / utilization) : \n");
+		for (Map.Entry<Class<?>, TimeWeightedStatistic[]> entry : staff.entrySet()) {
+			appendLine(content, entry.getKey().getSimpleName(), entry.getValue()[0], time)
+					.append(" / ").append(utilization(entry.getValue(), time)).append('\n');
+		}
+		content.append("- Rooms (occupied places on average / maximum / occupancy rate) : \n");
+		for (Map.Entry<Class<?>, TimeWeightedStatistic[]> entry : rooms.entrySet()) {
+			appendLine(content, entry.getKey().getSimpleName(), entry.getValue()[0], time);
+			if (entry.getValue()[1].getMax() > 0) {
+				content.append(" / ").append(utilization(entry.getValue(), time));
+			}
+			content.append('\n');
+		}
+		content.append("- Waiting queues (length on average / maximum) : \n");
+		for (Map.Entry<String, TimeWeightedStatistic> entry : queues.entrySet()) {
+			appendLine(content, entry.getKey(), entry.getValue(), time).append('\n');
+		}
+		return content.toString();
+	}
+
+	private StringBuffer appendLine(StringBuffer content, String name, TimeWeightedStatistic statistic, double time) {
+		return content.append("  * ").append(name).append(" : ").append(statistic.getAverage(time)).append(" / ").append(statistic.getMax());
+	}
+
+	private double utilization(TimeWeightedStatistic[] statistics, double time) {
+		if (statistics == null) {
+			return 0;
+		}
+		double total = statistics[1].getAverage(time);
+		return total > 0 ? statistics[0].getAverage(time) / total : 0;
+	}
+
+	private TimeWeightedStatistic[] getStatistics(LinkedHashMap<Class<?>, TimeWeightedStatistic[]> map, Class<?> type) {
+		TimeWeightedStatistic[] statistics = map.get(type);
+		if (statistics == null) {
+			statistics = new TimeWeightedStatistic[] {new TimeWeightedStatistic(startTime), new TimeWeightedStatistic(startTime)};
+			map.put(type, statistics);
+		}
+		return statistics;
+	}
+
+}
@@ -8,32 +8,23 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
 
 import core.EmergencyDepartment;
-import core.Event;
-import core.NurseFactory;
-import core.PhysicianFactory;
-import core.TransporterFactory;
-import processing.PatientArrival;
-import processing.Task;
-import resources.Nurse;
+import core.HistoryFidelity;
+import core.ReplicationRunner;
+import core.ReplicationSummary;
+import core.RunSummary;
 import resources.Patient;
-import resources.Physician;
-import resources.Room;
-import resources.Transporter;
-import utils.DeterministicDistribution;
-import utils.ExponentialDistribution;
-import utils.GoldInsurance;
-import utils.NoInsurance;
-import utils.SeverityLevel;
-import utils.SilverInsurance;
-import utils.UniformDistribution;
-import workflow.WorkflowElement;
+import utils.KPISeries;
+import utils.RandomStreams;
 
 /**
  * This class is a CLUI in which you can enter commands to use the SimErgy simulator and see results of the simulation.
@@ -43,119 +34,247 @@ import workflow.WorkflowElement;
  */
 public class CLUI {
 	private static HashMap<String, EmergencyDepartment> emergencyDepartments = new HashMap<String, EmergencyDepartment>();
-	private static NurseFactory nurseFactory = new NurseFactory();
-	private static PhysicianFactory physicianFactory = new PhysicianFactory();
-	private static TransporterFactory transporterFactory = new TransporterFactory();
+	private static ScenarioBuilder builder = new ScenarioBuilder(emergencyDepartments, true);
+	private static final Set<String> RUN_COMMANDS = new HashSet<String>(Arrays.asList("executeEvents", "executeEvent",
+			"simulate", "kpi", "kpiSeries", "utilization", "display", "displayHistory", "list", "help", "stop", "runtest",
+			"replicate", "sweep", "optimize"));
 	
 	/**
-	 * This method set the probability distribution of the arrival of patients with a given severity level of an ED
-	 * @param level whose probability distribution must be changed
+	 * This method displays the arrivals, the releases or a KPI of an ED window by window, or over sliding groups of windows
 	 * @param input is the command entered by the user
 	 */
-	private static void setSeverityLevelDistribution(int level, String[] input) {
-		if(input.length < 4){
-			System.out.println("Error: setL*arrivalDist requires 3 arguments <EDname, DistType, DistParams>");
+	private static void printKPISeries(String[] input) {
+		if(input.length < 3){
+			System.out.println("Error: kpiSeries requires 2 arguments <EDname, arrivals|releases|los|dtdt> and an optional <SlidingWindows>");
 		}
 		else if(!emergencyDepartments.containsKey(input[1])) {
 			System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
 		}
 		else {
-			EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-			SeverityLevel severityLevel = ED.getSeverityLevel(level);
+			KPISeries series = emergencyDepartments.get(input[1]).getKPISeries();
 			try {
-				switch(input[2]){
-				case "uniform":
-					if(input.length > 3){
-						severityLevel.setProbabilityDistribution(new UniformDistribution(Double.parseDouble(input[3]), Double.parseDouble(input[4])));
+				KPISeries.Metric metric = KPISeries.Metric.fromLabel(input[2]);
+				int span = input.length > 3 ? Integer.parseInt(input[3]) : 1;
+				if (span <= 0) {
+					throw new IllegalArgumentException();
+				}
+				StringBuffer content = new StringBuffer();
+				content.append("\n----- " + metric + " of " + input[1] + " by window of " + series.getWidth() * span + " minutes -----\n");
+				for (long window = series.getFirstWindow(); window <= series.getLastWindow(); window++) {
+					content.append("[").append(series.getWindowStart(Math.max(window - span + 1, series.getFirstWindow()))).append(", ")
+							.append(series.getWindowStart(window + 1)).append(") : ");
+					if (metric == KPISeries.Metric.LOS || metric == KPISeries.Metric.DTDT) {
+						content.append(series.getMean(metric, window, span)).append(" (max ").append(series.getMax(metric, window, span))
+								.append(", ").append(series.getCount(metric, window, span)).append(" patients)");
 					}
-					else{
-						severityLevel.setProbabilityDistribution(new UniformDistribution(Double.parseDouble(input[3])));
+					else {
+						content.append(series.getCount(metric, window, span));
 					}
-					break;
-				case "exponential":
-					severityLevel.setProbabilityDistribution(new ExponentialDistribution(Double.parseDouble(input[3])));
-					break;
-				case "deterministic":
-					severityLevel.setProbabilityDistribution(new DeterministicDistribution(Double.parseDouble(input[3])));
-					break;
-				default:
-					System.out.println("Error: 2nd argument DistType must be exponential, deterministic or uniform");
-				}
-				System.out.println("Probability distribution of patient with severity level " + level + " successfuly set for " + input[1]);
+					content.append('\n');
+				}
+				System.out.println(content.toString());
 			} catch(Exception e) {
-				System.out.println("Error: Argument(s) <DistParam> must be double(s)");
+				System.out.println("Error: 2nd argument must be arrivals, releases, los or dtdt, and 3rd argument a positive number of windows");
 			}
 		}
 	}
 	
 	/**
-	 * This method set the duration of a given service in an ED
-	 * @param serviceName is the name of the service whose duration must be changed
-	 * @param input is the command entered by the user
+	 * This method reads the configuration commands of a scenario file, skipping the commands which run or display
+	 * a simulation.
+	 * @param fileName the scenario file
+	 * @return the configuration commands, split into the command and its arguments
+	 * @throws IOException if the scenario file cannot be read
 	 */
-	private static void setServiceDuration(String[] input) {
-		if(input.length < 5){
-			System.out.println("Error: setDuration requires 4 arguments <EDname, ServiceName, DistType, DistParams>");
-		}
-		else if(!emergencyDepartments.containsKey(input[1])) {
-			System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
+	public static ArrayList<String[]> readScenarioFile(String fileName) throws IOException {
+		ArrayList<String[]> commands = new ArrayList<String[]>();
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] input = splitInput(line);
+				if (input.length > 1 && !RUN_COMMANDS.contains(input[0])) {
+					commands.add(input);
+				}
+			}
+		} finally {
+			reader.close();
 		}
-		else {
-			EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-			WorkflowElement service = ED.getService(input[2]);
-			if(service == null){
-				System.out.println("Error: the service " + input[2] + " doesn't exist");
+		return commands;
+	}
+	
+	/**
+	 * This method builds independent copies of the Emergency Departments of a scenario file, by executing its
+	 * configuration commands once per copy.
+	 * @param fileName the scenario file
+	 * @param copies the number of copies of each Emergency Department
+	 * @param seed the seed from which the seeds of the copies are derived
+	 * @return the copies of each Emergency Department of the scenario, by name
+	 * @throws IOException if the scenario file cannot be read
+	 * @see CLUI#buildReplications(List, int, long)
+	 */
+	public static LinkedHashMap<String, ArrayList<EmergencyDepartment>> buildReplications(String fileName, int copies, long seed) throws IOException {
+		return buildReplications(readScenarioFile(fileName), copies, seed);
+	}
+	
+	/**
+	 * This method builds independent copies of the Emergency Departments configured by a list of commands, by
+	 * executing the commands once per copy with a quiet ScenarioBuilder.
+	 * The copy i is seeded with RandomStreams.deriveSeed(seed, i) and keeps no history, so that it runs quietly.
+	 * The copies are not added to the Emergency Departments of the CLUI, and several calls can build copies at
+	 * the same time on different threads.
+	 * @param commands the configuration commands, as returned by readScenarioFile
+	 * @param copies the number of copies of each Emergency Department
+	 * @param seed the seed from which the seeds of the copies are derived
+	 * @return the copies of each Emergency Department created by the commands, by name
+	 * @throws IllegalArgumentException if a command cannot be executed
+	 */
+	public static LinkedHashMap<String, ArrayList<EmergencyDepartment>> buildReplications(List<String[]> commands, int copies, long seed) {
+		LinkedHashMap<String, ArrayList<EmergencyDepartment>> replications = new LinkedHashMap<String, ArrayList<EmergencyDepartment>>();
+		for (int i = 0; i < copies; i++) {
+			ScenarioBuilder copyBuilder = new ScenarioBuilder();
+			copyBuilder.setHistoryFidelity(HistoryFidelity.NONE);
+			for (String[] command : commands) {
+				try {
+					copyBuilder.execute(command);
+				} catch(IllegalArgumentException e) {
+					throw new IllegalArgumentException("Command \"" + String.join(" ", command) + "\" failed: " + e.getMessage(), e);
+				}
 			}
-			try {
-				switch(input[3]){
-				case "uniform":
-					if(input.length > 3){
-						service.setDurationProbability((new UniformDistribution(Double.parseDouble(input[4]), Double.parseDouble(input[5]))));
-					}
-					else{
-						service.setDurationProbability(new UniformDistribution(Double.parseDouble(input[4])));
-					}
-					break;
-				case "exponential":
-					service.setDurationProbability(new ExponentialDistribution(Double.parseDouble(input[4])));
-					break;
-				case "deterministic":
-					service.setDurationProbability(new DeterministicDistribution(Double.parseDouble(input[4])));
-					break;
-				default:
-					System.out.println("Error: 3rd argument DistType must be exponential, deterministic or uniform");
-				}
-				System.out.println("Duration probability distribution of " + input[2] + " successfuly set for " + input[1]);
-			} catch(Exception e) {
-				System.out.println("Error: Argument(s) <DistParam> must be double(s)");
+			for (EmergencyDepartment ED : copyBuilder.getEmergencyDepartments().values()) {
+				ED.setHistoryFidelity(HistoryFidelity.NONE);
+				ED.setSeed(RandomStreams.deriveSeed(seed, i));
+				if (!replications.containsKey(ED.getName())) {
+					replications.put(ED.getName(), new ArrayList<EmergencyDepartment>());
+				}
+				replications.get(ED.getName()).add(ED);
 			}
 		}
+		return replications;
 	}
 	
 	/**
-	 * This method set the cost of a given service in an ED
-	 * @param serviceName is the name of the service whose cost must be changed
+	 * This method runs independent replications of the Emergency Departments of a scenario file on all the cores,
+	 * and displays the mean, standard deviation and 95% confidence interval of their KPIs
 	 * @param input is the command entered by the user
 	 */
-	private static void setServiceCost(String[] input) {
+	private static void replicate(String[] input) {
 		if(input.length < 4){
-			System.out.println("Error: set<ServiceName>Cost requires 3 arguments <EDname, ServiceName, Cost>");
+			System.out.println("Error: replicate requires 3 arguments <ScenarioFile, NumberOfReplications, DurationToSimulate> and an optional <Seed>");
+			return;
 		}
-		else if(!emergencyDepartments.containsKey(input[1])) {
-			System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
+		int copies;
+		double horizon;
+		long seed;
+		try {
+			copies = Integer.parseInt(input[2]);
+			horizon = Double.parseDouble(input[3]);
+			seed = input.length > 4 ? Long.parseLong(input[4]) : System.nanoTime();
+		} catch(NumberFormatException e) {
+			System.out.println("Error: NumberOfReplications and Seed must be integers and DurationToSimulate a double");
+			return;
 		}
-		else {
-			EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-			WorkflowElement service = ED.getService(input[2]);
-			if(service == null){
-				System.out.println("Error: the service " + input[1] + " doesn't exist");
+		if (copies < 1) {
+			System.out.println("Error: NumberOfReplications must be positive");
+			return;
+		}
+		try {
+			LinkedHashMap<String, ArrayList<EmergencyDepartment>> replications = buildReplications(input[1], copies, seed);
+			ReplicationRunner runner = new ReplicationRunner();
+			for (String name : replications.keySet()) {
+				ReplicationSummary summary = runner.run(replications.get(name), horizon);
+				System.out.println("Hospital " + name + " (seed " + seed + "): " + summary);
 			}
-			try {
-				service.setCost(Double.parseDouble(input[3]));
-				System.out.println("Cost of " + input[2] + " successfuly set to " + input[3] + " for " + input[1]);
-			} catch(Exception e) {
-				System.out.println("Error: Argument <Cost> must be a double");
+		} catch(IOException e) {
+			System.out.println("Error: File " + input[1] + " not found");
+		} catch(Exception e) {
+			System.out.println("Error: a replication failed: " + e);
+		}
+	}
+	
+	/**
+	 * This method sweeps a grid of staff counts, room counts and distributions of a scenario file, and writes the
+	 * KPIs of each configuration to a CSV file. A sweep interrupted can be resumed by entering the same command.
+	 * @param input is the command entered by the user
+	 */
+	private static void sweep(String[] input) {
+		if(input.length < 7){
+			System.out.println("Error: sweep requires at least 6 arguments <ScenarioFile, CSVFile, NumberOfReplications, "
+					+ "DurationToSimulate, Seed, Parameter=Values>");
+			return;
+		}
+		try {
+			ParameterSweep sweep = new ParameterSweep(readScenarioFile(input[1]), Integer.parseInt(input[3]),
+					Double.parseDouble(input[4]), Long.parseLong(input[5]));
+			for (int i = 6; i < input.length; i++) {
+				String[] parameter = input[i].split("=");
+				if (parameter.length != 2) {
+					throw new IllegalArgumentException("The parameter " + input[i] + " must be given as Parameter=Values");
+				}
+				sweep.addParameter(parameter[0], parameter[1]);
 			}
+			System.out.println("Sweeping " + sweep.getConfigurationsCount() + " configurations of " + input[1] + " to " + input[2]);
+			int simulated = sweep.run(input[2], Runtime.getRuntime().availableProcessors());
+			System.out.println(simulated + " configurations simulated, " + (sweep.getConfigurationsCount() - simulated)
+					+ " already in " + input[2]);
+		} catch(IOException e) {
+			System.out.println("Error: " + e.getMessage());
+		} catch(NumberFormatException e) {
+			System.out.println("Error: NumberOfReplications, Seed and counts must be integers and DurationToSimulate a double");
+		} catch(IllegalArgumentException e) {
+			System.out.println("Error: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * This method searches the cheapest staff and rooms of a scenario file meeting a target on a KPI, and displays
+	 * the configurations accepted at each step of the search
+	 * @param input is the command entered by the user
+	 */
+	private static void optimize(String[] input) {
+		if(input.length < 10){
+			System.out.println("Error: optimize requires at least 9 arguments <ScenarioFile, NumberOfReplications, DurationToSimulate, "
+					+ "Seed, los|dtdt, mean|pNN, MinLevel-MaxLevel, Target, Resource=Min..Max:Cost> and an optional <budget=MaxConfigurations>");
+			return;
+		}
+		try {
+			StaffingOptimizer optimizer = new StaffingOptimizer(readScenarioFile(input[1]), Integer.parseInt(input[2]),
+					Double.parseDouble(input[3]), Long.parseLong(input[4]));
+			String[] levels = input[7].split("-");
+			int minLevel = Integer.parseInt(levels[0]);
+			int maxLevel = levels.length > 1 ? Integer.parseInt(levels[1]) : minLevel;
+			optimizer.setTarget(input[5], input[6], minLevel, maxLevel, Double.parseDouble(input[8]));
+			for (int i = 9; i < input.length; i++) {
+				String[] parameter = input[i].split("=");
+				if (parameter.length == 2 && parameter[0].equals("budget")) {
+					optimizer.setBudget(Integer.parseInt(parameter[1]));
+					continue;
+				}
+				String[] range = parameter.length == 2 ? parameter[1].split("\\.\\.|:") : new String[0];
+				if (range.length != 3) {
+					throw new IllegalArgumentException("The resource " + input[i] + " must be given as Resource=Min..Max:Cost");
+				}
+				optimizer.addResource(parameter[0], Integer.parseInt(range[0]), Integer.parseInt(range[1]), Double.parseDouble(range[2]));
+			}
+			StaffingOptimizer.Evaluation best = optimizer.optimize();
+			for (StaffingOptimizer.Evaluation step : optimizer.getPath()) {
+				System.out.println("Step: " + step);
+			}
+			if (best == null) {
+				System.out.println("No configuration meeting the target was found in " + optimizer.getEvaluationsCount() + " configurations");
+			}
+			else {
+				System.out.println("Cheapest configuration found in " + optimizer.getEvaluationsCount() + " configurations: " + best);
+			}
+		} catch(IOException e) {
+			System.out.println("Error: File " + input[1] + " not found");
+		} catch(NumberFormatException e) {
+			System.out.println("Error: NumberOfReplications, Seed, levels, counts and budget must be integers, DurationToSimulate, "
+					+ "Target and costs doubles");
+		} catch(IllegalArgumentException e) {
+			System.out.println("Error: " + e.getMessage());
+		} catch(Exception e) {
+			System.out.println("Error: a simulation failed: " + e);
 		}
 	}
 	
@@ -168,179 +287,38 @@ public class CLUI {
 		// distinguishing between the chosen Exercise number 
 		switch(command){
 		
-			case "createED":
-				if(input.length < 2) {
-					System.out.println("Error: Argument <name> compulsory but not found");
-				}
-				else {
-					emergencyDepartments.put(input[1], new EmergencyDepartment(input[1]));
-				}
+			case "kpiSeries":
+				printKPISeries(input);
 				break;
 				
-			case "addRoom":
-				if(input.length < 5){
-					System.out.println("Error: addRoom requires 4 arguments <EDname, RoomType, RoomName, RoomCapacity>");
-				}
-				else if(!emergencyDepartments.containsKey(input[1])) {
-					System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
-				}
-				else {
-					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-					int capacity;
-					try {
-						capacity = Integer.parseInt(input[4]);
-						Class<?> roomClass = Class.forName("resources." + input[2]);
-						Constructor<?> cons = roomClass.getConstructor(String.class, int.class, EmergencyDepartment.class);
-						Room room = (Room) cons.newInstance(input[3], capacity, ED);
-						ED.addRoom(room);
-						System.out.println(input[2] + " " + input[3] + " of capacity " + input[4] + " successfully added to " + input[1]);
-					} catch (NoSuchMethodException | SecurityException e) {
-						System.out.println("Error: " + input[2] + " doesn't have the right constructor");
-					} catch (ClassNotFoundException e) {
-						System.out.println("Error: " + input[2] + " room type doesn't exist");
-					} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-							| InvocationTargetException e) {
-						System.out.println("Error: 4th argument <capacity> must be an integer");
-					}
-				}
-				break;
-				
-			case "addNurse":
+			case "utilization":
 				if(input.length < 2){
-					System.out.println("Error: Argument <EDname> compulsory but not found");
-				}
-				else if(!emergencyDepartments.containsKey(input[1])) {
-					System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
-				}
-				else {
-					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-					if(input.length < 3) {
-						ED.addStaff(1, nurseFactory);
-						System.out.println("Nurse successfully added to " + input[1]);
-						
-					}
-					else {
-						ED.addEmployee(new Nurse(input[2], input[3], ED));
-						System.out.println("Nurse " + input[2] + " " + input[3] + " successfully added to " + input[1]);
-					}
-					
-				}
-				break;
-				
-			case "addPhysician":
-				if(input.length < 2){
-					System.out.println("Error: Argument <EDname> compulsory but not found");
+					System.out.println("Error: utilization requires 1 argument <EDname>");
 				}
 				else if(!emergencyDepartments.containsKey(input[1])) {
 					System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
 				}
 				else {
 					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-					if(input.length < 3) {
-						ED.addStaff(1, physicianFactory);
-						System.out.println("Physician successfully added to " + input[1]);
-						
-					}
-					else {
-						ED.addEmployee(new Physician(input[2], input[3], ED));
-						System.out.println("Physician " + input[2] + " " + input[3] + " successfully added to " + input[1]);
-					}
-				}
-				break;
-				
-			case "addTransporter":
-				if(input.length < 2){
-					System.out.println("Error: Argument <EDname> compulsory but not found");
-				}
-				else if(!emergencyDepartments.containsKey(input[1])) {
-					System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
-				}
-				else {
-					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-					if(input.length < 3) {
-						ED.addStaff(1, transporterFactory);
-						System.out.println("Transporter successfully added to " + input[1]);
-						
-					}
-					else {
-						ED.addEmployee(new Transporter(input[2], input[3], ED));
-						System.out.println("Transporter " + input[2] + " " + input[3] + " successfully added to " + input[1]);
-					}
+					System.out.println("\n----- Utilization of " + input[1] + " from time " + ED.getUtilizationMonitor().getStartTime()
+							+ " to time " + ED.getTime() + " -----\n" + ED.getUtilizationMonitor().getReport(ED.getTime()));
 				}
 				break;
 				
-			case "setL1arrivalDist":
-				setSeverityLevelDistribution(1, input);
-				break;
-				
-			case "setL2arrivalDist":
-				setSeverityLevelDistribution(2, input);
+			case "replicate":
+				replicate(input);
 				break;
 				
-			case "setL3arrivalDist":
-				setSeverityLevelDistribution(3, input);
-				break;
-			
-			case "setL4arrivalDist":
-				setSeverityLevelDistribution(4, input);
+			case "sweep":
+				sweep(input);
 				break;
 				
-			case "setL5arrivalDist":
-				setSeverityLevelDistribution(5, input);
-				break;
-				
-			case "setDuration":
-				setServiceDuration(input);
-				break;
-				
-			case "setCost":
-				setServiceCost(input);
-				break;
-
-			case "addPatient":
-				if(input.length < 5){
-					System.out.println("Error: addPatient requires 4 arguments <EDname, PatientName, PatientSurname, HealthInsurance>");
-				}
-				else if(!emergencyDepartments.containsKey(input[1])) {
-					System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
-				}
-				else {
-					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
-					Task nextPatientArrival = ED.getNextPatientArrival();
-					nextPatientArrival.setTimestamp(ED.getTime());
-					Patient patient = ((PatientArrival) nextPatientArrival.getCommand()).getPatient();
-					patient.setName(input[2]);
-					patient.setSurname(input[3]);
-					switch(input[4]){
-					case "gold":
-						patient.setHealthInsurance(new GoldInsurance());
-						break;
-					case "silver":
-						patient.setHealthInsurance(new SilverInsurance());
-						break;
-					case "none":
-						patient.setHealthInsurance(new NoInsurance());
-						break;
-					default:
-						System.out.println("Error: 4th argument <HealthInsurance> must be either 'gold', 'silver' or 'none'");
-					}
-					if(input.length == 6){
-						try {
-							int level = Integer.parseInt(input[5]);
-							SeverityLevel severityLevel = ED.getSeverityLevel(level);
-							patient.setSeverityLevel(severityLevel);
-						} catch(Exception e) {
-							System.out.println("Error: 5th argument <SeverityLevel> must be an integer between 1 and 5");
-						}
-					}
-					nextPatientArrival.getCommand().execute();
-					ED.getHistory().add(new Event(nextPatientArrival.getCommand().toString(), ED.getTime()));
-					System.out.println("Patient " + input[2] + " " + input[3] + " with ID " + patient.getID() + " successfully arrived to " + input[1]);
-				}
+			case "optimize":
+				optimize(input);
 				break;
 				
 			case "executeEvents":
-				if(input.length < 2){
+				if(input.length < 3){
 					System.out.println("Error: executeEvents requires 2 arguments <EDname, NumberOfEvents>");
 				}
 				else if(!emergencyDepartments.containsKey(input[1])) {
@@ -349,18 +327,17 @@ public class CLUI {
 				else {
 					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
 					try {
-						int n = Integer.parseInt(input[2]);
-						for(int i=0; i<n; i++) {
-							ED.executeNextTask();
-						}
-					} catch (Exception e) {
+						long n = Long.parseLong(input[2]);
+						RunSummary summary = ED.executeEvents(n);
+						System.out.println("Hospital " + input[1] + ": " + summary);
+					} catch (NumberFormatException e) {
 						System.out.println("Error: 2nd argument NumberOfEvents must be an integer");
 					}
 				}
 				break;
 				
 			case "simulate":
-				if(input.length < 2){
+				if(input.length < 3){
 					System.out.println("Error: simulate requires 2 arguments <EDname, DurationToSimulate>");
 				}
 				else if(!emergencyDepartments.containsKey(input[1])) {
@@ -370,30 +347,40 @@ public class CLUI {
 					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
 					try {
 						double t = Double.parseDouble(input[2]);
-						double beginning = ED.getTime();
-						while(ED.getTime() - beginning < t) {
-							ED.executeNextTask();
-						}
+						RunSummary summary = ED.executeUntil(ED.getTime() + t);
+						System.out.println("Hospital " + input[1] + ": " + summary);
 						System.out.println("Hospital " + input[1] + " is now at time " + ED.getTime());
-					} catch (Exception e) {
+					} catch (NumberFormatException e) {
 						System.out.println("Error: 2nd argument DurationToSimulate must be a double");
 					}
 				}
 				break;
 				
 			case "kpi":
-				if(input.length < 2){
-					System.out.println("Error: kpi requires 2 arguments <EDname, KPIname>");
+				if(input.length < 3){
+					System.out.println("Error: kpi requires 2 arguments <EDname, KPIname> and optionally <mean|p50|p90|p99> and <SeverityLevel>");
 				}
 				else if(!emergencyDepartments.containsKey(input[1])) {
 					System.out.println("Error: There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
 				}
+				else if(input[2].equals("cube")) {
+					System.out.println("\n----- KPIs of the released patients of " + input[1] + " -----\n"
+							+ emergencyDepartments.get(input[1]).getKPICube().getReport());
+				}
+				else if(emergencyDepartments.get(input[1]).getKPI(input[2]) == null) {
+					System.out.println("Error: 2nd argument KPIname must be either los (Length-of-stay) or dtdt (Door-to-doctor-time)");
+				}
 				else {
 					EmergencyDepartment ED = emergencyDepartments.get(input[1]);
+					String statistic = input.length > 3 ? input[3] : "mean";
 					try {
-						System.out.println(input[1] + " for hospital " + input[1] + " is " + ED.computeKPI((String)input[2]));
-					} catch (Exception e) {
-						System.out.println("Error: 2nd argument KPIname must be either los (Length-of-stay) or dtdt (Door-to-doctor-time)");
+						int level = input.length > 4 ? Integer.parseInt(input[4]) : 0;
+						String patients = level == 0 ? "" : " (L" + level + " patients)";
+						System.out.println(statistic + " " + input[2] + " for hospital " + input[1] + patients + " is "
+								+ ED.computeKPI(input[2], statistic, level));
+					} catch (IllegalArgumentException e) {
+						System.out.println("Error: 3rd argument must be mean or a percentile like p50, p90 or p99, "
+								+ "and 4th argument a severity level between 1 and 5");
 					}
 				}
 				break;
@@ -482,18 +469,53 @@ public class CLUI {
 				System.out.println("\t setDuration <EDname> <ServiceName> <DistType> <DistParam1> [<DistParam2>]: to set the distribution"
 						+ "of probability of the duration of a service of an ED");
 				System.out.println("\t setCost <EDname> <ServiceName> <Cost>: to set the cost of a service in an ED");
+				System.out.println("\t setDiscipline <EDname> <ServiceName> <severity|priority|fifo|aging> [<AgingRate>]: to set the order in which "
+						+ "a service of an ED treats its waiting patients");
+				System.out.println("\t setClock <EDname> <continuous|ticks> [<TicksPerMinute>]: to use continuous times or a tick clock "
+						+ "(one microsecond by default) in an ED");
+				System.out.println("\t setEventQueue <EDname> <heap|calendar>: to choose the structure keeping the pending events of the services of an ED");
+				System.out.println("\t setHistory <EDname> <none|milestones|full>: to choose how much of the history of an ED and of its "
+						+ "patients is kept");
+				System.out.println("\t replicate <ScenarioFile> <NumberOfReplications> <DurationToSimulate> [<Seed>]: to simulate independent "
+						+ "replications of the EDs of a scenario on all the cores, and display the confidence intervals of their KPIs");
+				System.out.println("\t sweep <ScenarioFile> <CSVFile> <NumberOfReplications> <DurationToSimulate> <Seed> <Parameter=Values>...: "
+						+ "to simulate every combination of values of the parameters (nurses|physicians|transporters|<RoomType>=2..6 or 2,4, "
+						+ "<Service>|L1..L5=uniform:2:5,exponential:0.05) and write their KPIs to a CSV file, resumed if interrupted");
+				System.out.println("\t optimize <ScenarioFile> <NumberOfReplications> <DurationToSimulate> <Seed> <los|dtdt> <mean|pNN> "
+						+ "<MinLevel-MaxLevel> <Target> <Resource=Min..Max:Cost>... [budget=<MaxConfigurations>]: to search the cheapest "
+						+ "nurses, physicians, transporters and rooms of a scenario meeting a target on a KPI");
+				System.out.println("\t setSeed <EDname> <seed>: to seed the random streams of an ED, so that a simulation can be "
+						+ "reproduced exactly");
+				System.out.println("\t setKpiWindow <EDname> <WindowWidth> [<NumberOfWindows>]: to keep the KPIs of an ED over the last "
+						+ "windows of WindowWidth minutes (by default the last 720 windows of 60 minutes)");
+				System.out.println("\t kpiSeries <EDname> <arrivals|releases|los|dtdt> [<SlidingWindows>]: to display the arrivals, releases "
+						+ "or a KPI of an ED window by window, or over sliding groups of SlidingWindows windows");
+				System.out.println("\t utilization <EDname>: to display the time average and the maximum of the busy staff members by role, "
+						+ "of the occupied places by room type and of the length of the waiting queues of an ED");
 				System.out.println("\t executeEvent <EDname>: to execute the next event of an ED");
 				System.out.println("\t executeEvents <EDname> <NumberOfEvents>: to execute the next NumberOfEvents events in an ED");
-				System.out.println("\t kpi <EDname> <KPIname>: to calculate and display a KPI of an ED (los:Length-of-stay or dtdt:Door-to-doctor-time)");
-				System.out.println("\t simulate <EDname> <time>: to simulate at least a certain time in an ED. The simulation stops just before"
-						+ "the first event after currentTime + time");
+				System.out.println("\t kpi <EDname> <KPIname> [<mean|p50|p90|p99>] [<SeverityLevel>]: to calculate and display the mean or a percentile "
+						+ "of a KPI of an ED (los:Length-of-stay or dtdt:Door-to-doctor-time), for all the patients or those of a severity level");
+				System.out.println("\t kpi <EDname> cube: to display the KPIs of the released patients of an ED by severity level, "
+						+ "health insurance and examinations");
+				System.out.println("\t simulate <EDname> <time>: to simulate a certain time in an ED. The simulation executes every event "
+						+ "up to currentTime + time and stops exactly at this time");
 				System.out.println("\t display <EDname> [<PatientName> <PatientSurname>]: to display the current state of an entire ED or"
 						+ "of a patient of an ED");
 				System.out.println("\t displayHistory <EDname>: to display the history an ED");
 				System.out.println("\t runtest <Filename> [<OutputFilename>]: to run the commands in a file and optionally output the results to another file");
 				break;
 			default:
-				System.out.println("The command " + command + " doesn't exist. Type help to see the list of possible commands or enter a valid one");
+				if(ScenarioBuilder.isConfigurationCommand(command)) {
+					try {
+						builder.execute(input);
+					} catch(IllegalArgumentException e) {
+						System.out.println("Error: " + e.getMessage());
+					}
+				}
+				else {
+					System.out.println("The command " + command + " doesn't exist. Type help to see the list of possible commands or enter a valid one");
+				}
 		}
 	}
 	
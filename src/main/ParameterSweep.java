@@ -0,0 +1,444 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import core.EmergencyDepartment;
+import core.ReplicationSummary;
+import resources.Room;
+import utils.OnlineStatistics;
+import utils.QuantileSketch;
+import workflow.WorkflowElement;
+
+/**
+ * This class sweeps a grid of configurations of a scenario: the numbers of nurses, physicians and transporters, the
+ * numbers of rooms of each type, the duration of the services and the arrivals of the patients of each severity level.
+ * Each parameter takes a list of values, and every combination of values (a cell of the grid) is simulated with
+ * independent replications, on all the cores: the cells are split between the threads of a ForkJoinPool, which
+ * steal the cells of each other when they run out of work.
+ * The replication i of every cell has the same seed, so that the configurations are compared on the same patients.
+ * Each cell writes one row per Emergency Department to a CSV file as soon as it is simulated. The file is also the
+ * checkpoint of the sweep: when a sweep is run again with the same file, the cells already written are skipped.
+ * The KPIs of an Emergency Department where no patient reached their milestone are left empty.
+ * @author Thomas
+ *
+ */
+public class ParameterSweep {
+	protected static final String[] STAFF = {"nurses", "physicians", "transporters"};
+	protected static final String[] STAFF_COMMANDS = {"addNurse", "addPhysician", "addTransporter"};
+	protected static final String[] KPIS = {"los", "dtdt"};
+
+	protected List<String[]> baseCommands;
+	protected ArrayList<String> names;
+	protected ArrayList<String[]> values;
+	protected int replications;
+	protected double horizon;
+	protected long seed;
+	protected HashSet<String> services;
+
+	/**
+	 * Create a sweep of a scenario
+	 * @param baseCommands the configuration commands of the scenario, as returned by CLUI.readScenarioFile
+	 * @param replications the number of replications of each configuration
+	 * @param horizon the duration to simulate
+	 * @param seed the seed from which the seeds of the replications are derived
+	 */
+	public ParameterSweep(List<String[]> baseCommands, int replications, double horizon, long seed) {
+		super();
+		this.baseCommands = baseCommands;
+		this.names = new ArrayList<String>();
+		this.values = new ArrayList<String[]>();
+		this.replications = replications;
+		this.horizon = horizon;
+		this.seed = seed;
+		this.services = new HashSet<String>();
+		for (ArrayList<EmergencyDepartment> copies : CLUI.buildReplications(baseCommands, 1, seed).values()) {
+			for (WorkflowElement service : copies.get(0).getServices()) {
+				services.add(service.getName());
+			}
+		}
+	}
+
+	/**
+	 * This method adds a parameter to the grid.
+	 * The parameter is nurses, physicians, transporters, a type of room (BoxRoom...), a service (Triage...) or a
+	 * severity level (L1 to L5). The values of the staff and rooms are counts, given as a list (2,3,5) or as a range
+	 * (2..6); the rooms are created with the capacity of the first room of their type in the scenario. The values of
+	 * the services and severity levels are distributions, given as a list of distributions whose parameters are
+	 * separated by colons (uniform:2:5,exponential:0.05).
+	 * @param name the name of the parameter
+	 * @param specification the values of the parameter
+	 * @throws IllegalArgumentException if the parameter or its values are not valid
+	 */
+	public void addParameter(String name, String specification) {
+		if (names.contains(name)) {
+			throw new IllegalArgumentException("The parameter " + name + " is already swept");
+		}
+		String[] parameterValues;
+		if (isCount(name)) {
+			parameterValues = parseCounts(specification);
+		}
+		else if (services.contains(name) || name.matches("L[1-5]")) {
+			parameterValues = specification.split(",");
+			for (String value : parameterValues) {
+				String[] distribution = value.split(":");
+				if (!Arrays.asList("uniform", "exponential", "deterministic").contains(distribution[0]) || distribution.length < 2) {
+					throw new IllegalArgumentException("The value " + value + " of " + name + " is not a distribution");
+				}
+				for (int i = 1; i < distribution.length; i++) {
+					Double.parseDouble(distribution[i]);
+				}
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unknown parameter " + name);
+		}
+		names.add(name);
+		values.add(parameterValues);
+	}
+
+	/**
+	 * This method return the number of cells of the grid.
+	 * @return the product of the numbers of values of the parameters
+	 */
+	public int getConfigurationsCount() {
+		int count = 1;
+		for (String[] parameterValues : values) {
+			count *= parameterValues.length;
+		}
+		return count;
+	}
+
+	/**
+	 * This method return the values of the parameters in a cell of the grid. The first parameter varies the slowest.
+	 * @param index the index of the cell
+	 * @return the value of each parameter, in their order of addition
+	 */
+	public String[] getConfiguration(int index) {
+		String[] configuration = new String[names.size()];
+		for (int i = names.size() - 1; i >= 0; i--) {
+			configuration[i] = values.get(i)[index % values.get(i).length];
+			index /= values.get(i).length;
+		}
+		return configuration;
+	}
+
+	/**
+	 * This method return the configuration commands of a cell of the grid: the commands of the scenario setting a
+	 * swept parameter are replaced by commands setting its value in the cell, for each Emergency Department.
+	 * @param configuration the values of the parameters in the cell
+	 * @return the configuration commands of the cell
+	 */
+	public ArrayList<String[]> getCommands(String[] configuration) {
+		ArrayList<String[]> commands = new ArrayList<String[]>();
+		ArrayList<String> EDs = new ArrayList<String>();
+		String[] capacities = new String[names.size()];
+		for (String[] command : baseCommands) {
+			if (command[0].equals("createED")) {
+				EDs.add(command[1]);
+			}
+			int parameter = getSweptParameter(command);
+			if (parameter < 0) {
+				commands.add(command);
+			}
+			else if (capacities[parameter] == null && command.length > 4) {
+				capacities[parameter] = command[4];
+			}
+		}
+		for (String ED : EDs) {
+			for (int i = 0; i < names.size(); i++) {
+				String name = names.get(i);
+				String value = configuration[i];
+				int staff = Arrays.asList(STAFF).indexOf(name);
+				if (staff >= 0) {
+					for (int j = 0; j < Integer.parseInt(value); j++) {
+						commands.add(new String[] {STAFF_COMMANDS[staff], ED});
+					}
+				}
+				else if (isCount(name)) {
+					String capacity = capacities[i] == null ? "1" : capacities[i];
+					for (int j = 0; j < Integer.parseInt(value); j++) {
+						commands.add(new String[] {"addRoom", ED, name, name + " " + (j + 1), capacity});
+					}
+				}
+				else {
+					ArrayList<String> command = new ArrayList<String>();
+					if (services.contains(name)) {
+						command.addAll(Arrays.asList("setDuration", ED, name));
+					}
+					else {
+						command.addAll(Arrays.asList("set" + name + "arrivalDist", ED));
+					}
+					command.addAll(Arrays.asList(value.split(":")));
+					commands.add(command.toArray(new String[command.size()]));
+				}
+			}
+		}
+		return commands;
+	}
+
+	/**
+	 * This method simulates all the cells of the grid which are not in the CSV file yet, in parallel, and appends
+	 * their rows to the file as soon as they are simulated.
+	 * The finished rows are first matched with the cells of the grid on their Emergency Department and the values of
+	 * their parameters, so that the values of a parameter can be changed between two runs. The rows of the cells left
+	 * incomplete by an interrupted sweep, the last line if it was cut before its newline and the rows of the cells
+	 * which are not in the grid anymore are removed: the rows of the finished cells are copied, with their index in
+	 * the grid, to a temporary file which then replaces the CSV file, so that the finished cells are never lost.
+	 * @param fileName the CSV file
+	 * @param parallelism the number of threads
+	 * @return the number of cells simulated, the cells found in the file being skipped
+	 * @throws IOException if the CSV file cannot be read or written
+	 */
+	public int run(String fileName, int parallelism) throws IOException {
+		String header = getHeader();
+		String sweep = "," + replications + "," + horizon + "," + seed + ",";
+		ArrayList<String> EDs = new ArrayList<String>();
+		for (String[] command : baseCommands) {
+			if (command[0].equals("createED") && command.length > 1 && !EDs.contains(command[1].replace(",", " "))) {
+				EDs.add(command[1].replace(",", " "));
+			}
+		}
+		HashMap<String, String> finishedRows = new HashMap<String, String>();
+		File file = new File(fileName);
+		if (file.exists()) {
+			String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			ArrayList<String> lines = new ArrayList<String>(Arrays.asList(content.split("\\r?\\n", -1)));
+			// The last line is complete only if the file ends with a newline, in which case it is empty
+			lines.remove(lines.size() - 1);
+			if (!lines.isEmpty() && !lines.get(0).equals(header)) {
+				throw new IOException("The file " + fileName + " is the result of a sweep of other parameters");
+			}
+			int columns = header.split(",", -1).length;
+			for (int i = 1; i < lines.size(); i++) {
+				String line = lines.get(i);
+				String[] row = line.split(",", -1);
+				if (row.length == columns) {
+					if (!line.contains(sweep)) {
+						throw new IOException("The file " + fileName + " is the result of a sweep with other replications");
+					}
+					finishedRows.put(getRowKey(row[1], Arrays.copyOfRange(row, 2, 2 + names.size())), line.substring(line.indexOf(',')));
+				}
+			}
+		}
+		ArrayList<Integer> cells = new ArrayList<Integer>();
+		File temporaryFile = new File(fileName + ".tmp");
+		BufferedWriter temporaryWriter = new BufferedWriter(new FileWriter(temporaryFile));
+		try {
+			temporaryWriter.write(header);
+			temporaryWriter.newLine();
+			for (int index = 0; index < getConfigurationsCount(); index++) {
+				String[] configuration = getConfiguration(index);
+				ArrayList<String> rows = new ArrayList<String>();
+				for (String ED : EDs) {
+					String row = finishedRows.get(getRowKey(ED, configuration));
+					if (row != null) {
+						rows.add(index + row);
+					}
+				}
+				if (rows.size() < EDs.size()) {
+					cells.add(index);
+					continue;
+				}
+				for (String row : rows) {
+					temporaryWriter.write(row);
+					temporaryWriter.newLine();
+				}
+			}
+		} finally {
+			temporaryWriter.close();
+		}
+		Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		final BufferedWriter writer = new BufferedWriter(new FileWriter(file, true));
+		try {
+			ForkJoinPool pool = new ForkJoinPool(Math.max(parallelism, 1));
+			try {
+				pool.invoke(new SweepTask(cells, 0, cells.size(), writer));
+			} finally {
+				pool.shutdown();
+			}
+			return cells.size();
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * This method simulates the replications of a cell of the grid and return its rows, one per Emergency Department.
+	 * @param index the index of the cell
+	 * @return the rows of the cell in the CSV file
+	 */
+	public ArrayList<String> simulate(int index) {
+		String[] configuration = getConfiguration(index);
+		LinkedHashMap<String, ArrayList<EmergencyDepartment>> copies = CLUI.buildReplications(getCommands(configuration), replications, seed);
+		ArrayList<String> rows = new ArrayList<String>();
+		for (String ED : copies.keySet()) {
+			ReplicationSummary summary = new ReplicationSummary(horizon);
+			for (EmergencyDepartment emergencyDepartment : copies.get(ED)) {
+				summary.add(emergencyDepartment, emergencyDepartment.executeUntil(emergencyDepartment.getTime() + horizon));
+			}
+			StringBuilder row = new StringBuilder();
+			row.append(index).append(',').append(ED.replace(",", " "));
+			for (String value : configuration) {
+				row.append(',').append(value);
+			}
+			row.append(',').append(replications).append(',').append(horizon).append(',').append(seed);
+			row.append(',').append(summary.getReleases().getMean());
+			for (String KPI : KPIS) {
+				OnlineStatistics means = summary.getMeans(KPI);
+				QuantileSketch sketch = summary.getPooledSketch(KPI);
+				if (means.getCount() == 0) {
+					row.append(",,,,");
+				}
+				else {
+					row.append(',').append(means.getMean()).append(',').append(means.getStandardDeviation()).append(',')
+							.append(means.getConfidenceHalfWidth()).append(',').append(sketch.getQuantile(0.9));
+				}
+			}
+			rows.add(row.toString());
+		}
+		return rows;
+	}
+
+	/**
+	 * This method return the header of the CSV file, which identifies the sweep.
+	 * @return the names of the columns
+	 */
+	public String getHeader() {
+		StringBuilder header = new StringBuilder("configuration,ED");
+		for (String name : names) {
+			header.append(',').append(name);
+		}
+		header.append(",replications,horizon,seed,releases");
+		for (String KPI : KPIS) {
+			header.append(',').append(KPI).append("_mean,").append(KPI).append("_sd,").append(KPI).append("_ci95,")
+					.append(KPI).append("_p90");
+		}
+		return header.toString();
+	}
+
+	public int getReplications() {
+		return replications;
+	}
+
+	public double getHorizon() {
+		return horizon;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Return the key identifying the row of an Emergency Department in a cell of the grid
+	 */
+	private static String getRowKey(String ED, String[] configuration) {
+		StringBuilder key = new StringBuilder(ED);
+		for (String value : configuration) {
+			key.append(',').append(value);
+		}
+		return key.toString();
+	}
+
+	private boolean isCount(String name) {
+		if (Arrays.asList(STAFF).contains(name)) {
+			return true;
+		}
+		try {
+			return name.endsWith("Room") && Room.class.isAssignableFrom(Class.forName("resources." + name));
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	private static String[] parseCounts(String specification) {
+		ArrayList<String> counts = new ArrayList<String>();
+		for (String value : specification.split(",")) {
+			String[] range = value.split("\\.\\.");
+			int first = Integer.parseInt(range[0]);
+			int last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+			if (first < 0 || last < first) {
+				throw new IllegalArgumentException("The range " + value + " is not valid");
+			}
+			for (int count = first; count <= last; count++) {
+				counts.add(Integer.toString(count));
+			}
+		}
+		return counts.toArray(new String[counts.size()]);
+	}
+
+	/**
+	 * Return the index of the parameter set by a command of the scenario, -1 if it doesn't set a swept parameter
+	 */
+	private int getSweptParameter(String[] command) {
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i);
+			int staff = Arrays.asList(STAFF).indexOf(name);
+			if ((staff >= 0 && command[0].equals(STAFF_COMMANDS[staff]))
+					|| (command[0].equals("addRoom") && command.length > 2 && command[2].equals(name))
+					|| (command[0].equals("setDuration") && command.length > 2 && command[2].equals(name))
+					|| command[0].equals("set" + name + "arrivalDist")) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * A task simulating a range of cells, split in two halves as long as it has more than one cell
+	 */
+	protected class SweepTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private List<Integer> cells;
+		private int from;
+		private int to;
+		private BufferedWriter writer;
+
+		protected SweepTask(List<Integer> cells, int from, int to, BufferedWriter writer) {
+			this.cells = cells;
+			this.from = from;
+			this.to = to;
+			this.writer = writer;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new SweepTask(cells, from, middle, writer), new SweepTask(cells, middle, to, writer));
+				return;
+			}
+			if (to == from) {
+				return;
+			}
+			ArrayList<String> rows = simulate(cells.get(from));
+			synchronized (writer) {
+				try {
+					for (String row : rows) {
+						writer.write(row);
+						writer.newLine();
+					}
+					writer.flush();
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,473 @@
+package main;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import core.EmergencyDepartment;
+import core.Event;
+import core.HistoryFidelity;
+import core.NurseFactory;
+import core.PhysicianFactory;
+import core.SimulationClock;
+import core.TransporterFactory;
+import processing.PatientArrival;
+import processing.Task;
+import resources.Nurse;
+import resources.Patient;
+import resources.Physician;
+import resources.Room;
+import resources.Transporter;
+import utils.DeterministicDistribution;
+import utils.ExponentialDistribution;
+import utils.GoldInsurance;
+import utils.KPISeries;
+import utils.NoInsurance;
+import utils.ProbabilityDistribution;
+import utils.SeverityLevel;
+import utils.SilverInsurance;
+import utils.UniformDistribution;
+import workflow.AgingDiscipline;
+import workflow.FifoDiscipline;
+import workflow.PriorityDiscipline;
+import workflow.SeverityDiscipline;
+import workflow.WorkflowElement;
+
+/**
+ * This class executes the commands which build and configure Emergency Departments (createED, addRoom, addNurse,
+ * setDuration...) on its own set of Emergency Departments.
+ * A command which cannot be executed throws an IllegalArgumentException explaining why, and the successful commands
+ * are only displayed if the builder is verbose: the CLUI uses a verbose builder on its Emergency Departments, and
+ * the replications of a scenario are built by quiet builders, one per copy, which can run on several threads at
+ * the same time.
+ * @author Thomas
+ *
+ */
+public class ScenarioBuilder {
+	private static final Set<String> CONFIGURATION_COMMANDS = new HashSet<String>(Arrays.asList("createED", "addRoom",
+			"addNurse", "addPhysician", "addTransporter", "addPatient", "setL1arrivalDist", "setL2arrivalDist",
+			"setL3arrivalDist", "setL4arrivalDist", "setL5arrivalDist", "setDuration", "setCost", "setDiscipline",
+			"setEventQueue", "setKpiWindow", "setHistory", "setSeed", "setClock"));
+
+	protected Map<String, EmergencyDepartment> emergencyDepartments;
+	protected boolean verbose;
+	protected HistoryFidelity historyFidelity;
+	protected NurseFactory nurseFactory;
+	protected PhysicianFactory physicianFactory;
+	protected TransporterFactory transporterFactory;
+
+	/**
+	 * Create a quiet builder with no Emergency Department
+	 */
+	public ScenarioBuilder() {
+		this(new LinkedHashMap<String, EmergencyDepartment>(), false);
+	}
+
+	/**
+	 * Create a builder working on the given Emergency Departments
+	 * @param emergencyDepartments the Emergency Departments, by name, to which the created ones are added
+	 * @param verbose true to display the successful commands
+	 */
+	public ScenarioBuilder(Map<String, EmergencyDepartment> emergencyDepartments, boolean verbose) {
+		super();
+		this.emergencyDepartments = emergencyDepartments;
+		this.verbose = verbose;
+		historyFidelity = null;
+		nurseFactory = new NurseFactory();
+		physicianFactory = new PhysicianFactory();
+		transporterFactory = new TransporterFactory();
+	}
+
+	/**
+	 * This method tells if a command builds or configures an Emergency Department
+	 * @param command the name of the command
+	 * @return true if the builder can execute the command, false otherwise
+	 */
+	public static boolean isConfigurationCommand(String command) {
+		return CONFIGURATION_COMMANDS.contains(command);
+	}
+
+	/**
+	 * This method executes a configuration command
+	 * @param input the command and its arguments
+	 * @throws IllegalArgumentException if the command is not a configuration command or cannot be executed
+	 */
+	public void execute(String[] input) {
+		switch(input[0]){
+
+			case "createED":
+				requireArguments(input, 2, "Argument <name> compulsory but not found");
+				EmergencyDepartment createdED = new EmergencyDepartment(input[1]);
+				if(historyFidelity != null) {
+					createdED.setHistoryFidelity(historyFidelity);
+				}
+				emergencyDepartments.put(input[1], createdED);
+				print("Hospital " + input[1] + " successfully created !");
+				break;
+
+			case "addRoom":
+				addRoom(input);
+				break;
+
+			case "addNurse":
+				requireArguments(input, 2, "Argument <EDname> compulsory but not found");
+				if(input.length < 4) {
+					getEmergencyDepartment(input).addStaff(1, nurseFactory);
+					print("Nurse successfully added to " + input[1]);
+				}
+				else {
+					EmergencyDepartment ED = getEmergencyDepartment(input);
+					ED.addEmployee(new Nurse(input[2], input[3], ED));
+					print("Nurse " + input[2] + " " + input[3] + " successfully added to " + input[1]);
+				}
+				break;
+
+			case "addPhysician":
+				requireArguments(input, 2, "Argument <EDname> compulsory but not found");
+				if(input.length < 4) {
+					getEmergencyDepartment(input).addStaff(1, physicianFactory);
+					print("Physician successfully added to " + input[1]);
+				}
+				else {
+					EmergencyDepartment ED = getEmergencyDepartment(input);
+					ED.addEmployee(new Physician(input[2], input[3], ED));
+					print("Physician " + input[2] + " " + input[3] + " successfully added to " + input[1]);
+				}
+				break;
+
+			case "addTransporter":
+				requireArguments(input, 2, "Argument <EDname> compulsory but not found");
+				if(input.length < 4) {
+					getEmergencyDepartment(input).addStaff(1, transporterFactory);
+					print("Transporter successfully added to " + input[1]);
+				}
+				else {
+					EmergencyDepartment ED = getEmergencyDepartment(input);
+					ED.addEmployee(new Transporter(input[2], input[3], ED));
+					print("Transporter " + input[2] + " " + input[3] + " successfully added to " + input[1]);
+				}
+				break;
+
+			case "addPatient":
+				addPatient(input);
+				break;
+
+			case "setL1arrivalDist":
+			case "setL2arrivalDist":
+			case "setL3arrivalDist":
+			case "setL4arrivalDist":
+			case "setL5arrivalDist":
+				setSeverityLevelDistribution(input[0].charAt(4) - '0', input);
+				break;
+
+			case "setDuration":
+				setServiceDuration(input);
+				break;
+
+			case "setCost":
+				setServiceCost(input);
+				break;
+
+			case "setDiscipline":
+				setQueueDiscipline(input);
+				break;
+
+			case "setEventQueue":
+				requireArguments(input, 3, "setEventQueue requires 2 arguments <EDname, heap|calendar>");
+				if(!input[2].equals("heap") && !input[2].equals("calendar")) {
+					throw new IllegalArgumentException("2nd argument must be heap or calendar");
+				}
+				getEmergencyDepartment(input).setCalendarQueues(input[2].equals("calendar"));
+				print("Event queues of " + input[1] + " successfuly set to " + input[2]);
+				break;
+
+			case "setKpiWindow":
+				setKPIWindow(input);
+				break;
+
+			case "setHistory":
+				requireArguments(input, 3, "setHistory requires 2 arguments <EDname, none|milestones|full>");
+				EmergencyDepartment historyED = getEmergencyDepartment(input);
+				try {
+					historyED.setHistoryFidelity(HistoryFidelity.fromLabel(input[2]));
+				} catch(IllegalArgumentException e) {
+					throw new IllegalArgumentException("2nd argument must be none, milestones or full");
+				}
+				print("History of " + input[1] + " successfuly set to " + input[2]);
+				break;
+
+			case "setSeed":
+				requireArguments(input, 3, "setSeed requires 2 arguments <EDname, seed>");
+				EmergencyDepartment seedED = getEmergencyDepartment(input);
+				try {
+					seedED.setSeed(Long.parseLong(input[2]));
+				} catch(NumberFormatException e) {
+					throw new IllegalArgumentException("2nd argument must be an integer");
+				}
+				print("Seed of " + input[1] + " successfuly set to " + input[2]);
+				break;
+
+			case "setClock":
+				setClock(input);
+				break;
+
+			default:
+				throw new IllegalArgumentException("The command " + input[0] + " is not a configuration command");
+		}
+	}
+
+	public Map<String, EmergencyDepartment> getEmergencyDepartments() {
+		return emergencyDepartments;
+	}
+
+	public boolean isVerbose() {
+		return verbose;
+	}
+
+	public void setVerbose(boolean verbose) {
+		this.verbose = verbose;
+	}
+
+	public HistoryFidelity getHistoryFidelity() {
+		return historyFidelity;
+	}
+
+	/**
+	 * Choose the history fidelity given to the Emergency Departments created by the builder, before any other
+	 * command is executed on them (null to keep the default fidelity)
+	 * @param historyFidelity the history fidelity of the created Emergency Departments
+	 */
+	public void setHistoryFidelity(HistoryFidelity historyFidelity) {
+		this.historyFidelity = historyFidelity;
+	}
+
+	/**
+	 * This method adds a room of a given type to an ED
+	 * @param input is the command entered by the user
+	 */
+	private void addRoom(String[] input) {
+		requireArguments(input, 5, "addRoom requires 4 arguments <EDname, RoomType, RoomName, RoomCapacity>");
+		EmergencyDepartment ED = getEmergencyDepartment(input);
+		try {
+			int capacity = Integer.parseInt(input[4]);
+			Class<?> roomClass = Class.forName("resources." + input[2]);
+			Constructor<?> cons = roomClass.getConstructor(String.class, int.class, EmergencyDepartment.class);
+			ED.addRoom((Room) cons.newInstance(input[3], capacity, ED));
+		} catch (NoSuchMethodException | SecurityException e) {
+			throw new IllegalArgumentException(input[2] + " doesn't have the right constructor");
+		} catch (ClassNotFoundException e) {
+			throw new IllegalArgumentException(input[2] + " room type doesn't exist");
+		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
+				| InvocationTargetException e) {
+			throw new IllegalArgumentException("4th argument <capacity> must be an integer");
+		}
+		print(input[2] + " " + input[3] + " of capacity " + input[4] + " successfully added to " + input[1]);
+	}
+
+	/**
+	 * This method makes the next patient of an ED arrive now, with the given name, surname, health insurance and
+	 * optionally severity level
+	 * @param input is the command entered by the user
+	 */
+	private void addPatient(String[] input) {
+		requireArguments(input, 5, "addPatient requires 4 arguments <EDname, PatientName, PatientSurname, HealthInsurance>");
+		EmergencyDepartment ED = getEmergencyDepartment(input);
+		Task nextPatientArrival = ED.getNextPatientArrival();
+		Patient patient = ((PatientArrival) nextPatientArrival.getCommand()).getPatient();
+		switch(input[4]){
+		case "gold":
+			patient.setHealthInsurance(new GoldInsurance());
+			break;
+		case "silver":
+			patient.setHealthInsurance(new SilverInsurance());
+			break;
+		case "none":
+			patient.setHealthInsurance(new NoInsurance());
+			break;
+		default:
+			throw new IllegalArgumentException("4th argument <HealthInsurance> must be either 'gold', 'silver' or 'none'");
+		}
+		if(input.length == 6){
+			try {
+				SeverityLevel severityLevel = ED.getSeverityLevel(Integer.parseInt(input[5]));
+				patient.setSeverityLevel(severityLevel);
+			} catch(Exception e) {
+				throw new IllegalArgumentException("5th argument <SeverityLevel> must be an integer between 1 and 5");
+			}
+		}
+		nextPatientArrival.setTimestamp(ED.getTime());
+		patient.setName(input[2]);
+		patient.setSurname(input[3]);
+		nextPatientArrival.getCommand().execute();
+		ED.getHistory().add(new Event(nextPatientArrival.getCommand().toString(), ED.getTime()));
+		print("Patient " + input[2] + " " + input[3] + " with ID " + patient.getID() + " successfully arrived to " + input[1]);
+	}
+
+	/**
+	 * This method set the probability distribution of the arrival of patients with a given severity level of an ED
+	 * @param level whose probability distribution must be changed
+	 * @param input is the command entered by the user
+	 */
+	private void setSeverityLevelDistribution(int level, String[] input) {
+		requireArguments(input, 4, "setL*arrivalDist requires 3 arguments <EDname, DistType, DistParams>");
+		SeverityLevel severityLevel = getEmergencyDepartment(input).getSeverityLevel(level);
+		severityLevel.setProbabilityDistribution(parseDistribution(input, 2, "2nd"));
+		print("Probability distribution of patient with severity level " + level + " successfuly set for " + input[1]);
+	}
+
+	/**
+	 * This method set the duration of a given service in an ED
+	 * @param input is the command entered by the user
+	 */
+	private void setServiceDuration(String[] input) {
+		requireArguments(input, 5, "setDuration requires 4 arguments <EDname, ServiceName, DistType, DistParams>");
+		getService(input).setDurationProbability(parseDistribution(input, 3, "3rd"));
+		print("Duration probability distribution of " + input[2] + " successfuly set for " + input[1]);
+	}
+
+	/**
+	 * This method set the cost of a given service in an ED
+	 * @param input is the command entered by the user
+	 */
+	private void setServiceCost(String[] input) {
+		requireArguments(input, 4, "setCost requires 3 arguments <EDname, ServiceName, Cost>");
+		WorkflowElement service = getService(input);
+		try {
+			service.setCost(Double.parseDouble(input[3]));
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Argument <Cost> must be a double");
+		}
+		print("Cost of " + input[2] + " successfuly set to " + input[3] + " for " + input[1]);
+	}
+
+	/**
+	 * This method set the queue discipline of a given service in an ED
+	 * @param input is the command entered by the user
+	 */
+	private void setQueueDiscipline(String[] input) {
+		requireArguments(input, 4, "setDiscipline requires 3 arguments <EDname, ServiceName, Discipline> and an optional <AgingRate>");
+		WorkflowElement service = getService(input);
+		switch(input[3]){
+		case "severity":
+			service.setQueueDiscipline(new SeverityDiscipline());
+			break;
+		case "priority":
+			service.setQueueDiscipline(new PriorityDiscipline());
+			break;
+		case "fifo":
+			service.setQueueDiscipline(new FifoDiscipline());
+			break;
+		case "aging":
+			try {
+				service.setQueueDiscipline(new AgingDiscipline(input.length > 4 ? Double.parseDouble(input[4]) : 0.1));
+			} catch(IllegalArgumentException e) {
+				throw new IllegalArgumentException("Argument <AgingRate> must be a positive double");
+			}
+			break;
+		default:
+			throw new IllegalArgumentException("3rd argument Discipline must be severity, priority, fifo or aging");
+		}
+		print("Queue discipline of " + input[2] + " successfuly set to " + service.getQueueDiscipline() + " for " + input[1]);
+	}
+
+	/**
+	 * This method set the width and the number of the windows over which the KPIs of an ED are kept
+	 * @param input is the command entered by the user
+	 */
+	private void setKPIWindow(String[] input) {
+		requireArguments(input, 3, "setKpiWindow requires 2 arguments <EDname, WindowWidth> and an optional <NumberOfWindows>");
+		EmergencyDepartment ED = getEmergencyDepartment(input);
+		int capacity;
+		try {
+			capacity = input.length > 3 ? Integer.parseInt(input[3]) : ED.getKPISeries().getCapacity();
+			ED.setKPISeries(new KPISeries(Double.parseDouble(input[2]), capacity));
+		} catch(IllegalArgumentException e) {
+			throw new IllegalArgumentException("Arguments <WindowWidth> and <NumberOfWindows> must be positive");
+		}
+		print("KPI windows of " + input[1] + " successfuly set to the last " + capacity + " windows of " + input[2] + " minutes");
+	}
+
+	/**
+	 * This method set the clock of an ED: continuous times or a tick clock
+	 * @param input is the command entered by the user
+	 */
+	private void setClock(String[] input) {
+		requireArguments(input, 3, "setClock requires 2 arguments <EDname, continuous|ticks> and <TicksPerMinute> for a tick clock");
+		EmergencyDepartment ED = getEmergencyDepartment(input);
+		if(input[2].equals("continuous")) {
+			ED.setClock(null);
+			print("Clock of " + input[1] + " successfuly set to continuous time");
+		}
+		else if(input[2].equals("ticks")) {
+			SimulationClock clock;
+			try {
+				clock = new SimulationClock(input.length > 3 ? Long.parseLong(input[3]) : SimulationClock.MICROSECONDS);
+			} catch(IllegalArgumentException e) {
+				throw new IllegalArgumentException("Argument <TicksPerMinute> must be a positive integer");
+			}
+			ED.setClock(clock);
+			print("Clock of " + input[1] + " successfuly set to " + clock);
+		}
+		else {
+			throw new IllegalArgumentException("2nd argument must be continuous or ticks");
+		}
+	}
+
+	/**
+	 * This method reads a probability distribution from the arguments of a command
+	 * @param input is the command entered by the user
+	 * @param index the index of the type of the distribution in the command, followed by its parameters
+	 * @param position the position of the type of the distribution in the arguments, for the error messages
+	 * @return the probability distribution
+	 */
+	private static ProbabilityDistribution parseDistribution(String[] input, int index, String position) {
+		if(!input[index].equals("uniform") && !input[index].equals("exponential") && !input[index].equals("deterministic")) {
+			throw new IllegalArgumentException(position + " argument DistType must be exponential, deterministic or uniform");
+		}
+		try {
+			switch(input[index]){
+			case "uniform":
+				return new UniformDistribution(Double.parseDouble(input[index + 1]), Double.parseDouble(input[index + 2]));
+			case "exponential":
+				return new ExponentialDistribution(Double.parseDouble(input[index + 1]));
+			default:
+				return new DeterministicDistribution(Double.parseDouble(input[index + 1]));
+			}
+		} catch(Exception e) {
+			throw new IllegalArgumentException("Argument(s) <DistParam> must be double(s)");
+		}
+	}
+
+	private EmergencyDepartment getEmergencyDepartment(String[] input) {
+		EmergencyDepartment ED = emergencyDepartments.get(input[1]);
+		if(ED == null) {
+			throw new IllegalArgumentException("There is no Emergency Department called " + input[1] + ". You can create it with createED " + input[1]);
+		}
+		return ED;
+	}
+
+	private WorkflowElement getService(String[] input) {
+		WorkflowElement service = getEmergencyDepartment(input).getService(input[2]);
+		if(service == null) {
+			throw new IllegalArgumentException("the service " + input[2] + " doesn't exist");
+		}
+		return service;
+	}
+
+	private static void requireArguments(String[] input, int length, String message) {
+		if(input.length < length) {
+			throw new IllegalArgumentException(message);
+		}
+	}
+
+	private void print(String message) {
+		if(verbose) {
+			System.out.println(message);
+		}
+	}
+
+}
@@ -0,0 +1,467 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import core.EmergencyDepartment;
+import core.Milestone;
+import resources.Patient;
+import utils.KeyPerformanceIndicator;
+import utils.OnlineStatistics;
+import utils.QuantileSketch;
+import utils.SeverityLevel;
+
+/**
+ * This class searches the cheapest numbers of staff members and rooms of a scenario meeting a target on a KPI, for
+ * instance a 90th percentile of the door-to-doctor time under 30 minutes for the L1 and L2 patients.
+ * Each resource has a unit cost and a range of counts. The search starts from the smallest counts and moves to a
+ * neighbour configuration at each step:
+ * <ul>
+ * <li>while the target is missed, one more unit of the resource which improves the KPI the most for its cost;</li>
+ * <li>once the target is met, the cheapest neighbour still meeting it, with one unit less of a resource, or one unit
+ * less of a resource and one more of a cheaper one.</li>
+ * </ul>
+ * The neighbours of a step are simulated in parallel. While the target is missed, the configurations are simulated
+ * with all the replications, so that their KPIs can be compared. Once it is met, a configuration is first simulated
+ * with a third of the replications, and dropped if its KPI is clearly above the target (its 95% confidence interval
+ * is); otherwise all the replications are simulated. A dropped configuration is never taken as a step.
+ * The search stops when no neighbour is better, or when the budget of simulated configurations is spent. While the
+ * target is missed, this means that no neighbour improves the KPI, and no configuration meeting the target is found.
+ * The scenario must have a single Emergency Department, whose replications give the KPI.
+ * The KPI of a replication counts the patients who didn't reach the milestone yet with the time they have been
+ * waiting so far, so that an understaffed configuration isn't flattered by the patients it never sees.
+ * @author Thomas
+ *
+ */
+public class StaffingOptimizer {
+	protected ParameterSweep sweep;
+	protected String[] resources;
+	protected int[] minimums;
+	protected int[] maximums;
+	protected double[] costs;
+	protected String KPI;
+	protected String statistic;
+	protected double quantile;
+	protected int minLevel;
+	protected int maxLevel;
+	protected double target;
+	protected int budget;
+	protected int parallelism;
+	protected HashMap<String, Evaluation> evaluations;
+	protected ArrayList<Evaluation> path;
+
+	/**
+	 * Create an optimizer of a scenario
+	 * @param baseCommands the configuration commands of the scenario, as returned by CLUI.readScenarioFile
+	 * @param replications the number of replications of each configuration
+	 * @param horizon the duration to simulate
+	 * @param seed the seed from which the seeds of the replications are derived (the same for all configurations)
+	 * @throws IllegalArgumentException if the scenario doesn't have exactly one Emergency Department
+	 */
+	public StaffingOptimizer(List<String[]> baseCommands, int replications, double horizon, long seed) {
+		super();
+		int EDsCount = 0;
+		for (String[] command : baseCommands) {
+			if (command[0].equals("createED")) {
+				EDsCount++;
+			}
+		}
+		if (EDsCount != 1) {
+			throw new IllegalArgumentException("The scenario must have exactly one Emergency Department to optimize, not " + EDsCount);
+		}
+		this.sweep = new ParameterSweep(baseCommands, replications, horizon, seed);
+		this.resources = new String[0];
+		this.minimums = new int[0];
+		this.maximums = new int[0];
+		this.costs = new double[0];
+		this.KPI = "dtdt";
+		this.statistic = "p90";
+		this.quantile = 0.9;
+		this.minLevel = 1;
+		this.maxLevel = 5;
+		this.target = Double.POSITIVE_INFINITY;
+		this.budget = 100;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.evaluations = new HashMap<String, Evaluation>();
+		this.path = new ArrayList<Evaluation>();
+	}
+
+	/**
+	 * This method adds a resource to the search.
+	 * @param name nurses, physicians, transporters or a type of room (BoxRoom...)
+	 * @param minimum the smallest count of the resource
+	 * @param maximum the largest count of the resource
+	 * @param cost the cost of one unit of the resource
+	 * @throws IllegalArgumentException if the resource is unknown or its range is not valid
+	 */
+	public void addResource(String name, int minimum, int maximum, double cost) {
+		if (minimum < 0 || maximum < minimum || cost < 0) {
+			throw new IllegalArgumentException("The range " + minimum + ".." + maximum + " or the cost " + cost + " of " + name + " is not valid");
+		}
+		if (!Arrays.asList(ParameterSweep.STAFF).contains(name) && !name.endsWith("Room")) {
+			throw new IllegalArgumentException("Unknown resource " + name);
+		}
+		sweep.addParameter(name, minimum + ".." + maximum);
+		int count = resources.length;
+		resources = Arrays.copyOf(resources, count + 1);
+		minimums = Arrays.copyOf(minimums, count + 1);
+		maximums = Arrays.copyOf(maximums, count + 1);
+		costs = Arrays.copyOf(costs, count + 1);
+		resources[count] = name;
+		minimums[count] = minimum;
+		maximums[count] = maximum;
+		costs[count] = cost;
+	}
+
+	/**
+	 * This method sets the target of the search.
+	 * @param KPI the name of the KPI (los or dtdt)
+	 * @param statistic mean, or a percentile like p90
+	 * @param minLevel the most severe level of the patients considered
+	 * @param maxLevel the lightest level of the patients considered
+	 * @param target the largest acceptable value of the statistic
+	 * @throws IllegalArgumentException if the KPI, the statistic or the levels are not valid
+	 */
+	public void setTarget(String KPI, String statistic, int minLevel, int maxLevel, double target) {
+		if (!Arrays.asList(ParameterSweep.KPIS).contains(KPI)) {
+			throw new IllegalArgumentException("Unknown KPI " + KPI);
+		}
+		if (minLevel < 1 || maxLevel > SeverityLevel.LEVELS || maxLevel < minLevel) {
+			throw new IllegalArgumentException("The levels " + minLevel + "-" + maxLevel + " are not valid");
+		}
+		if (statistic.equals("mean")) {
+			quantile = Double.NaN;
+		}
+		else if (statistic.matches("p\\d{1,2}(\\.\\d+)?")) {
+			quantile = Double.parseDouble(statistic.substring(1)) / 100;
+		}
+		else {
+			throw new IllegalArgumentException("The statistic " + statistic + " must be mean or a percentile like p90");
+		}
+		this.KPI = KPI;
+		this.statistic = statistic;
+		this.minLevel = minLevel;
+		this.maxLevel = maxLevel;
+		this.target = target;
+	}
+
+	/**
+	 * This method searches the cheapest configuration meeting the target.
+	 * @return the cheapest configuration found meeting the target, null if none was found within the budget
+	 * @throws InterruptedException if the thread is interrupted while waiting for the simulations
+	 * @throws ExecutionException if a simulation failed
+	 */
+	public Evaluation optimize() throws InterruptedException, ExecutionException {
+		path.clear();
+		Evaluation current = evaluate(Collections.singletonList(minimums.clone()), false).get(0);
+		if (current == null) {
+			return null;
+		}
+		path.add(current);
+		HashSet<String> visited = new HashSet<String>();
+		visited.add(current.getKey());
+		while (!current.isFeasible()) {
+			ArrayList<int[]> neighbours = new ArrayList<int[]>();
+			for (int i = 0; i < resources.length; i++) {
+				int[] counts = move(current.counts, i, 1, -1);
+				if (counts != null && !visited.contains(getKey(counts))) {
+					neighbours.add(counts);
+				}
+			}
+			Evaluation next = null;
+			double bestGain = 0;
+			for (Evaluation neighbour : evaluate(neighbours, false)) {
+				if (neighbour == null || neighbour.isDropped()) {
+					continue;
+				}
+				double gain = (current.getValue() - neighbour.getValue()) / Math.max(neighbour.cost - current.cost, 1e-9);
+				if (neighbour.isFeasible() && (next == null || !next.isFeasible() || neighbour.cost < next.cost)) {
+					next = neighbour;
+					bestGain = Double.POSITIVE_INFINITY;
+				}
+				else if ((next == null || !next.isFeasible()) && gain > bestGain) {
+					next = neighbour;
+					bestGain = gain;
+				}
+			}
+			if (next == null) {
+				return null;
+			}
+			current = next;
+			visited.add(current.getKey());
+			path.add(current);
+		}
+		while (true) {
+			ArrayList<int[]> neighbours = new ArrayList<int[]>();
+			for (int i = 0; i < resources.length; i++) {
+				addNeighbour(neighbours, move(current.counts, i, -1, -1), current.cost);
+				for (int j = 0; j < resources.length; j++) {
+					if (j != i && costs[j] < costs[i]) {
+						addNeighbour(neighbours, move(current.counts, i, -1, j), current.cost);
+					}
+				}
+			}
+			Evaluation next = null;
+			for (Evaluation neighbour : evaluate(neighbours, true)) {
+				if (neighbour != null && neighbour.isFeasible() && (next == null || neighbour.cost < next.cost)) {
+					next = neighbour;
+				}
+			}
+			if (next == null) {
+				return current;
+			}
+			current = next;
+			path.add(current);
+		}
+	}
+
+	/**
+	 * This method return the configurations accepted at each step of the last search, the last one being the result.
+	 * @return the path of the search
+	 */
+	public ArrayList<Evaluation> getPath() {
+		return path;
+	}
+
+	/**
+	 * This method return the number of configurations simulated so far, which is bounded by the budget.
+	 * @return the number of configurations simulated
+	 */
+	public int getEvaluationsCount() {
+		return evaluations.size();
+	}
+
+	public String[] getResources() {
+		return resources;
+	}
+
+	public int getBudget() {
+		return budget;
+	}
+
+	public void setBudget(int budget) {
+		this.budget = budget;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = Math.max(parallelism, 1);
+	}
+
+	/**
+	 * Return the counts moved by one unit of a resource (and one unit of another resource in the other direction),
+	 * null if they get out of their ranges
+	 */
+	private int[] move(int[] counts, int resource, int delta, int otherResource) {
+		int[] moved = counts.clone();
+		moved[resource] += delta;
+		if (otherResource >= 0) {
+			moved[otherResource] -= delta;
+		}
+		for (int i = 0; i < moved.length; i++) {
+			if (moved[i] < minimums[i] || moved[i] > maximums[i]) {
+				return null;
+			}
+		}
+		return moved;
+	}
+
+	private void addNeighbour(ArrayList<int[]> neighbours, int[] counts, double maxCost) {
+		if (counts != null && getCost(counts) < maxCost) {
+			neighbours.add(counts);
+		}
+	}
+
+	private double getCost(int[] counts) {
+		double cost = 0;
+		for (int i = 0; i < counts.length; i++) {
+			cost += counts[i] * costs[i];
+		}
+		return cost;
+	}
+
+	private static String getKey(int[] counts) {
+		return Arrays.toString(counts);
+	}
+
+	/**
+	 * Evaluate configurations in parallel, the ones already evaluated being taken from the cache. The evaluation of a
+	 * configuration is null if the budget is spent before it. The configurations are dropped after the first
+	 * replications only if droppable.
+	 */
+	private List<Evaluation> evaluate(List<int[]> configurations, final boolean droppable) throws InterruptedException, ExecutionException {
+		ArrayList<Evaluation> results = new ArrayList<Evaluation>();
+		ArrayList<Callable<Evaluation>> tasks = new ArrayList<Callable<Evaluation>>();
+		ArrayList<Integer> indexes = new ArrayList<Integer>();
+		for (final int[] counts : configurations) {
+			Evaluation evaluation = evaluations.get(getKey(counts));
+			if (evaluation == null && evaluations.size() + tasks.size() < budget) {
+				tasks.add(new Callable<Evaluation>() {
+					@Override
+					public Evaluation call() {
+						return simulate(counts, droppable);
+					}
+				});
+				indexes.add(results.size());
+			}
+			results.add(evaluation);
+		}
+		if (!tasks.isEmpty()) {
+			ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, tasks.size()));
+			try {
+				List<Future<Evaluation>> futures = pool.invokeAll(tasks);
+				for (int i = 0; i < futures.size(); i++) {
+					Evaluation evaluation = futures.get(i).get();
+					evaluations.put(evaluation.getKey(), evaluation);
+					results.set(indexes.get(i), evaluation);
+				}
+			} finally {
+				pool.shutdown();
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Simulate a configuration, with a third of the replications first, and with all of them if the target isn't
+	 * clearly missed or if the configuration isn't droppable
+	 */
+	private Evaluation simulate(int[] counts, boolean droppable) {
+		String[] configuration = new String[counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			configuration[i] = Integer.toString(counts[i]);
+		}
+		ArrayList<EmergencyDepartment> replications = CLUI.buildReplications(sweep.getCommands(configuration),
+				sweep.getReplications(), sweep.getSeed()).values().iterator().next();
+		Evaluation evaluation = new Evaluation(counts, getCost(counts));
+		int firstStage = Math.max(2, (replications.size() + 2) / 3);
+		for (int i = 0; i < replications.size(); i++) {
+			if (droppable && i == firstStage && evaluation.values.getMean() - evaluation.values.getConfidenceHalfWidth() > target) {
+				evaluation.dropped = true;
+				break;
+			}
+			EmergencyDepartment ED = replications.get(i);
+			ED.executeUntil(ED.getTime() + sweep.getHorizon());
+			double value = measure(ED);
+			if (!Double.isNaN(value)) {
+				evaluation.values.add(value);
+			}
+		}
+		return evaluation;
+	}
+
+	/**
+	 * Compute the statistic of the KPI for the patients of the levels considered in a replication, the patients who
+	 * didn't reach the milestone of the KPI counting with the time they have been waiting so far.
+	 * Return NaN if no patient of these levels arrived in the replication, which is then left out of the evaluation.
+	 */
+	private double measure(EmergencyDepartment ED) {
+		KeyPerformanceIndicator indicator = ED.getKPI(KPI);
+		Milestone milestone = indicator.getMilestone();
+		OnlineStatistics statistics = new OnlineStatistics();
+		QuantileSketch sketch = new QuantileSketch(indicator.getSketch().getAccuracy());
+		for (int level = minLevel; level <= maxLevel; level++) {
+			statistics.merge(indicator.getStatistics(level));
+			sketch.merge(indicator.getSketch(level));
+		}
+		for (Patient patient : ED.getPatients()) {
+			int level = patient.getSeverityLevel().getLevel();
+			if (level >= minLevel && level <= maxLevel && Double.isNaN(patient.getMilestone(milestone))) {
+				double waiting = ED.getTime() - patient.getMilestone(Milestone.ARRIVAL);
+				statistics.add(waiting);
+				sketch.add(waiting);
+			}
+		}
+		if (statistics.getCount() == 0) {
+			return Double.NaN;
+		}
+		return Double.isNaN(quantile) ? statistics.getMean() : sketch.getQuantile(quantile);
+	}
+
+	/**
+	 * The evaluation of a configuration: the statistic of the KPI in each of its replications
+	 */
+	public class Evaluation {
+		protected int[] counts;
+		protected double cost;
+		protected OnlineStatistics values;
+		protected boolean dropped;
+
+		protected Evaluation(int[] counts, double cost) {
+			this.counts = counts;
+			this.cost = cost;
+			this.values = new OnlineStatistics();
+			this.dropped = false;
+		}
+
+		public int[] getCounts() {
+			return counts;
+		}
+
+		public double getCost() {
+			return cost;
+		}
+
+		/**
+		 * This method return the mean of the statistic of the KPI over the replications simulated where a patient of
+		 * the levels considered arrived.
+		 * @return the estimated value of the statistic, NaN if no such patient arrived in any replication
+		 */
+		public double getValue() {
+			return values.getCount() == 0 ? Double.NaN : values.getMean();
+		}
+
+		public OnlineStatistics getValues() {
+			return values;
+		}
+
+		/**
+		 * This method tells if the configuration has been dropped after the first replications.
+		 * @return true if the configuration clearly missed the target
+		 */
+		public boolean isDropped() {
+			return dropped;
+		}
+
+		/**
+		 * This method tells if the configuration meets the target, on average over all its replications. A
+		 * configuration where no patient of the levels considered arrived doesn't meet it.
+		 * @return true if the configuration meets the target
+		 */
+		public boolean isFeasible() {
+			return !dropped && getValue() <= target;
+		}
+
+		protected String getKey() {
+			return StaffingOptimizer.getKey(counts);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder content = new StringBuilder();
+			for (int i = 0; i < counts.length; i++) {
+				content.append(resources[i]).append(' ').append(counts[i]).append(", ");
+			}
+			content.append("cost ").append(cost).append(": ").append(KPI).append(' ')
+					.append(statistic).append(" of L").append(minLevel)
+					.append("-L").append(maxLevel).append(" patients ").append(getValue()).append(" +/- ")
+					.append(values.getConfidenceHalfWidth()).append(" over ").append(values.getCount()).append(" replications");
+			if (dropped) {
+				content.append(" (dropped)");
+			}
+			return content.toString();
+		}
+	}
+
+}
@@ -0,0 +1,391 @@
+package processing;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A calendar queue of tasks (R. Brown, 1988). The time line is cut in days of the same width, and the days are
+ * spread over a year of buckets: the bucket of a task is its day number modulo the number of buckets, and each
+ * bucket is a list of tasks sorted by timestamp. The first task is found by looking at the buckets one after the
+ * other from the current day, like the pages of a desk calendar.
+ * When the tasks are spread fairly uniformly over a bounded range (like the end of services whose durations are
+ * drawn from the distributions of the services), adding and polling a task are done in O(1) on average.
+ * The number of buckets follows the number of tasks, and the width of the days is computed again from the gaps
+ * between the next tasks each time the calendar is resized.
+ * Tasks with the same timestamp are polled in their order of insertion.
+ * @author Thomas
+ *
+ */
+public class CalendarQueue implements TaskStore {
+	protected static final int MIN_BUCKETS = 16;
+	protected static final int SAMPLE_SIZE = 25;
+
+	protected Node[] heads;
+	protected Node[] tails;
+	protected int mask;
+	protected double width;
+	protected long currentDay;
+	protected Node first;
+	protected int size;
+	protected long nextSequence;
+	protected boolean resizing;
+
+	public CalendarQueue() {
+		this(1.);
+	}
+
+	/**
+	 * Create a calendar queue
+	 * @param width the initial width of a day, adjusted at the first resize
+	 */
+	public CalendarQueue(double width) {
+		super();
+		this.width = width > 0 ? width : 1.;
+		heads = new Node[MIN_BUCKETS];
+		tails = new Node[MIN_BUCKETS];
+		mask = MIN_BUCKETS - 1;
+		currentDay = 0;
+		first = null;
+		size = 0;
+		nextSequence = 0;
+		resizing = false;
+	}
+
+	/**
+	 * Insert a task in the calendar, in O(1) on average
+	 * @param task the task to insert
+	 */
+	@Override
+	public void add(Task task) {
+		if (task.handle >= 0 && contains(task)) {
+			throw new IllegalArgumentException("The task " + task + " is already in the calendar");
+		}
+		Node node = new Node(task, nextSequence++);
+		task.handle = 0;
+		insert(node);
+		size++;
+		if (size > 2 * heads.length) {
+			resize(2 * heads.length);
+		}
+	}
+
+	/**
+	 * Return the task with the smallest timestamp without removing it
+	 * @return the first task, null if the calendar is empty
+	 */
+	@Override
+	public Task peek() {
+		Node node = locateFirst();
+		return node == null ? null : node.task;
+	}
+
+	/**
+	 * Return the smallest timestamp of the calendar
+	 * @return the timestamp of the first task, +infinity if the calendar is empty
+	 */
+	@Override
+	public double peekTimestamp() {
+		Node node = locateFirst();
+		return node == null ? Double.POSITIVE_INFINITY : node.timestamp;
+	}
+
+	/**
+	 * Remove and return the task with the smallest timestamp, in O(1) on average
+	 * @return the first task, null if the calendar is empty
+	 */
+	@Override
+	public Task poll() {
+		Node node = locateFirst();
+		if (node == null) {
+			return null;
+		}
+		unlink(node);
+		return node.task;
+	}
+
+	/**
+	 * Remove a task from the calendar, in O(1) on average
+	 * @param task the task to remove
+	 * @return true if the task was in the calendar, false otherwise
+	 */
+	@Override
+	public boolean remove(Task task) {
+		Node node = find(task);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	/**
+	 * Change the timestamp of a task of the calendar, in O(1) on average
+	 * @param task the task to move
+	 * @param timestamp the new timestamp of the task
+	 * @return true if the task was in the calendar, false otherwise
+	 */
+	@Override
+	public boolean reschedule(Task task, double timestamp) {
+		if (!remove(task)) {
+			return false;
+		}
+		task.timestamp = timestamp;
+		add(task);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Task task) {
+		return find(task) != null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove all the tasks of the calendar
+	 */
+	@Override
+	public void clear() {
+		for (int bucket = 0; bucket < heads.length; bucket++) {
+			for (Node node = heads[bucket]; node != null; node = node.next) {
+				node.task.handle = -1;
+			}
+			heads[bucket] = null;
+			tails[bucket] = null;
+		}
+		first = null;
+		size = 0;
+	}
+
+	public int getBucketsCount() {
+		return heads.length;
+	}
+
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * Return an iterator over the tasks of the calendar, in no particular order
+	 */
+	@Override
+	public Iterator<Task> iterator() {
+		return new Iterator<Task>() {
+			private int bucket = -1;
+			private Node node = null;
+
+			@Override
+			public boolean hasNext() {
+				while (node == null && bucket + 1 < heads.length) {
+					node = heads[++bucket];
+				}
+				return node != null;
+			}
+
+			@Override
+			public Task next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Task task = node.task;
+				node = node.next;
+				return task;
+			}
+		};
+	}
+
+	private long day(double timestamp) {
+		return (long) Math.floor(timestamp / width);
+	}
+
+	/**
+	 * Insert a node in the sorted list of its bucket. The tasks are usually added in increasing order, so the
+	 * end of the list is checked first.
+	 */
+	private void insert(Node node) {
+		long day = day(node.timestamp);
+		if (day < currentDay) {
+			currentDay = day;
+		}
+		int bucket = (int) (day & mask);
+		Node tail = tails[bucket];
+		if (tail == null) {
+			heads[bucket] = node;
+			tails[bucket] = node;
+		}
+		else if (!node.before(tail)) {
+			tail.next = node;
+			node.previous = tail;
+			tails[bucket] = node;
+		}
+		else {
+			Node next = heads[bucket];
+			while (!node.before(next)) {
+				next = next.next;
+			}
+			node.next = next;
+			node.previous = next.previous;
+			if (next.previous == null) {
+				heads[bucket] = node;
+			}
+			else {
+				next.previous.next = node;
+			}
+			next.previous = node;
+		}
+		if (first != null && node.before(first)) {
+			first = node;
+		}
+	}
+
+	private void unlink(Node node) {
+		int bucket = (int) (day(node.timestamp) & mask);
+		if (node.previous == null) {
+			heads[bucket] = node.next;
+		}
+		else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			tails[bucket] = node.previous;
+		}
+		else {
+			node.next.previous = node.previous;
+		}
+		node.task.handle = -1;
+		if (node == first) {
+			first = null;
+		}
+		size--;
+		if (!resizing && heads.length > MIN_BUCKETS && size < heads.length / 2) {
+			resize(heads.length / 2);
+		}
+	}
+
+	private Node find(Task task) {
+		if (task.handle < 0) {
+			return null;
+		}
+		int bucket = (int) (day(task.timestamp) & mask);
+		for (Node node = heads[bucket]; node != null; node = node.next) {
+			if (node.task == task) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find the first task of the calendar, starting from the current day. If no task is found in a whole year,
+	 * the first task is searched directly among the heads of all the buckets.
+	 */
+	private Node locateFirst() {
+		if (first != null || size == 0) {
+			return first;
+		}
+		for (int i = 0; i < heads.length; i++) {
+			Node head = heads[(int) (currentDay & mask)];
+			if (head != null && day(head.timestamp) == currentDay) {
+				first = head;
+				return first;
+			}
+			currentDay++;
+		}
+		Node next = null;
+		for (Node head : heads) {
+			if (head != null && (next == null || head.before(next))) {
+				next = head;
+			}
+		}
+		currentDay = day(next.timestamp);
+		first = next;
+		return first;
+	}
+
+	/**
+	 * Change the number of buckets and compute again the width of the days from the average gap between the
+	 * next tasks (ignoring the gaps more than twice as large as the average).
+	 */
+	private void resize(int bucketsCount) {
+		resizing = true;
+		int sampleSize = Math.min(size, SAMPLE_SIZE);
+		Node[] sample = new Node[sampleSize];
+		for (int i = 0; i < sampleSize; i++) {
+			sample[i] = locateFirst();
+			unlink(sample[i]);
+		}
+		double newWidth = width;
+		if (sampleSize > 1) {
+			double average = (sample[sampleSize - 1].timestamp - sample[0].timestamp) / (sampleSize - 1);
+			double total = 0;
+			int count = 0;
+			for (int i = 1; i < sampleSize; i++) {
+				double gap = sample[i].timestamp - sample[i - 1].timestamp;
+				if (gap <= 2 * average) {
+					total += gap;
+					count++;
+				}
+			}
+			if (count > 0 && total > 0) {
+				newWidth = 3 * total / count;
+			}
+		}
+		Node[] oldHeads = heads;
+		heads = new Node[bucketsCount];
+		tails = new Node[bucketsCount];
+		mask = bucketsCount - 1;
+		width = newWidth;
+		currentDay = Long.MAX_VALUE;
+		first = null;
+		for (Node head : oldHeads) {
+			Node node = head;
+			while (node != null) {
+				Node next = node.next;
+				node.previous = null;
+				node.next = null;
+				insert(node);
+				node = next;
+			}
+		}
+		for (int i = 0; i < sampleSize; i++) {
+			sample[i].task.handle = 0;
+			sample[i].previous = null;
+			sample[i].next = null;
+			insert(sample[i]);
+		}
+		size += sampleSize;
+		resizing = false;
+	}
+
+	/**
+	 * A task stored in the list of a bucket
+	 */
+	protected static class Node {
+		protected Task task;
+		protected double timestamp;
+		protected long sequence;
+		protected Node previous;
+		protected Node next;
+
+		protected Node(Task task, long sequence) {
+			this.task = task;
+			this.timestamp = task.timestamp;
+			this.sequence = sequence;
+			this.previous = null;
+			this.next = null;
+		}
+
+		protected boolean before(Node node) {
+			return timestamp < node.timestamp || (timestamp == node.timestamp && sequence < node.sequence);
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package processing;
 
 import resources.Human;
+import resources.HumanState;
 import resources.Patient;
 import resources.Room;
 import workflow.WorkflowElement;
@@ -50,9 +51,8 @@ public class EndService implements Command {
 	
 	@Override
 	public void execute() {
-		service.removeNextTask();
 		if (this.employee != null) {
-			this.employee.setState("idle");
+			this.employee.setState(HumanState.IDLE);
 		}
 		service.endServiceOnPatient(patient);
 	}
@@ -81,6 +81,14 @@ public class EndService implements Command {
 		this.employee = employee;
 	}
 
+	public Room getRoom() {
+		return room;
+	}
+
+	public void setRoom(Room room) {
+		this.room = room;
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer content = new StringBuffer();
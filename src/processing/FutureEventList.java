@@ -0,0 +1,146 @@
+package processing;
+
+/**
+ * The future event list of a simulation. It merges several tasks queues (one per service of the Emergency
+ * Department, plus the patient arrivals) in a binary heap ordered by the timestamp of their next task.
+ * A tasks queue registered in the list notifies it each time its first task changes, so that the next
+ * task of the whole simulation is always found at the top of the heap without polling every queue.
+ * @author Thomas
+ *
+ */
+public class FutureEventList {
+	protected TasksQueue[] heap;
+	protected int size;
+
+	public FutureEventList() {
+		super();
+		heap = new TasksQueue[8];
+		size = 0;
+	}
+
+	/**
+	 * Register a tasks queue in the future event list
+	 * @param queue the tasks queue to register
+	 */
+	public void addQueue(TasksQueue queue) {
+		if (queue.futureEventList != null) {
+			queue.futureEventList.removeQueue(queue);
+		}
+		if (size == heap.length) {
+			TasksQueue[] newHeap = new TasksQueue[2 * heap.length];
+			System.arraycopy(heap, 0, newHeap, 0, size);
+			heap = newHeap;
+		}
+		heap[size] = queue;
+		queue.futureEventList = this;
+		queue.position = size;
+		size++;
+		siftUp(queue.position);
+	}
+
+	/**
+	 * Unregister a tasks queue from the future event list. Nothing happens if the queue is not registered.
+	 * @param queue the tasks queue to unregister
+	 */
+	public void removeQueue(TasksQueue queue) {
+		if (queue.futureEventList != this) {
+			return;
+		}
+		int position = queue.position;
+		size--;
+		if (position != size) {
+			move(heap[size], position);
+			heap[size] = null;
+			siftDown(position);
+			siftUp(position);
+		}
+		else {
+			heap[size] = null;
+		}
+		queue.futureEventList = null;
+		queue.position = -1;
+	}
+
+	/**
+	 * Restore the order of the list after the first task of a registered queue changed
+	 * @param queue the tasks queue whose first task changed
+	 */
+	public void update(TasksQueue queue) {
+		siftDown(queue.position);
+		siftUp(queue.position);
+	}
+
+	/**
+	 * Return the next task of the simulation without removing it
+	 * @return the task with the smallest timestamp among all the registered queues, null if they are all empty
+	 */
+	public Task getNextTask() {
+		if (size == 0) {
+			return null;
+		}
+		return heap[0].getNextTask();
+	}
+
+	/**
+	 * Remove and return the next task of the simulation
+	 * @return the task with the smallest timestamp among all the registered queues, null if they are all empty
+	 */
+	public Task pollNextTask() {
+		if (size == 0) {
+			return null;
+		}
+		return heap[0].pollNextTask();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private double key(TasksQueue queue) {
+		return queue.getNextTimestamp();
+	}
+
+	private void move(TasksQueue queue, int position) {
+		heap[position] = queue;
+		queue.position = position;
+	}
+
+	private void siftUp(int position) {
+		TasksQueue queue = heap[position];
+		double key = key(queue);
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (key(heap[parent]) <= key) {
+				break;
+			}
+			move(heap[parent], position);
+			position = parent;
+		}
+		move(queue, position);
+	}
+
+	private void siftDown(int position) {
+		TasksQueue queue = heap[position];
+		double key = key(queue);
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			double childKey = key(heap[child]);
+			int right = child + 1;
+			if (right < size) {
+				double rightKey = key(heap[right]);
+				if (rightKey < childKey) {
+					child = right;
+					childKey = rightKey;
+				}
+			}
+			if (key <= childKey) {
+				break;
+			}
+			move(heap[child], position);
+			position = child;
+		}
+		move(queue, position);
+	}
+
+}
@@ -2,28 +2,49 @@ package processing;
 
 import core.EmergencyDepartment;
 import resources.Patient;
+import utils.SeverityLevel;
 
 /**
- * This class represents the command corresponding to the arrival of a patient
+ * This class represents the command corresponding to the arrival of a patient.
+ * Only the severity level of the incoming patient is stored until the patient is needed: it is generated
+ * when the arrival is executed (or when it is asked for with getPatient), so that scheduled arrivals
+ * are cheap.
  * @author Thomas
  *
  */
 public class PatientArrival implements Command {
+	protected SeverityLevel severityLevel;
 	protected Patient patient;
 	protected EmergencyDepartment emergencyDepartment;
 
+	public PatientArrival(SeverityLevel severityLevel, EmergencyDepartment emergencyDepartment) {
+		super();
+		this.severityLevel = severityLevel;
+		this.patient = null;
+		this.emergencyDepartment = emergencyDepartment;
+	}
+
 	public PatientArrival(Patient patient, EmergencyDepartment emergencyDepartment) {
 		super();
+		this.severityLevel = patient.getSeverityLevel();
 		this.patient = patient;
 		this.emergencyDepartment = emergencyDepartment;
 	}
 
 	@Override
 	public void execute() {
-		emergencyDepartment.patientArrival(patient);
+		emergencyDepartment.patientArrival(getPatient());
 	}
 
+	/**
+	 * Return the arriving patient, generating it with the patient factory of the emergency department
+	 * the first time it is needed
+	 * @return the arriving patient
+	 */
 	public Patient getPatient() {
+		if (patient == null) {
+			patient = emergencyDepartment.getPatientFactory().create(severityLevel, emergencyDepartment);
+		}
 		return patient;
 	}
 
@@ -31,6 +52,10 @@ public class PatientArrival implements Command {
 		this.patient = patient;
 	}
 
+	public SeverityLevel getSeverityLevel() {
+		return severityLevel;
+	}
+
 	public EmergencyDepartment getEmergencyDepartment() {
 		return emergencyDepartment;
 	}
@@ -41,7 +66,7 @@ public class PatientArrival implements Command {
 
 	@Override
 	public String toString() {
-		return "Arrival of " + patient;
+		return "Arrival of " + getPatient();
 	}
 
 }
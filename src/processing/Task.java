@@ -8,19 +8,32 @@ package processing;
 public class Task {
 	protected double timestamp;
 	protected Command command;
+	protected int handle;
+	protected TasksQueue tasksQueue;
 	
 	public Task(double timestamp, Command command) {
 		super();
 		this.timestamp = timestamp;
 		this.command = command;
+		this.handle = -1;
+		this.tasksQueue = null;
 	}
 
 	public double getTimestamp() {
 		return timestamp;
 	}
 
+	/**
+	 * Change the timestamp of the task. If the task is scheduled in a tasks queue, it is moved to its new place.
+	 * @param timestamp the new timestamp
+	 */
 	public void setTimestamp(double timestamp) {
-		this.timestamp = timestamp;
+		if (tasksQueue != null) {
+			tasksQueue.rescheduleTask(this, timestamp);
+		}
+		else {
+			this.timestamp = timestamp;
+		}
 	}
 
 	public Command getCommand() {
@@ -31,6 +44,35 @@ public class Task {
 		this.command = command;
 	}
 
+	/**
+	 * Tell if the task is waiting in a tasks queue
+	 * @return true if the task is scheduled, false if it has been executed, cancelled or never scheduled
+	 */
+	public boolean isScheduled() {
+		return tasksQueue != null;
+	}
+
+	public TasksQueue getTasksQueue() {
+		return tasksQueue;
+	}
+
+	/**
+	 * Remove the task from its tasks queue, so that it is never executed
+	 * @return true if the task was scheduled, false otherwise
+	 */
+	public boolean cancel() {
+		return tasksQueue != null && tasksQueue.removeTask(this);
+	}
+
+	/**
+	 * Move the task to a new time in its tasks queue
+	 * @param timestamp the new timestamp
+	 * @return true if the task was scheduled, false otherwise
+	 */
+	public boolean reschedule(double timestamp) {
+		return tasksQueue != null && tasksQueue.rescheduleTask(this, timestamp);
+	}
+
 	@Override
 	public String toString() {
 		return timestamp + " : " + command;
@@ -0,0 +1,275 @@
+package processing;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed binary heap of tasks, ordered by timestamp. The keys are stored in primitive arrays indexed by
+ * the position in the heap (the timestamps in a double[] and the insertion sequence numbers, used to break ties
+ * between equal timestamps, in a long[]), so that comparing two tasks doesn't need any object access or comparator.
+ * Each task of the heap gets an int handle, which indexes the table of tasks and the table of positions in the heap:
+ * a task can thus be removed in O(log n) wherever it is in the heap.
+ * Tasks with the same timestamp are polled in their order of insertion.
+ * A task can only be in one heap at a time.
+ * @author Thomas
+ *
+ */
+public class TaskHeap implements TaskStore {
+	protected double[] timestamps;
+	protected long[] sequences;
+	protected int[] handles;
+	protected int[] positions;
+	protected Task[] tasks;
+	protected int[] freeHandles;
+	protected int freeHandlesCount;
+	protected int handlesCount;
+	protected int size;
+	protected long nextSequence;
+
+	public TaskHeap() {
+		this(16);
+	}
+
+	public TaskHeap(int initialCapacity) {
+		super();
+		int capacity = Math.max(initialCapacity, 2);
+		timestamps = new double[capacity];
+		sequences = new long[capacity];
+		handles = new int[capacity];
+		positions = new int[capacity];
+		tasks = new Task[capacity];
+		freeHandles = new int[capacity];
+		freeHandlesCount = 0;
+		handlesCount = 0;
+		size = 0;
+		nextSequence = 0;
+	}
+
+	/**
+	 * Insert a task in the heap, in O(log n)
+	 * @param task the task to insert
+	 */
+	@Override
+	public void add(Task task) {
+		if (contains(task)) {
+			throw new IllegalArgumentException("The task " + task + " is already in the heap");
+		}
+		int handle = newHandle();
+		tasks[handle] = task;
+		task.handle = handle;
+		int position = size++;
+		timestamps[position] = task.timestamp;
+		sequences[position] = nextSequence++;
+		handles[position] = handle;
+		positions[handle] = position;
+		siftUp(position);
+	}
+
+	/**
+	 * Return the task with the smallest timestamp without removing it
+	 * @return the first task, null if the heap is empty
+	 */
+	@Override
+	public Task peek() {
+		return size == 0 ? null : tasks[handles[0]];
+	}
+
+	/**
+	 * Return the smallest timestamp of the heap
+	 * @return the timestamp of the first task, +infinity if the heap is empty
+	 */
+	@Override
+	public double peekTimestamp() {
+		return size == 0 ? Double.POSITIVE_INFINITY : timestamps[0];
+	}
+
+	/**
+	 * Remove and return the task with the smallest timestamp, in O(log n)
+	 * @return the first task, null if the heap is empty
+	 */
+	@Override
+	public Task poll() {
+		if (size == 0) {
+			return null;
+		}
+		Task task = tasks[handles[0]];
+		removeAt(0);
+		return task;
+	}
+
+	/**
+	 * Remove a task from the heap, in O(log n)
+	 * @param task the task to remove
+	 * @return true if the task was in the heap, false otherwise
+	 */
+	@Override
+	public boolean remove(Task task) {
+		if (!contains(task)) {
+			return false;
+		}
+		removeAt(positions[task.handle]);
+		return true;
+	}
+
+	/**
+	 * Change the timestamp of a task of the heap, in O(log n)
+	 * @param task the task to move
+	 * @param timestamp the new timestamp of the task
+	 * @return true if the task was in the heap, false otherwise
+	 */
+	@Override
+	public boolean reschedule(Task task, double timestamp) {
+		if (!contains(task)) {
+			return false;
+		}
+		int position = positions[task.handle];
+		task.timestamp = timestamp;
+		timestamps[position] = timestamp;
+		sequences[position] = nextSequence++;
+		siftDown(position);
+		siftUp(positions[task.handle]);
+		return true;
+	}
+
+	/**
+	 * Tell if a task is in the heap, in O(1)
+	 * @param task a task
+	 * @return true if the task is in the heap, false otherwise
+	 */
+	@Override
+	public boolean contains(Task task) {
+		int handle = task.handle;
+		return handle >= 0 && handle < handlesCount && tasks[handle] == task;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove all the tasks of the heap
+	 */
+	@Override
+	public void clear() {
+		for (int position = 0; position < size; position++) {
+			tasks[handles[position]].handle = -1;
+		}
+		Arrays.fill(tasks, 0, handlesCount, null);
+		size = 0;
+		handlesCount = 0;
+		freeHandlesCount = 0;
+	}
+
+	/**
+	 * Return an iterator over the tasks of the heap, in no particular order
+	 */
+	@Override
+	public Iterator<Task> iterator() {
+		return new Iterator<Task>() {
+			private int position = 0;
+
+			@Override
+			public boolean hasNext() {
+				return position < size;
+			}
+
+			@Override
+			public Task next() {
+				if (position >= size) {
+					throw new NoSuchElementException();
+				}
+				return tasks[handles[position++]];
+			}
+		};
+	}
+
+	private int newHandle() {
+		if (freeHandlesCount > 0) {
+			return freeHandles[--freeHandlesCount];
+		}
+		if (handlesCount == tasks.length) {
+			int capacity = 2 * tasks.length;
+			timestamps = Arrays.copyOf(timestamps, capacity);
+			sequences = Arrays.copyOf(sequences, capacity);
+			handles = Arrays.copyOf(handles, capacity);
+			positions = Arrays.copyOf(positions, capacity);
+			tasks = Arrays.copyOf(tasks, capacity);
+			freeHandles = Arrays.copyOf(freeHandles, capacity);
+		}
+		return handlesCount++;
+	}
+
+	private void removeAt(int position) {
+		int handle = handles[position];
+		tasks[handle].handle = -1;
+		tasks[handle] = null;
+		freeHandles[freeHandlesCount++] = handle;
+		size--;
+		if (position != size) {
+			move(size, position);
+			siftDown(position);
+			siftUp(position);
+		}
+	}
+
+	private boolean less(int position1, int position2) {
+		return timestamps[position1] < timestamps[position2]
+				|| (timestamps[position1] == timestamps[position2] && sequences[position1] < sequences[position2]);
+	}
+
+	private void move(int from, int to) {
+		timestamps[to] = timestamps[from];
+		sequences[to] = sequences[from];
+		handles[to] = handles[from];
+		positions[handles[to]] = to;
+	}
+
+	private void siftUp(int position) {
+		double timestamp = timestamps[position];
+		long sequence = sequences[position];
+		int handle = handles[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (timestamps[parent] < timestamp || (timestamps[parent] == timestamp && sequences[parent] < sequence)) {
+				break;
+			}
+			move(parent, position);
+			position = parent;
+		}
+		timestamps[position] = timestamp;
+		sequences[position] = sequence;
+		handles[position] = handle;
+		positions[handle] = position;
+	}
+
+	private void siftDown(int position) {
+		double timestamp = timestamps[position];
+		long sequence = sequences[position];
+		int handle = handles[position];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < size && less(right, child)) {
+				child = right;
+			}
+			if (timestamp < timestamps[child] || (timestamp == timestamps[child] && sequence < sequences[child])) {
+				break;
+			}
+			move(child, position);
+			position = child;
+		}
+		timestamps[position] = timestamp;
+		sequences[position] = sequence;
+		handles[position] = handle;
+		positions[handle] = position;
+	}
+
+}
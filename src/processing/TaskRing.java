@@ -0,0 +1,250 @@
+package processing;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A ring buffer of tasks, for the tasks which are added in increasing order of timestamp (the end of the treatments
+ * of a service whose duration is deterministic). Adding a task at the end of the ring and polling the first one are
+ * done in O(1), without any comparison between tasks.
+ * The ring stays correct if a task is added before the last one (for instance after a change of the duration of the
+ * service): it is then inserted at its place in O(n).
+ * A task is removed in O(log n) by a binary search on the timestamps: its slot is emptied and skipped later.
+ * Tasks with the same timestamp are polled in their order of insertion.
+ * @author Thomas
+ *
+ */
+public class TaskRing implements TaskStore {
+	protected Task[] tasks;
+	protected double[] timestamps;
+	protected int head;
+	protected int slots;
+	protected int size;
+
+	public TaskRing() {
+		this(16);
+	}
+
+	public TaskRing(int initialCapacity) {
+		super();
+		int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+		tasks = new Task[capacity];
+		timestamps = new double[capacity];
+		head = 0;
+		slots = 0;
+		size = 0;
+	}
+
+	/**
+	 * Add a task at the end of the ring, in O(1) if its timestamp isn't smaller than the one of the last task
+	 * @param task the task to add
+	 */
+	@Override
+	public void add(Task task) {
+		if (task.handle >= 0 && contains(task)) {
+			throw new IllegalArgumentException("The task " + task + " is already in the ring");
+		}
+		if (slots == tasks.length) {
+			grow();
+		}
+		int slot = slots;
+		if (slots > 0 && task.timestamp < timestamps[index(slots - 1)]) {
+			slot = upperBound(task.timestamp);
+			for (int i = slots; i > slot; i--) {
+				tasks[index(i)] = tasks[index(i - 1)];
+				timestamps[index(i)] = timestamps[index(i - 1)];
+			}
+		}
+		tasks[index(slot)] = task;
+		timestamps[index(slot)] = task.timestamp;
+		task.handle = 0;
+		slots++;
+		size++;
+	}
+
+	@Override
+	public Task peek() {
+		skipEmptySlots();
+		return size == 0 ? null : tasks[head];
+	}
+
+	@Override
+	public double peekTimestamp() {
+		skipEmptySlots();
+		return size == 0 ? Double.POSITIVE_INFINITY : timestamps[head];
+	}
+
+	@Override
+	public Task poll() {
+		skipEmptySlots();
+		if (size == 0) {
+			return null;
+		}
+		Task task = tasks[head];
+		tasks[head] = null;
+		head = index(1);
+		slots--;
+		size--;
+		task.handle = -1;
+		return task;
+	}
+
+	/**
+	 * Remove a task from the ring, in O(log n)
+	 * @param task the task to remove
+	 * @return true if the task was in the ring, false otherwise
+	 */
+	@Override
+	public boolean remove(Task task) {
+		int slot = find(task);
+		if (slot < 0) {
+			return false;
+		}
+		tasks[index(slot)] = null;
+		task.handle = -1;
+		size--;
+		if (size == 0) {
+			clear();
+		}
+		return true;
+	}
+
+	/**
+	 * Change the timestamp of a task of the ring, in O(1) when it stays the last task, O(n) otherwise
+	 * @param task the task to move
+	 * @param timestamp the new timestamp of the task
+	 * @return true if the task was in the ring, false otherwise
+	 */
+	@Override
+	public boolean reschedule(Task task, double timestamp) {
+		if (!remove(task)) {
+			return false;
+		}
+		task.timestamp = timestamp;
+		add(task);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Task task) {
+		return find(task) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < slots; i++) {
+			Task task = tasks[index(i)];
+			if (task != null) {
+				task.handle = -1;
+				tasks[index(i)] = null;
+			}
+		}
+		head = 0;
+		slots = 0;
+		size = 0;
+	}
+
+	/**
+	 * Return an iterator over the tasks of the ring, in order of timestamp
+	 */
+	@Override
+	public Iterator<Task> iterator() {
+		return new Iterator<Task>() {
+			private int slot = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (slot < slots && tasks[index(slot)] == null) {
+					slot++;
+				}
+				return slot < slots;
+			}
+
+			@Override
+			public Task next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return tasks[index(slot++)];
+			}
+		};
+	}
+
+	private int index(int slot) {
+		return (head + slot) & (tasks.length - 1);
+	}
+
+	private void skipEmptySlots() {
+		while (slots > 0 && tasks[head] == null) {
+			head = index(1);
+			slots--;
+		}
+	}
+
+	private void grow() {
+		Task[] newTasks = new Task[2 * tasks.length];
+		double[] newTimestamps = new double[2 * tasks.length];
+		for (int i = 0; i < slots; i++) {
+			newTasks[i] = tasks[index(i)];
+			newTimestamps[i] = timestamps[index(i)];
+		}
+		tasks = newTasks;
+		timestamps = newTimestamps;
+		head = 0;
+	}
+
+	/**
+	 * Return the first slot whose timestamp is greater than the given one
+	 */
+	private int upperBound(double timestamp) {
+		int low = 0;
+		int high = slots;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (timestamps[index(middle)] <= timestamp) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Return the slot of a task, -1 if it is not in the ring
+	 */
+	private int find(Task task) {
+		if (task.handle < 0) {
+			return -1;
+		}
+		int low = 0;
+		int high = slots;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (timestamps[index(middle)] < task.timestamp) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		for (int slot = low; slot < slots && timestamps[index(slot)] == task.timestamp; slot++) {
+			if (tasks[index(slot)] == task) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,67 @@
+package processing;
+
+/**
+ * This interface represents the structure in which a tasks queue keeps its pending tasks, ordered by timestamp.
+ * The tasks with the same timestamp must be returned in their order of insertion.
+ * A task can only be in one structure at a time, and its timestamp must not change while it is stored.
+ * @author Thomas
+ *
+ */
+public interface TaskStore extends Iterable<Task> {
+
+	/**
+	 * Insert a task
+	 * @param task the task to insert
+	 */
+	public abstract void add(Task task);
+
+	/**
+	 * Return the task with the smallest timestamp without removing it
+	 * @return the first task, null if there is no task
+	 */
+	public abstract Task peek();
+
+	/**
+	 * Return the smallest timestamp of the stored tasks
+	 * @return the timestamp of the first task, +infinity if there is no task
+	 */
+	public abstract double peekTimestamp();
+
+	/**
+	 * Remove and return the task with the smallest timestamp
+	 * @return the first task, null if there is no task
+	 */
+	public abstract Task poll();
+
+	/**
+	 * Remove a task
+	 * @param task the task to remove
+	 * @return true if the task was stored, false otherwise
+	 */
+	public abstract boolean remove(Task task);
+
+	/**
+	 * Change the timestamp of a stored task. The task is then ordered as if it had just been inserted.
+	 * @param task the task to move
+	 * @param timestamp the new timestamp of the task
+	 * @return true if the task was stored, false otherwise
+	 */
+	public abstract boolean reschedule(Task task, double timestamp);
+
+	/**
+	 * Tell if a task is stored
+	 * @param task a task
+	 * @return true if the task is stored, false otherwise
+	 */
+	public abstract boolean contains(Task task);
+
+	public abstract int size();
+
+	public abstract boolean isEmpty();
+
+	/**
+	 * Remove all the tasks
+	 */
+	public abstract void clear();
+
+}
@@ -1,19 +1,29 @@
 package processing;
 
-import java.util.PriorityQueue;
-
 /**
  * Invoker class of the command pattern. It stores the task to execute with their timestamp and
  * can execute them in the right order.
+ * The tasks are kept in a TaskStore, by default a TaskHeap: adding, polling or removing a task is done in O(log n),
+ * and the tasks with the same timestamp are executed in their order of insertion.
+ * A tasks queue can be registered in a FutureEventList, which is then notified each time the first task
+ * of the queue changes.
  * @author Thomas
  *
  */
 public class TasksQueue {
-	protected PriorityQueue<Task> queue;
+	protected TaskStore queue;
+	protected FutureEventList futureEventList;
+	protected int position;
 
 	public TasksQueue() {
+		this(new TaskHeap());
+	}
+
+	public TasksQueue(TaskStore queue) {
 		super();
-		queue = new PriorityQueue<Task>(11, (task1, task2) -> Double.compare(task1.timestamp,task2.timestamp));
+		this.queue = queue;
+		futureEventList = null;
+		position = -1;
 	}
 	
 	/**
@@ -21,7 +31,7 @@ public class TasksQueue {
 	 * @return double representing the time of the next task.
 	 */
 	public Task executeNextTask() {
-		Task task = queue.poll();
+		Task task = pollNextTask();
 		task.getCommand().execute();
 		return task;
 	}
@@ -30,18 +40,133 @@ public class TasksQueue {
 		return queue.peek();
 	}
 	
+	/**
+	 * Return the timestamp of the first task in the queue
+	 * @return the smallest timestamp of the queue, +infinity if the queue is empty
+	 */
+	public double getNextTimestamp() {
+		return queue.peekTimestamp();
+	}
+	
+	/**
+	 * Retrieve and remove the first task in the queue (smaller timestamp)
+	 * @return the first task of the queue, null if the queue is empty
+	 */
+	public Task pollNextTask() {
+		Task task = queue.poll();
+		if (task != null) {
+			task.tasksQueue = null;
+			notifyFutureEventList();
+		}
+		return task;
+	}
+	
 	public void addTask(Task task) {
-		queue.offer(task);
+		if (task.tasksQueue != null) {
+			throw new IllegalArgumentException("The task " + task + " is already scheduled");
+		}
+		queue.add(task);
+		task.tasksQueue = this;
+		if (queue.peek() == task) {
+			notifyFutureEventList();
+		}
 	}
 	
-	public void removeTask(Task task) {
+	/**
+	 * Schedule a command at a given time
+	 * @param timestamp the time at which the command must be executed
+	 * @param command the command to execute
+	 * @return the scheduled task, which can be used to cancel or reschedule the command
+	 */
+	public Task addTask(double timestamp, Command command) {
+		Task task = new Task(timestamp, command);
+		addTask(task);
+		return task;
+	}
+	
+	/**
+	 * Remove a task from the queue, in O(log n)
+	 * @param task the task to remove
+	 * @return true if the task was in the queue, false otherwise
+	 */
+	public boolean removeTask(Task task) {
+		if (task.tasksQueue != this) {
+			return false;
+		}
+		boolean first = queue.peek() == task;
 		queue.remove(task);
+		task.tasksQueue = null;
+		if (first) {
+			notifyFutureEventList();
+		}
+		return true;
+	}
+	
+	/**
+	 * Change the timestamp of a task of the queue, in O(log n)
+	 * @param task the task to move
+	 * @param timestamp the new timestamp of the task
+	 * @return true if the task was in the queue, false otherwise
+	 */
+	public boolean rescheduleTask(Task task, double timestamp) {
+		if (task.tasksQueue != this) {
+			return false;
+		}
+		Task first = queue.peek();
+		queue.reschedule(task, timestamp);
+		if (first == task || queue.peek() == task) {
+			notifyFutureEventList();
+		}
+		return true;
+	}
+	
+	/**
+	 * Remove all the tasks of the queue
+	 */
+	public void clear() {
+		for (Task task : queue) {
+			task.tasksQueue = null;
+		}
+		queue.clear();
+		notifyFutureEventList();
+	}
+	
+	public int size() {
+		return queue.size();
 	}
 
-	public PriorityQueue<Task> getQueue() {
+	public TaskStore getQueue() {
 		return queue;
 	}
 
+	/**
+	 * Change the structure keeping the tasks of the queue. The pending tasks are moved to the new structure.
+	 * @param store the new structure, which must be empty
+	 */
+	public void setQueue(TaskStore store) {
+		Task[] tasks = new Task[queue.size()];
+		int i = 0;
+		for (Task task : queue) {
+			tasks[i++] = task;
+		}
+		queue.clear();
+		for (Task task : tasks) {
+			store.add(task);
+		}
+		queue = store;
+		notifyFutureEventList();
+	}
+
+	public FutureEventList getFutureEventList() {
+		return futureEventList;
+	}
+
+	private void notifyFutureEventList() {
+		if (futureEventList != null) {
+			futureEventList.update(this);
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer content = new StringBuffer();
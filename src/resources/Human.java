@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import core.EmergencyDepartment;
 import core.Entity;
 import core.Event;
+import core.HistoryFidelity;
 
 /**
  * The Human abstract class add a surname property to Entity so as to represents Humans
@@ -13,22 +14,26 @@ import core.Event;
  */
 public abstract class Human extends Entity {
 	protected String surname;
-	protected String state;
+	protected HumanState state;
 	protected ArrayList<Event> history;
 
 	public Human(String name, String surname, EmergencyDepartment emergencyDepartment) {
 		super(name, emergencyDepartment);
 		this.surname = surname;
-		this.state = "idle";
+		this.state = HumanState.IDLE;
 		this.history = new ArrayList<Event>();
 	}
 
-	public Human(String name, String surname, String state, EmergencyDepartment emergencyDepartment) {
+	public Human(String name, String surname, HumanState state, EmergencyDepartment emergencyDepartment) {
 		super(name, emergencyDepartment);
 		this.surname = surname;
 		this.state = state;
 		this.history = new ArrayList<Event>();
 	}
+
+	public Human(String name, String surname, String state, EmergencyDepartment emergencyDepartment) {
+		this(name, surname, HumanState.fromLabel(state), emergencyDepartment);
+	}
 	
 	public String getSurname() {
 		return surname;
@@ -38,12 +43,38 @@ public abstract class Human extends Entity {
 		this.surname = surname;
 	}
 
+	/**
+	 * Return the label of the state of the human
+	 * @return the label of the state
+	 */
 	public String getState() {
+		return state.getLabel();
+	}
+
+	public HumanState getHumanState() {
 		return state;
 	}
 
-	public void setState(String state) {
+	/**
+	 * Change the state of the human. The emergency department is notified, so that it keeps track of its
+	 * idle staff members and dispatches again the services needing a staff member who became idle.
+	 * @param state the new state
+	 */
+	public void setState(HumanState state) {
+		HumanState previousState = this.state;
 		this.state = state;
+		if (previousState != state && emergencyDepartment != null) {
+			emergencyDepartment.staffStateChanged(this);
+		}
+	}
+
+	/**
+	 * Change the state of the human given the label of the new state
+	 * @param state the label of the new state
+	 * @throws IllegalArgumentException if no state has this label
+	 */
+	public void setState(String state) {
+		setState(HumanState.fromLabel(state));
 	}
 	
 	public ArrayList<Event> getHistory() {
@@ -54,9 +85,24 @@ public abstract class Human extends Entity {
 		this.history = history;
 	}
 
+	/**
+	 * This method adds an event to the history of the human and prints it, if the emergency department keeps
+	 * its full history.
+	 * @param event the event happening to the human
+	 */
 	public void addEvent(Event event) {
-		this.history.add(event);
-		System.out.println(this.toString() + "'s event : " + event.getName());
+		if (isHistoryKept()) {
+			this.history.add(event);
+			System.out.println(this.toString() + "'s event : " + event.getName());
+		}
+	}
+	
+	/**
+	 * This method tells if the events of the human are kept in his history.
+	 * @return true if the emergency department keeps its full history (or if there is no emergency department)
+	 */
+	protected boolean isHistoryKept() {
+		return emergencyDepartment == null || emergencyDepartment.getHistoryFidelity() == HistoryFidelity.FULL;
 	}
 	
 	/**
@@ -0,0 +1,61 @@
+package resources;
+
+import java.util.HashMap;
+
+/**
+ * This enumeration lists the states a human of the Emergency Department can be in.
+ * Staff members are either idle or busy (occupied or visiting), patients go through the states of the workflow.
+ * Each state has a label, which is the way it is displayed.
+ * @author Thomas
+ *
+ */
+public enum HumanState {
+	IDLE("idle"),
+	OCCUPIED("occupied"),
+	VISITING("visiting"),
+	WAITING("waiting"),
+	BEING_REGISTERED("being-registered"),
+	BEING_INSTALLED("being-installed"),
+	BEING_VISITED("being-visited"),
+	BEING_TRANSPORTED("being-transported"),
+	TAKING_BLOOD_TEST("taking-BloodTest"),
+	TAKING_XRAY("taking-XRay"),
+	TAKING_MRI("taking-MRI"),
+	RELEASED("released");
+	
+	private static final HashMap<String, HumanState> statesByLabel = new HashMap<String, HumanState>();
+	static {
+		for (HumanState state : values()) {
+			statesByLabel.put(state.label, state);
+		}
+	}
+	
+	private final String label;
+	
+	private HumanState(String label) {
+		this.label = label;
+	}
+	
+	public String getLabel() {
+		return label;
+	}
+	
+	/**
+	 * Return the state corresponding to a label
+	 * @param label the label of the state, as displayed
+	 * @return the corresponding state
+	 * @throws IllegalArgumentException if no state has this label
+	 */
+	public static HumanState fromLabel(String label) {
+		HumanState state = statesByLabel.get(label);
+		if (state == null) {
+			throw new IllegalArgumentException("Unknown state " + label);
+		}
+		return state;
+	}
+	
+	@Override
+	public String toString() {
+		return label;
+	}
+}
@@ -10,7 +10,7 @@ import core.EmergencyDepartment;
 public class Nurse extends Human {
 
 	public Nurse(String name, String surname, EmergencyDepartment emergencyDepartment) {
-		super(name, surname,  "idle", emergencyDepartment);
+		super(name, surname, HumanState.IDLE, emergencyDepartment);
 	}
 	
 	@Override
@@ -1,9 +1,12 @@
 package resources;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import core.EmergencyDepartment;
 import core.Event;
+import core.EventType;
+import core.Milestone;
 import utils.HealthInsurance;
 import utils.Observable;
 import utils.Observer;
@@ -11,6 +14,8 @@ import utils.Observer;
 /**
  * Patient class represents the patients of the emergency department.
  * A patient is an observable which notify its observers of each event happening to him
+ * Besides his history, a patient keeps the time of each milestone of his stay in a fixed slot, and the last
+ * examination prescribed to him.
  * @author Thomas
  *
  */
@@ -22,10 +27,13 @@ public class Patient extends Human implements Observable {
 	protected utils.SeverityLevel severityLevel;
 	protected double charges;
 	protected ArrayList<Observer> observers;
+	protected double[] milestones;
+	protected EventType prescribedExamination;
+	protected int examinations;
 
 	public Patient(String name, String surname, double arrivalTime, HealthInsurance healthInsurance, Room location,
 			utils.SeverityLevel severityLevel, EmergencyDepartment emergencyDepartment) {
-		super(name, surname, "waiting", emergencyDepartment);
+		super(name, surname, HumanState.WAITING, emergencyDepartment);
 		this.arrivalTime = arrivalTime;
 		this.healthInsurance = healthInsurance;
 		this.location = location;
@@ -33,16 +41,96 @@ public class Patient extends Human implements Observable {
 		this.history = new ArrayList<Event>();
 		this.charges = 0;
 		this.observers = new ArrayList<Observer>();
+		this.milestones = newMilestones();
+		this.prescribedExamination = null;
+		this.examinations = 0;
 	}
 	
 	public Patient(String name, String surname, HealthInsurance healthInsurance,
 			utils.SeverityLevel severityLevel, EmergencyDepartment emergencyDepartment) {
-		super(name, surname, "waiting", emergencyDepartment);
+		super(name, surname, HumanState.WAITING, emergencyDepartment);
 		this.healthInsurance = healthInsurance;
 		this.severityLevel = severityLevel;
 		this.history = new ArrayList<Event>();
 		this.charges = 0;
 		this.observers = new ArrayList<Observer>();
+		this.milestones = newMilestones();
+		this.prescribedExamination = null;
+		this.examinations = 0;
+	}
+
+	private static double[] newMilestones() {
+		double[] milestones = new double[Milestone.values().length];
+		Arrays.fill(milestones, Double.NaN);
+		return milestones;
+	}
+
+	/**
+	 * This method records an event happening to the patient: the prescribed examination and the milestones are
+	 * updated (the emergency department is notified of the milestones), then the event is added to the history if the emergency department keeps its full history.
+	 * @param event the event happening to the patient
+	 */
+	@Override
+	public void addEvent(Event event) {
+		recordEvent(event.getType(), event.getTimestamp());
+		super.addEvent(event);
+	}
+
+	/**
+	 * This method records an event of a given type happening to the patient. The event itself is only created
+	 * if the emergency department keeps its full history.
+	 * @param type the type of the event
+	 * @param timestamp the time of the event
+	 */
+	public void addEvent(EventType type, double timestamp) {
+		recordEvent(type, timestamp);
+		if (isHistoryKept()) {
+			super.addEvent(new Event(type, timestamp));
+		}
+	}
+
+	private void recordEvent(EventType type, double timestamp) {
+		if (type.getExamination() != null) {
+			prescribedExamination = type;
+			examinations |= type.getExaminationBit();
+		}
+		Milestone milestone = type.getMilestone();
+		if (milestone != null && (!milestone.keepsFirst() || Double.isNaN(milestones[milestone.ordinal()]))) {
+			milestones[milestone.ordinal()] = timestamp;
+			if (emergencyDepartment != null) {
+				emergencyDepartment.milestoneReached(this, milestone, timestamp);
+			}
+		}
+	}
+
+	/**
+	 * This method return the time at which the patient reached a milestone of his stay.
+	 * @param milestone A milestone
+	 * @return the time of the milestone, NaN if the patient hasn't reached it
+	 */
+	public double getMilestone(Milestone milestone) {
+		return milestones[milestone.ordinal()];
+	}
+
+	public double[] getMilestones() {
+		return milestones;
+	}
+
+	/**
+	 * This method return the set of the examinations prescribed to the patient, as the union of their bits.
+	 * @return the bits of the examinations prescribed to the patient, 0 if none was
+	 * @see EventType#getExaminationBit
+	 */
+	public int getExaminations() {
+		return examinations;
+	}
+
+	/**
+	 * This method return the last examination prescribed to the patient.
+	 * @return the type of the prescription event, null if no examination has been prescribed
+	 */
+	public EventType getPrescribedExamination() {
+		return prescribedExamination;
 	}
 
 	@Override
@@ -96,14 +184,6 @@ public class Patient extends Human implements Observable {
 		this.severityLevel = severityLevel;
 	}
 
-	public String getState() {
-		return state;
-	}
-
-	public void setState(String state) {
-		this.state = state;
-	}
-
 	public double getCharges() {
 		return charges;
 	}
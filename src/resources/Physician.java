@@ -18,7 +18,7 @@ public class Physician extends Human implements Observer {
 	protected ArrayList<String> messageBox;
 	
 	public Physician(String name, String surname, EmergencyDepartment emergencyDepartment) {
-		super(name, surname, "idle", emergencyDepartment);
+		super(name, surname, HumanState.IDLE, emergencyDepartment);
 		this.username = "Physician" + ID;
 		this.overseenPatients = new ArrayList<Patient>();
 		this.treatedPatients = new ArrayList<Patient>();
@@ -63,14 +63,6 @@ public class Physician extends Human implements Observer {
 		this.username = username;
 	}
 
-	public String getState() {
-		return state;
-	}
-
-	public void setState(String state) {
-		this.state = state;
-	}
-
 	public ArrayList<Patient> getOverseenPatients() {
 		return overseenPatients;
 	}
@@ -35,6 +35,9 @@ public abstract class Room extends Entity {
 	public void addPatient(Patient patient) {
 		if(isAvailable()) {
 			patients.add(patient);
+			if (emergencyDepartment != null) {
+				emergencyDepartment.roomChanged(this);
+			}
 		}
 		else {
 			throw new RuntimeException("No available place in the room " + name);
@@ -48,6 +51,10 @@ public abstract class Room extends Entity {
 	public void removePatient(Patient patient) {
 		patients.remove(patient);
 		patient.setLocation(null);
+		if (emergencyDepartment != null) {
+			emergencyDepartment.roomChanged(this);
+			emergencyDepartment.resourceReleased(this);
+		}
 	}
 	
 	public int getCapacity() {
@@ -56,6 +63,10 @@ public abstract class Room extends Entity {
 
 	public void setCapacity(int capacity) {
 		this.capacity = capacity;
+		if (emergencyDepartment != null) {
+			emergencyDepartment.roomChanged(this);
+			emergencyDepartment.resourceReleased(this);
+		}
 	}
 
 	public ArrayList<Patient> getPatients() {
@@ -64,6 +75,10 @@ public abstract class Room extends Entity {
 
 	public void setPatients(ArrayList<Patient> patients) {
 		this.patients = patients;
+		if (emergencyDepartment != null) {
+			emergencyDepartment.roomChanged(this);
+			emergencyDepartment.resourceReleased(this);
+		}
 	}
 
 	@Override
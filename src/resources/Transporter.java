@@ -5,7 +5,7 @@ import core.EmergencyDepartment;
 public class Transporter extends Human {
 
 	public Transporter(String name, String surname, EmergencyDepartment emergencyDepartment) {
-		super(name, surname,  "idle", emergencyDepartment);
+		super(name, surname, HumanState.IDLE, emergencyDepartment);
 	}
 	
 	@Override
@@ -0,0 +1,105 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import processing.CalendarQueue;
+import processing.Task;
+import processing.TaskHeap;
+
+public class CalendarQueueTest {
+
+	private CalendarQueue calendar;
+
+	@Before
+	public void setUp() throws Exception {
+		calendar = new CalendarQueue();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		calendar = null;
+	}
+
+	@Test
+	public void testPollInOrderOfTimestamp() {
+		double[] timestamps = {5., 3., 800., 1., 9., 2., 7., 4., 6., 0.};
+		for (double timestamp : timestamps) {
+			calendar.add(new Task(timestamp, () -> {}));
+		}
+		double previous = -1;
+		while (!calendar.isEmpty()) {
+			double timestamp = calendar.poll().getTimestamp();
+			assertTrue(timestamp >= previous);
+			previous = timestamp;
+		}
+		assertTrue(previous == 800.);
+		assertNull(calendar.poll());
+	}
+
+	@Test
+	public void testEqualTimestampsInOrderOfInsertion() {
+		Task task1 = new Task(2., () -> {});
+		Task task2 = new Task(2., () -> {});
+		Task task3 = new Task(2., () -> {});
+		calendar.add(task1);
+		calendar.add(task2);
+		calendar.add(task3);
+		assertEquals(task1, calendar.poll());
+		assertEquals(task2, calendar.poll());
+		assertEquals(task3, calendar.poll());
+	}
+
+	@Test
+	public void testRemove() {
+		Task task1 = new Task(1., () -> {});
+		Task task2 = new Task(2., () -> {});
+		calendar.add(task1);
+		calendar.add(task2);
+		assertTrue(calendar.remove(task1));
+		assertFalse(calendar.contains(task1));
+		assertEquals(task2, calendar.peek());
+	}
+
+	@Test
+	public void testSameOrderAsTaskHeapWhileResizing() {
+		Random random = new Random(42);
+		TaskHeap heap = new TaskHeap();
+		ArrayList<Task> pending = new ArrayList<Task>();
+		IdentityHashMap<Task, Task> copies = new IdentityHashMap<Task, Task>();
+		double time = 0;
+		for (int i = 0; i < 20000; i++) {
+			int action = random.nextInt(10);
+			if (action < 6 || pending.isEmpty()) {
+				Task task = new Task(time + 15 + Math.floor(random.nextDouble() * 75), () -> {});
+				Task copy = new Task(task.getTimestamp(), task.getCommand());
+				copies.put(task, copy);
+				calendar.add(task);
+				heap.add(copy);
+				pending.add(task);
+			}
+			else if (action < 9) {
+				Task task = calendar.poll();
+				assertTrue(heap.poll() == copies.get(task));
+				pending.remove(task);
+				time = task.getTimestamp();
+			}
+			else {
+				Task task = pending.remove(random.nextInt(pending.size()));
+				assertTrue(calendar.remove(task));
+				assertTrue(heap.remove(copies.get(task)));
+			}
+			assertTrue(calendar.size() == heap.size());
+			assertTrue(calendar.peekTimestamp() == heap.peekTimestamp());
+		}
+		assertTrue(calendar.getBucketsCount() > 16);
+	}
+
+}
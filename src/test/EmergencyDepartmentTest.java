@@ -0,0 +1,168 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.HistoryFidelity;
+import core.Milestone;
+import core.NurseFactory;
+import core.RunSummary;
+import resources.Patient;
+import resources.WaitingRoom;
+
+public class EmergencyDepartmentTest {
+
+	private EmergencyDepartment ED;
+	private Patient patient;
+
+	@Before
+	public void setUp() throws Exception {
+		System.out.println("=== Initialisation ===");
+		ED = new EmergencyDepartment("Test ED");
+		ED.addRoom(new WaitingRoom("Waiting Room", 10, ED));
+		patient = ED.getPatientFactory().create(ED.getSeverityLevel(3), ED);
+		ED.patientArrival(patient);
+		System.out.println("=== End of initialisation ===");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		patient = null;
+	}
+
+	@Test
+	public void testExecuteNextTaskWhenNoNurse() {
+		ED.executeNextTask();
+		String lastEvent = ED.getHistory().get(ED.getHistory().size() - 1).getName();
+		assertTrue(lastEvent.startsWith("Arrival of"));
+	}
+
+	@Test
+	public void testExecuteNextTaskWhenNurseAdded() {
+		ED.addStaff(1, new NurseFactory());
+		ED.executeNextTask();
+		String lastEvent = ED.getHistory().get(ED.getHistory().size() - 1).getName();
+		assertEquals("Start of service Triage on " + patient, lastEvent);
+	}
+
+	@Test
+	public void testExecuteNextTaskWhenNurseReleased() {
+		ED.addStaff(1, new NurseFactory());
+		ED.getIdleNurse().setState("occupied");
+		ED.setNextPatientsTimestamp(new double[] {1000., 1000., 1., 1000., 1000.});
+		ED.executeNextTask();
+		ED.getStaff().get(0).setState("idle");
+		ED.executeNextTask();
+		String lastEvent = ED.getHistory().get(ED.getHistory().size() - 1).getName();
+		assertEquals("Start of service Triage on " + patient, lastEvent);
+	}
+
+	@Test
+	public void testExecuteUntilStopsAtHorizon() {
+		ED.setNextPatientsTimestamp(new double[] {1000., 1000., 10., 1000., 1000.});
+		RunSummary summary = ED.executeUntil(5.);
+		assertTrue(ED.getTime() == 5.);
+		assertTrue(summary.getEvents() == 0);
+		summary = ED.executeUntil(10.);
+		assertTrue(ED.getTime() == 10.);
+		assertTrue(summary.getEvents() == 1);
+		assertTrue(summary.getArrivals() == 1);
+		assertTrue(summary.getStartTime() == 5.);
+	}
+
+	@Test
+	public void testExecuteEvents() {
+		ED.addStaff(1, new NurseFactory());
+		ED.setNextPatientsTimestamp(new double[] {1000., 1000., 1000., 1000., 1000.});
+		RunSummary summary = ED.executeEvents(2);
+		assertTrue(summary.getEvents() == 2);
+		assertTrue(summary.getReleases() == 0);
+		String lastEvent = ED.getHistory().get(ED.getHistory().size() - 1).getName();
+		assertTrue(lastEvent.startsWith("End of service Triage"));
+	}
+
+	@Test
+	public void testNoHistoryFidelity() {
+		ED.addStaff(1, new NurseFactory());
+		ED.setHistoryFidelity(HistoryFidelity.NONE);
+		ED.setNextPatientsTimestamp(new double[] {1000., 1000., 1000., 1000., 1000.});
+		ED.executeEvents(2);
+		assertTrue(ED.getHistory().isEmpty());
+		assertTrue(patient.getMilestone(Milestone.REGISTRATION) == 0.);
+	}
+
+	@Test
+	public void testMilestonesHistoryFidelity() {
+		ED.addStaff(1, new NurseFactory());
+		ED.setHistoryFidelity(HistoryFidelity.MILESTONES);
+		ED.setNextPatientsTimestamp(new double[] {1000., 1000., 1000., 1000., 1000.});
+		int historySize = patient.getHistory().size();
+		ED.executeEvents(1);
+		assertTrue(patient.getMilestone(Milestone.REGISTRATION) == 0.);
+		assertEquals(historySize, patient.getHistory().size());
+	}
+
+	@Test
+	public void testSameSeedSameSimulation() throws Exception {
+		EmergencyDepartment ED1 = TestEmergencyDepartments.create("Seeded ED", 42, HistoryFidelity.MILESTONES);
+		EmergencyDepartment ED2 = TestEmergencyDepartments.create("Seeded ED", 42, HistoryFidelity.MILESTONES);
+		RunSummary summary1 = ED1.executeUntil(2000.);
+		RunSummary summary2 = ED2.executeUntil(2000.);
+		assertTrue(summary1.getEvents() > 0);
+		assertEquals(summary1.getEvents(), summary2.getEvents());
+		assertEquals(summary1.getReleases(), summary2.getReleases());
+		assertEquals(ED1.computeKPI("los"), ED2.computeKPI("los"), 0.);
+		assertEquals(ED1.getHistory().size(), ED2.getHistory().size());
+		assertEquals(ED1.getPatients().size(), ED2.getPatients().size());
+		for (int i = 0; i < ED1.getPatients().size(); i++) {
+			assertEquals(ED1.getPatients().get(i).getName(), ED2.getPatients().get(i).getName());
+		}
+	}
+
+	@Test
+	public void testSetSeed() {
+		ED.setSeed(7);
+		assertEquals(7, ED.getSeed());
+		double[] nextPatientsTimestamp = ED.getNextPatientsTimestamp().clone();
+		ED.setSeed(7);
+		assertArrayEquals(nextPatientsTimestamp, ED.getNextPatientsTimestamp(), 0.);
+		ED.setSeed(8);
+		assertFalse(nextPatientsTimestamp[0] == ED.getNextPatientsTimestamp()[0]);
+	}
+
+	@Test
+	public void testConcurrentSimulations() throws Exception {
+		final EmergencyDepartment[] EDs = new EmergencyDepartment[4];
+		final RunSummary[] summaries = new RunSummary[EDs.length];
+		Thread[] threads = new Thread[EDs.length];
+		for (int i = 0; i < EDs.length; i++) {
+			EDs[i] = TestEmergencyDepartments.create("Seeded ED", 42, HistoryFidelity.MILESTONES);
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					summaries[index] = EDs[index].executeUntil(2000.);
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		EmergencyDepartment reference = TestEmergencyDepartments.create("Seeded ED", 42, HistoryFidelity.MILESTONES);
+		RunSummary summary = reference.executeUntil(2000.);
+		for (int i = 0; i < EDs.length; i++) {
+			assertEquals(summary.getEvents(), summaries[i].getEvents());
+			assertEquals(reference.computeKPI("los"), EDs[i].computeKPI("los"), 0.);
+			assertEquals(reference.getContext().getLastID(), EDs[i].getContext().getLastID());
+		}
+	}
+
+}
@@ -8,7 +8,9 @@ import org.junit.Test;
 
 import core.EmergencyDepartment;
 import core.Entity;
+import resources.BoxRoom;
 import resources.Nurse;
+import resources.Room;
 
 /*
  * This is the JUnit test for Entity
@@ -45,4 +47,38 @@ public class EntityTest {
 		assertFalse(entity1.equals(entity2));
 	}
 
+	/**
+	 * This checks that the IDs are allocated per Emergency Department, and that entities of two Emergency
+	 * Departments with the same ID are different
+	 */
+	@Test
+	public void contextTest() {
+		EmergencyDepartment otherED = new EmergencyDepartment("Other ED");
+		Entity entity3 = new Nurse("nurse1", "surname1", otherED);
+		assertTrue(entity2.getID() == entity1.getID() + 1);
+		assertTrue(entity3.getContext() == otherED.getContext());
+		assertTrue(entity3.getID() == otherED.getContext().getLastID());
+		assertTrue(otherED.getContext().getLastID() == ED.getContext().getLastID() - 1);
+		entity3.setEmergencyDepartment(ED);
+		assertTrue(entity3.getID() == ED.getContext().getLastID());
+		assertFalse(entity3.equals(entity1));
+	}
+
+	/**
+	 * This checks that the rooms and employees created for another Emergency Department, or without one, take a
+	 * new ID in the context of the Emergency Department they are added to
+	 */
+	@Test
+	public void addToEmergencyDepartmentTest() {
+		EmergencyDepartment otherED = new EmergencyDepartment("Other ED");
+		Nurse nurse = new Nurse("nurse2", "surname2", otherED);
+		Room room = new BoxRoom("Box", 1, null);
+		ED.addEmployee(nurse);
+		ED.addRoom(room);
+		assertTrue(nurse.getContext() == ED.getContext() && nurse.getEmergencyDepartment() == ED);
+		assertTrue(room.getContext() == ED.getContext() && room.getEmergencyDepartment() == ED);
+		assertTrue(nurse.getID() > entity2.getID());
+		assertTrue(room.getID() == ED.getContext().getLastID());
+	}
+
 }
@@ -0,0 +1,76 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import processing.FutureEventList;
+import processing.Task;
+import processing.TasksQueue;
+
+public class FutureEventListTest {
+
+	private FutureEventList futureEventList;
+	private TasksQueue queue1;
+	private TasksQueue queue2;
+
+	@Before
+	public void setUp() throws Exception {
+		futureEventList = new FutureEventList();
+		queue1 = new TasksQueue();
+		queue2 = new TasksQueue();
+		futureEventList.addQueue(queue1);
+		futureEventList.addQueue(queue2);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		futureEventList = null;
+		queue1 = null;
+		queue2 = null;
+	}
+
+	@Test
+	public void testGetNextTaskWhenEmpty() {
+		assertNull(futureEventList.getNextTask());
+		assertNull(futureEventList.pollNextTask());
+	}
+
+	@Test
+	public void testPollNextTask() {
+		Task task1 = new Task(4., () -> {});
+		Task task2 = new Task(2., () -> {});
+		Task task3 = new Task(7., () -> {});
+		queue1.addTask(task1);
+		queue2.addTask(task2);
+		queue1.addTask(task3);
+		assertEquals(task2, futureEventList.pollNextTask());
+		assertEquals(task1, futureEventList.pollNextTask());
+		assertEquals(task3, futureEventList.pollNextTask());
+		assertNull(futureEventList.pollNextTask());
+	}
+
+	@Test
+	public void testRemoveTaskUpdatesTheList() {
+		Task task1 = new Task(1., () -> {});
+		Task task2 = new Task(3., () -> {});
+		queue1.addTask(task1);
+		queue2.addTask(task2);
+		queue1.removeTask(task1);
+		assertEquals(task2, futureEventList.getNextTask());
+	}
+
+	@Test
+	public void testRemoveQueue() {
+		Task task1 = new Task(1., () -> {});
+		Task task2 = new Task(3., () -> {});
+		queue1.addTask(task1);
+		queue2.addTask(task2);
+		futureEventList.removeQueue(queue1);
+		assertEquals(task2, futureEventList.getNextTask());
+		assertNull(queue1.getFutureEventList());
+	}
+
+}
@@ -0,0 +1,66 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.Event;
+import core.History;
+import processing.EndService;
+import processing.StartService;
+import resources.BoxRoom;
+import resources.Nurse;
+import resources.Patient;
+import utils.DeterministicDistribution;
+import utils.NoInsurance;
+import utils.SeverityLevel_L3;
+
+public class HistoryTest {
+
+	private EmergencyDepartment ED;
+	private History history;
+	private Patient patient;
+
+	@Before
+	public void setUp() throws Exception {
+		ED = new EmergencyDepartment("Test Hospital");
+		history = new History(ED);
+		patient = new Patient("John", "Doe", new NoInsurance(), new SeverityLevel_L3(new DeterministicDistribution(2)), ED);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		history = null;
+		patient = null;
+	}
+
+	@Test
+	public void testRecordedCommandsAreRenderedLikeTheirToString() {
+		StartService start = new StartService(ED.getService("Installation"), patient);
+		EndService end = new EndService(ED.getService("Installation"), patient, new Nurse("Jane", "Smith", ED), new BoxRoom("Box 1", 1, ED));
+		history.record(start, 1.);
+		history.record(end, 6.);
+		assertTrue(history.size() == 2);
+		assertEquals(start.toString(), history.get(0).getName());
+		assertEquals(end.toString(), history.get(1).getName());
+		assertTrue(history.getTimestamp(1) == 6.);
+		assertTrue(history.getKind(1) == History.END);
+	}
+
+	@Test
+	public void testAddAndRemoveEvents() {
+		Event event = new Event("Arrival of " + patient, 0.);
+		history.record(new StartService(ED.getService("Triage"), patient), 1.);
+		history.add(0, event);
+		assertEquals(event, history.get(0));
+		assertTrue(history.get(1).getTimestamp() == 1.);
+		assertTrue(history.remove(event));
+		assertTrue(history.size() == 1);
+		assertTrue(history.getKind(0) == History.START);
+	}
+
+}
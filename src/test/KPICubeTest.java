@@ -0,0 +1,79 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.EventType;
+import resources.Patient;
+import utils.GoldInsurance;
+import utils.KPICube;
+import utils.NoInsurance;
+
+/*
+ * This is the JUnit test for KPICube
+ * @author Quentin
+ */
+public class KPICubeTest {
+	private EmergencyDepartment ED;
+	private KPICube cube;
+	
+	@Before
+	public void setUp() throws Exception {
+		ED = new EmergencyDepartment("Test ED");
+		cube = ED.getKPICube();
+		release(1, new GoldInsurance(), 0, 10, 30, EventType.BLOOD_TEST_PRESCRIBED);
+		release(1, new GoldInsurance(), 0, 20, 50, EventType.BLOOD_TEST_PRESCRIBED, EventType.MRI_PRESCRIBED);
+		release(3, new NoInsurance(), 10, 15, 40);
+		release(3, new GoldInsurance(), 0, 5, 20, EventType.BLOOD_TEST_PRESCRIBED);
+	}
+	
+	@After
+	public void tearDown() {
+		ED = null;
+		cube = null;
+	}
+	
+	private void release(int level, utils.HealthInsurance insurance, double arrival, double consultation, double release,
+			EventType... examinations) {
+		Patient patient = ED.getPatientFactory().create(ED.getSeverityLevel(level), ED);
+		patient.setHealthInsurance(insurance);
+		patient.setArrivalTime(arrival);
+		patient.addEvent(EventType.CONSULTATION_BEGINNING, consultation);
+		for (EventType examination : examinations) {
+			patient.addEvent(examination, consultation);
+		}
+		patient.addEvent(EventType.RELEASED, release);
+	}
+	
+	@Test
+	public void testWholeCube() {
+		assertEquals(4, cube.getStatistics("los", 0, null, -1).getCount());
+		assertEquals(32.5, cube.getStatistics("los", 0, null, -1).getMean(), 1e-12);
+		assertEquals(10., cube.getStatistics("dtdt", 0, null, -1).getMean(), 1e-12);
+	}
+	
+	@Test
+	public void testSlices() {
+		assertEquals(2, cube.getStatistics("los", 1, null, -1).getCount());
+		assertEquals(1, cube.getStatistics("los", 0, "No insurance", -1).getCount());
+		assertEquals(25., cube.getStatistics("los", 0, "Gold Insurance", KPICube.getPath("BloodTest")).getMean(), 1e-12);
+		assertEquals(50., cube.getStatistics("los", 1, "Gold Insurance", KPICube.getPath("BloodTest+MRI")).getMean(), 1e-12);
+		assertEquals(0, cube.getStatistics("los", 2, null, -1).getCount());
+	}
+	
+	@Test
+	public void testPathLabels() {
+		assertEquals("none", KPICube.getPathLabel(0));
+		assertEquals("BloodTest+MRI", KPICube.getPathLabel(KPICube.getPath("MRI+BloodTest")));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownKPI() {
+		cube.getStatistics("wait", 0, null, -1);
+	}
+
+}
@@ -0,0 +1,62 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utils.KPISeries;
+import utils.KPISeries.Metric;
+
+/*
+ * This is the JUnit test for KPISeries
+ * @author Quentin
+ */
+public class KPISeriesTest {
+	private KPISeries series;
+	
+	@Before
+	public void setUp() throws Exception {
+		series = new KPISeries(60, 4);
+		series.add(Metric.ARRIVALS, 10, 0);
+		series.add(Metric.ARRIVALS, 50, 0);
+		series.add(Metric.LOS, 70, 30);
+		series.add(Metric.LOS, 100, 50);
+		series.add(Metric.ARRIVALS, 130, 0);
+	}
+	
+	@After
+	public void tearDown() {
+		series = null;
+	}
+	
+	@Test
+	public void testTumblingWindows() {
+		assertEquals(2, series.getLastWindow());
+		assertEquals(2, series.getCount(Metric.ARRIVALS, 0, 1));
+		assertEquals(0, series.getCount(Metric.ARRIVALS, 1, 1));
+		assertEquals(40., series.getMean(Metric.LOS, 1, 1), 1e-12);
+		assertEquals(50., series.getMax(Metric.LOS, 1, 1), 0);
+		assertTrue(Double.isNaN(series.getMean(Metric.LOS, 2, 1)));
+	}
+	
+	@Test
+	public void testSlidingWindows() {
+		assertEquals(3, series.getCount(Metric.ARRIVALS, 2, 3));
+		assertEquals(1, series.getCount(Metric.ARRIVALS, 2, 2));
+		assertEquals(40., series.getValue(Metric.LOS, 2, 2), 1e-12);
+	}
+	
+	@Test
+	public void testOldWindowsOverwritten() {
+		series.update(300);
+		assertEquals(5, series.getLastWindow());
+		assertEquals(2, series.getFirstWindow());
+		assertEquals(1, series.getCount(Metric.ARRIVALS, 5, 10));
+		series.add(Metric.ARRIVALS, 10, 0);
+		assertEquals(1, series.getCount(Metric.ARRIVALS, 5, 10));
+		assertEquals(0, series.getCount(Metric.ARRIVALS, 5, 1));
+	}
+
+}
@@ -8,6 +8,7 @@ import org.junit.Test;
 
 import core.EmergencyDepartment;
 import core.Event;
+import core.HistoryFidelity;
 import resources.Patient;
 import utils.LengthOfStay;
 
@@ -76,4 +77,35 @@ public class LengthOfStayTest {
 		assertTrue(los.computeAverageKPI() == 17.4);
 	}
 
+	@Test
+	public void testOnlineKPIMatchesAverageKPI() throws Exception {
+		EmergencyDepartment simulatedED = TestEmergencyDepartments.create("Simulated ED", 42, HistoryFidelity.MILESTONES);
+		simulatedED.executeUntil(2000);
+		assertTrue(simulatedED.getKPI("los").getStatistics().getCount() > 0);
+		assertEquals(new LengthOfStay(simulatedED).computeAverageKPI(), simulatedED.computeKPI("los"), 1e-9);
+		assertEquals(simulatedED.getAllPatients().size(),
+				simulatedED.getKPI("los").getStatistics().getCount() + simulatedED.getKPI("los").getCensoredCount());
+	}
+
+	@Test
+	public void testPercentilesPerSeverityLevel() {
+		p1.setArrivalTime(0);
+		p1.addEvent(new Event("Released", 10));
+		p2.setArrivalTime(0);
+		p2.addEvent(new Event("Released", 20));
+		p3.setSeverityLevel(ED.getSeverityLevel(1));
+		p3.setArrivalTime(0);
+		p3.addEvent(new Event("Released", 100));
+		assertEquals(100., ED.computeKPI("los", "p99", 0), 1.);
+		assertEquals(20., ED.computeKPI("los", "p90", 3), 0.2);
+		assertEquals(100., ED.computeKPI("los", "p50", 1), 1.);
+		assertEquals(15., ED.computeKPI("los", "mean", 3), 1e-9);
+		assertTrue(Double.isNaN(ED.computeKPI("los", "p50", 2)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownStatistic() {
+		ED.computeKPI("los", "median", 0);
+	}
+
 }
@@ -0,0 +1,69 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utils.OnlineStatistics;
+
+/*
+ * This is the JUnit test for OnlineStatistics
+ * @author Quentin
+ */
+public class OnlineStatisticsTest {
+	private OnlineStatistics statistics;
+	
+	@Before
+	public void setUp() throws Exception {
+		statistics = new OnlineStatistics();
+		for (double value : new double[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+			statistics.add(value);
+		}
+	}
+	
+	@After
+	public void tearDown() {
+		statistics = null;
+	}
+	
+	@Test
+	public void testMeanAndVariance() {
+		assertEquals(8, statistics.getCount());
+		assertEquals(5., statistics.getMean(), 1e-12);
+		assertEquals(32. / 7, statistics.getVariance(), 1e-12);
+	}
+	
+	@Test
+	public void testEmpty() {
+		statistics.clear();
+		assertEquals(0., statistics.getMean(), 0);
+		assertEquals(0., statistics.getVariance(), 0);
+	}
+	
+	@Test
+	public void testMerge() {
+		OnlineStatistics first = new OnlineStatistics();
+		OnlineStatistics second = new OnlineStatistics();
+		double[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+		for (int i = 0; i < values.length; i++) {
+			(i < 3 ? first : second).add(values[i]);
+		}
+		first.merge(second);
+		assertEquals(statistics.getCount(), first.getCount());
+		assertEquals(statistics.getMean(), first.getMean(), 1e-12);
+		assertEquals(statistics.getVariance(), first.getVariance(), 1e-12);
+	}
+	
+	@Test
+	public void testConfidenceHalfWidth() {
+		assertEquals(2.365 * Math.sqrt(32. / 7) / Math.sqrt(8), statistics.getConfidenceHalfWidth(), 1e-12);
+		assertEquals(1.984, OnlineStatistics.getStudentQuantile(100), 1e-3);
+		assertEquals(2.000, OnlineStatistics.getStudentQuantile(60), 1e-3);
+		OnlineStatistics single = new OnlineStatistics();
+		single.add(1);
+		assertTrue(Double.isInfinite(single.getConfidenceHalfWidth()));
+	}
+
+}
@@ -0,0 +1,171 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import main.CLUI;
+import main.ParameterSweep;
+
+/*
+ * This is the JUnit test for ParameterSweep
+ * @author Thomas
+ */
+public class ParameterSweepTest {
+	private File scenario;
+	private File results;
+	private ParameterSweep sweep;
+
+	@Before
+	public void setUp() throws Exception {
+		System.out.println("=== Initialisation ===");
+		scenario = File.createTempFile("scenario", ".txt");
+		results = File.createTempFile("sweep", ".csv");
+		results.delete();
+		TestEmergencyDepartments.writeScenario(scenario, TestEmergencyDepartments.getScenario("Sweep Hospital", 1, 1, 1),
+				"simulate \"Sweep Hospital\" 100");
+		sweep = new ParameterSweep(CLUI.readScenarioFile(scenario.getPath()), 2, 500., 42);
+		sweep.addParameter("nurses", "1..2");
+		sweep.addParameter("BoxRoom", "1,3");
+		sweep.addParameter("Triage", "uniform:2:5,deterministic:4");
+		System.out.println("=== End of initialisation ===");
+	}
+
+	@After
+	public void tearDown() {
+		scenario.delete();
+		results.delete();
+		sweep = null;
+	}
+
+	@Test
+	public void testConfigurations() {
+		assertEquals(8, sweep.getConfigurationsCount());
+		assertArrayEquals(new String[] {"1", "1", "uniform:2:5"}, sweep.getConfiguration(0));
+		assertArrayEquals(new String[] {"2", "3", "deterministic:4"}, sweep.getConfiguration(7));
+		ArrayList<String[]> commands = sweep.getCommands(sweep.getConfiguration(7));
+		int nurses = 0;
+		int boxRooms = 0;
+		for (String[] command : commands) {
+			assertFalse(command[0].equals("simulate"));
+			if (command[0].equals("addNurse")) {
+				nurses++;
+			}
+			if (command[0].equals("addRoom") && command[2].equals("BoxRoom")) {
+				boxRooms++;
+				assertEquals("2", command[4]);
+			}
+		}
+		assertEquals(2, nurses);
+		assertEquals(3, boxRooms);
+		assertArrayEquals(new String[] {"setDuration", "Sweep Hospital", "Triage", "deterministic", "4"}, commands.get(commands.size() - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownParameter() {
+		sweep.addParameter("cooks", "1..2");
+	}
+
+	@Test
+	public void testRunAndResume() throws Exception {
+		assertEquals(8, sweep.run(results.getPath(), 4));
+		ArrayList<String> rows = readRows();
+		assertEquals(9, rows.size());
+		assertEquals(sweep.getHeader(), rows.get(0));
+		PrintWriter writer = new PrintWriter(new FileWriter(results));
+		for (int i = 0; i < 6; i++) {
+			writer.println(rows.get(i));
+		}
+		writer.print(rows.get(6).substring(0, 10));
+		writer.close();
+		assertEquals(3, sweep.run(results.getPath(), 2));
+		ArrayList<String> resumedRows = readRows();
+		assertEquals(9, resumedRows.size());
+		assertTrue(resumedRows.containsAll(rows));
+		assertEquals(0, sweep.run(results.getPath(), 2));
+		assertFalse(new File(results.getPath() + ".tmp").exists());
+	}
+
+	@Test
+	public void testResumeAfterCutInLastField() throws Exception {
+		assertEquals(8, sweep.run(results.getPath(), 4));
+		ArrayList<String> rows = readRows();
+		PrintWriter writer = new PrintWriter(new FileWriter(results));
+		for (int i = 0; i < 8; i++) {
+			writer.println(rows.get(i));
+		}
+		writer.print(rows.get(8).substring(0, rows.get(8).length() - 2));
+		writer.close();
+		assertEquals(1, sweep.run(results.getPath(), 2));
+		ArrayList<String> resumedRows = readRows();
+		assertEquals(9, resumedRows.size());
+		assertTrue(resumedRows.containsAll(rows));
+	}
+
+	@Test
+	public void testResumeWithOtherValues() throws Exception {
+		assertEquals(8, sweep.run(results.getPath(), 4));
+		ArrayList<String> rows = readRows();
+		ParameterSweep otherSweep = new ParameterSweep(CLUI.readScenarioFile(scenario.getPath()), 2, 500., 42);
+		otherSweep.addParameter("nurses", "2..3");
+		otherSweep.addParameter("BoxRoom", "1,2,3");
+		otherSweep.addParameter("Triage", "uniform:2:5,deterministic:4");
+		assertEquals(12, otherSweep.getConfigurationsCount());
+		assertEquals(8, otherSweep.run(results.getPath(), 4));
+		ArrayList<String> resumedRows = readRows();
+		assertEquals(13, resumedRows.size());
+		boolean[] written = new boolean[12];
+		for (String line : resumedRows.subList(1, resumedRows.size())) {
+			String[] row = line.split(",", -1);
+			int index = Integer.parseInt(row[0]);
+			assertFalse(written[index]);
+			written[index] = true;
+			assertArrayEquals(otherSweep.getConfiguration(index), Arrays.copyOfRange(row, 2, 5));
+		}
+		ArrayList<String> resumedResults = new ArrayList<String>();
+		for (String line : resumedRows) {
+			resumedResults.add(line.substring(line.indexOf(',')));
+		}
+		for (String line : rows.subList(1, rows.size())) {
+			String result = line.substring(line.indexOf(','));
+			assertEquals(result.startsWith(",Sweep Hospital,2,"), resumedResults.contains(result));
+		}
+		assertEquals(0, otherSweep.run(results.getPath(), 2));
+	}
+
+	@Test
+	public void testNoPatientReleased() throws Exception {
+		ParameterSweep shortSweep = new ParameterSweep(CLUI.readScenarioFile(scenario.getPath()), 2, 0.001, 42);
+		shortSweep.addParameter("nurses", "1");
+		assertEquals(1, shortSweep.run(results.getPath(), 1));
+		ArrayList<String> rows = readRows();
+		List<String> columns = Arrays.asList(rows.get(0).split(","));
+		String[] row = rows.get(1).split(",", -1);
+		assertEquals("", row[columns.indexOf("los_mean")]);
+		assertEquals("", row[columns.indexOf("los_sd")]);
+		assertEquals("", row[columns.indexOf("los_p90")]);
+	}
+
+	private ArrayList<String> readRows() throws Exception {
+		ArrayList<String> rows = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new FileReader(results));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			rows.add(line);
+		}
+		reader.close();
+		return rows;
+	}
+
+}
@@ -0,0 +1,47 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import processing.PatientArrival;
+import resources.Patient;
+import resources.WaitingRoom;
+
+public class PatientArrivalTest {
+
+	private EmergencyDepartment ED;
+	private PatientArrival patientArrival;
+
+	@Before
+	public void setUp() throws Exception {
+		ED = new EmergencyDepartment("Test ED");
+		ED.addRoom(new WaitingRoom("Waiting Room", 10, ED));
+		patientArrival = new PatientArrival(ED.getSeverityLevel(2), ED);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		patientArrival = null;
+	}
+
+	@Test
+	public void testGetPatient() {
+		Patient patient = patientArrival.getPatient();
+		assertNotNull(patient);
+		assertEquals(ED.getSeverityLevel(2), patient.getSeverityLevel());
+		assertEquals(patient, patientArrival.getPatient());
+	}
+
+	@Test
+	public void testExecute() {
+		patientArrival.execute();
+		assertEquals(1, ED.getPatients().size());
+		assertEquals(patientArrival.getPatient(), ED.getPatients().get(0));
+	}
+
+}
@@ -7,6 +7,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import core.EmergencyDepartment;
+import core.Event;
+import core.EventType;
+import core.HistoryFidelity;
+import core.Milestone;
 import core.PatientFactory;
 import resources.Patient;
 
@@ -42,5 +46,43 @@ public class PatientTest {
 	public void notEqualsTest() {
 		assertFalse(patient1.equals(patient2));
 	}
+	
+	@Test
+	public void eventTypeFromNameTest() {
+		assertEquals(EventType.CONSULTATION_BEGINNING, new Event("Consultation beginning", 1).getType());
+		assertEquals(EventType.OTHER, new Event("Lunch", 1).getType());
+		assertEquals("XRay", EventType.XRAY_PRESCRIBED.getExamination());
+		assertEquals("Released", new Event(EventType.RELEASED, 1).getName());
+	}
+	
+	@Test
+	public void milestonesTest() {
+		assertTrue(Double.isNaN(patient1.getMilestone(Milestone.FIRST_CONSULTATION)));
+		patient1.addEvent(EventType.CONSULTATION_BEGINNING, 10);
+		patient1.addEvent(new Event("BloodTest prescribed", 20));
+		patient1.addEvent(EventType.CONSULTATION_BEGINNING, 30);
+		patient1.addEvent(EventType.MRI_PRESCRIBED, 40);
+		assertTrue(patient1.getMilestone(Milestone.FIRST_CONSULTATION) == 10);
+		assertTrue(patient1.getMilestone(Milestone.EXAM_PRESCRIBED) == 40);
+		assertEquals(EventType.MRI_PRESCRIBED, patient1.getPrescribedExamination());
+		assertEquals(4, patient1.getHistory().size());
+	}
+	
+	@Test
+	public void milestonesFidelityTest() {
+		emergencyDepartment.setHistoryFidelity(HistoryFidelity.MILESTONES);
+		patient1.addEvent(EventType.CONSULTATION_BEGINNING, 10);
+		assertTrue(patient1.getMilestone(Milestone.FIRST_CONSULTATION) == 10);
+		assertTrue(patient1.getHistory().isEmpty());
+	}
+	
+	@Test
+	public void noHistoryFidelityTest() {
+		emergencyDepartment.setHistoryFidelity(HistoryFidelity.NONE);
+		patient1.addEvent(EventType.XRAY_PRESCRIBED, 10);
+		assertTrue(patient1.getMilestone(Milestone.EXAM_PRESCRIBED) == 10);
+		assertEquals(EventType.XRAY_PRESCRIBED, patient1.getPrescribedExamination());
+		assertTrue(patient1.getHistory().isEmpty());
+	}
 
 }
@@ -0,0 +1,79 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utils.QuantileSketch;
+
+/*
+ * This is the JUnit test for QuantileSketch
+ * @author Quentin
+ */
+public class QuantileSketchTest {
+	private QuantileSketch sketch;
+	
+	@Before
+	public void setUp() throws Exception {
+		sketch = new QuantileSketch(0.01);
+		for (int i = 1; i <= 10000; i++) {
+			sketch.add(i / 10.);
+		}
+	}
+	
+	@After
+	public void tearDown() {
+		sketch = null;
+	}
+	
+	@Test
+	public void testQuantilesWithinAccuracy() {
+		assertEquals(10000, sketch.getCount());
+		assertEquals(500., sketch.getQuantile(0.5), 500. * 0.01);
+		assertEquals(900., sketch.getQuantile(0.9), 900. * 0.01);
+		assertEquals(990., sketch.getQuantile(0.99), 990. * 0.01);
+		assertTrue(sketch.getQuantile(0) == 0.1);
+		assertTrue(sketch.getQuantile(1) == 1000.);
+	}
+	
+	@Test
+	public void testBoundedMemory() {
+		int buckets = sketch.getBucketsCount();
+		for (int i = 0; i < 100000; i++) {
+			sketch.add(1 + Math.random() * 999);
+		}
+		assertEquals(buckets, sketch.getBucketsCount());
+	}
+	
+	@Test
+	public void testZerosAndEmpty() {
+		QuantileSketch zeros = new QuantileSketch();
+		assertTrue(Double.isNaN(zeros.getQuantile(0.5)));
+		zeros.add(0);
+		zeros.add(0);
+		zeros.add(5);
+		assertTrue(zeros.getQuantile(0.5) == 0);
+		assertEquals(5., zeros.getQuantile(1), 0);
+	}
+	
+	@Test
+	public void testMerge() {
+		QuantileSketch low = new QuantileSketch(0.01);
+		QuantileSketch high = new QuantileSketch(0.01);
+		for (int i = 1; i <= 10000; i++) {
+			(i <= 5000 ? low : high).add(i / 10.);
+		}
+		high.merge(low);
+		assertEquals(sketch.getCount(), high.getCount());
+		assertTrue(sketch.getQuantile(0.1) == high.getQuantile(0.1));
+		assertTrue(sketch.getQuantile(0.9) == high.getQuantile(0.9));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeDifferentAccuracies() {
+		sketch.merge(new QuantileSketch(0.05));
+	}
+
+}
@@ -0,0 +1,116 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.NurseFactory;
+import resources.Patient;
+import utils.DeterministicDistribution;
+import utils.NoInsurance;
+import utils.SeverityLevel_L1;
+import utils.SeverityLevel_L2;
+import utils.SeverityLevel_L4;
+import workflow.AgingDiscipline;
+import workflow.FifoDiscipline;
+import workflow.PriorityDiscipline;
+import workflow.SeverityDiscipline;
+import workflow.Triage;
+
+public class QueueDisciplineTest {
+
+	private EmergencyDepartment ED;
+	private Triage triage;
+	private Patient lightPatient;
+	private Patient patientL2;
+	private Patient patientL1;
+
+	@Before
+	public void setUp() throws Exception {
+		ED = new EmergencyDepartment("Test Hospital");
+		triage = new Triage(new DeterministicDistribution(5), 3., ED);
+		ED.addStaff(1, new NurseFactory());
+		lightPatient = new Patient("John", "Doe", new NoInsurance(), new SeverityLevel_L4(new DeterministicDistribution(2)), ED);
+		patientL2 = new Patient("Henri", "Golo", new NoInsurance(), new SeverityLevel_L2(new DeterministicDistribution(2)), ED);
+		patientL1 = new Patient("Paul", "Golo", new NoInsurance(), new SeverityLevel_L1(new DeterministicDistribution(2)), ED);
+		triage.getWaitingQueue().add(lightPatient, 0.);
+		triage.getWaitingQueue().add(patientL2, 10.);
+		triage.getWaitingQueue().add(patientL1, 20.);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		triage = null;
+		lightPatient = null;
+		patientL2 = null;
+		patientL1 = null;
+	}
+
+	@Test
+	public void testSeverityDiscipline() {
+		assertEquals(patientL2, new SeverityDiscipline().getNextPatient(triage.getWaitingQueue(), triage));
+	}
+
+	@Test
+	public void testPriorityDiscipline() {
+		assertEquals(patientL1, new PriorityDiscipline().getNextPatient(triage.getWaitingQueue(), triage));
+	}
+
+	@Test
+	public void testFifoDiscipline() {
+		assertEquals(lightPatient, new FifoDiscipline().getNextPatient(triage.getWaitingQueue(), triage));
+	}
+
+	@Test
+	public void testAgingDiscipline() {
+		// keys: L4 at 0 -> 4, L2 at 10 -> 2 + 1 = 3, L1 at 20 -> 1 + 2 = 3
+		assertEquals(patientL2, new AgingDiscipline(0.1).getNextPatient(triage.getWaitingQueue(), triage));
+		assertEquals(lightPatient, new AgingDiscipline(1).getNextPatient(triage.getWaitingQueue(), triage));
+		assertEquals(patientL1, new AgingDiscipline(0).getNextPatient(triage.getWaitingQueue(), triage));
+	}
+
+	@Test
+	public void testServiceUsesItsDiscipline() {
+		triage.setQueueDiscipline(new FifoDiscipline());
+		assertEquals(lightPatient, triage.getNextPatient());
+	}
+
+	@Test
+	public void testSeverityDisciplineTwoCandidates() {
+		Triage busyTriage = new Triage(new DeterministicDistribution(5), 3., ED) {
+			@Override
+			public boolean canTreatPatient(Patient patient) {
+				return patient != patientL2;
+			}
+		};
+		busyTriage.getWaitingQueue().add(lightPatient, 0.);
+		busyTriage.getWaitingQueue().add(patientL2, 10.);
+		busyTriage.getWaitingQueue().add(patientL1, 20.);
+		// the first severe patient can't be treated: the first light patient is, not the next severe one
+		assertEquals(lightPatient, new SeverityDiscipline().getNextPatient(busyTriage.getWaitingQueue(), busyTriage));
+		busyTriage.getWaitingQueue().remove(lightPatient);
+		assertNull(new SeverityDiscipline().getNextPatient(busyTriage.getWaitingQueue(), busyTriage));
+	}
+
+	@Test
+	public void testDisciplineConsidersFirstPatientOfEachLevel() {
+		Patient otherPatientL1 = new Patient("Anna", "Golo", new NoInsurance(), new SeverityLevel_L1(new DeterministicDistribution(2)), ED);
+		Triage busyTriage = new Triage(new DeterministicDistribution(5), 3., ED) {
+			@Override
+			public boolean canTreatPatient(Patient patient) {
+				return patient != patientL1;
+			}
+		};
+		busyTriage.getWaitingQueue().add(lightPatient, 0.);
+		busyTriage.getWaitingQueue().add(patientL2, 10.);
+		busyTriage.getWaitingQueue().add(patientL1, 20.);
+		busyTriage.getWaitingQueue().add(otherPatientL1, 30.);
+		// the first L1 patient can't be treated and holds back the other one: the first L2 patient is next
+		assertEquals(patientL2, new PriorityDiscipline().getNextPatient(busyTriage.getWaitingQueue(), busyTriage));
+	}
+
+}
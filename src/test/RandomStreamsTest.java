@@ -0,0 +1,68 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import utils.ExponentialDistribution;
+import utils.RandomStreams;
+
+/*
+ * This is the JUnit test for RandomStreams
+ * @author Thomas
+ */
+public class RandomStreamsTest {
+	private RandomStreams randomStreams;
+
+	@Before
+	public void setUp() throws Exception {
+		System.out.println("=== Initialisation ===");
+		randomStreams = new RandomStreams(42);
+		System.out.println("=== End of initialisation ===");
+	}
+
+	@After
+	public void tearDown() {
+		randomStreams = null;
+	}
+
+	@Test
+	public void testSameStreamForSameName() {
+		assertTrue(randomStreams.getStream("Triage duration") == randomStreams.getStream("Triage duration"));
+		assertFalse(randomStreams.getStream("Triage duration") == randomStreams.getStream("MRI duration"));
+	}
+
+	@Test
+	public void testStreamsDontDependOnCreationOrder() {
+		RandomStreams otherStreams = new RandomStreams(42);
+		double first = randomStreams.getStream("L1 arrivals").nextDouble();
+		otherStreams.getStream("MRI duration").nextDouble();
+		assertEquals(first, otherStreams.getStream("L1 arrivals").nextDouble(), 0.);
+		assertFalse(first == new RandomStreams(43).getStream("L1 arrivals").nextDouble());
+	}
+
+	@Test
+	public void testDeriveSeed() {
+		assertEquals(RandomStreams.deriveSeed(42, 0), RandomStreams.deriveSeed(42, 0));
+		assertFalse(RandomStreams.deriveSeed(42, 0) == RandomStreams.deriveSeed(42, 1));
+		assertFalse(RandomStreams.deriveSeed(42, 0) == RandomStreams.deriveSeed(43, 0));
+	}
+
+	@Test
+	public void testSampleFromStream() {
+		ExponentialDistribution distribution = new ExponentialDistribution(0.5);
+		SplittableRandom stream = randomStreams.getStream("L1 arrivals");
+		int nSample = 100000;
+		double sumSample = 0;
+		for (int i = 0; i < nSample; i++) {
+			sumSample += distribution.generateSample(stream);
+		}
+		double average = sumSample / nSample;
+		assertTrue(0.95 * 2 < average && 1.05 * 2 > average);
+	}
+
+}
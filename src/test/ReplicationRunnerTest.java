@@ -0,0 +1,77 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.HistoryFidelity;
+import core.ReplicationRunner;
+import core.ReplicationSummary;
+import utils.OnlineStatistics;
+import utils.RandomStreams;
+
+/*
+ * This is the JUnit test for ReplicationRunner
+ * @author Thomas
+ */
+public class ReplicationRunnerTest {
+	private static final int REPLICATIONS = 6;
+	private static final double HORIZON = 1500.;
+
+	private ArrayList<EmergencyDepartment> replications;
+
+	@Before
+	public void setUp() throws Exception {
+		System.out.println("=== Initialisation ===");
+		replications = createReplications(42);
+		System.out.println("=== End of initialisation ===");
+	}
+
+	@After
+	public void tearDown() {
+		replications = null;
+	}
+
+	@Test
+	public void testSummary() throws Exception {
+		ReplicationSummary summary = new ReplicationRunner(3).run(replications, HORIZON);
+		assertEquals(REPLICATIONS, summary.getReplications());
+		OnlineStatistics means = summary.getMeans("los");
+		assertEquals(REPLICATIONS, means.getCount());
+		OnlineStatistics expected = new OnlineStatistics();
+		long patients = 0;
+		for (EmergencyDepartment ED : replications) {
+			assertTrue(ED.getTime() == HORIZON);
+			expected.add(ED.getKPI("los").getMean());
+			patients += ED.getKPI("los").getStatistics().getCount();
+		}
+		assertEquals(expected.getMean(), means.getMean(), 1e-9);
+		assertEquals(expected.getStandardDeviation(), means.getStandardDeviation(), 1e-9);
+		assertEquals(patients, summary.getPooledStatistics("los").getCount());
+		assertEquals(patients, summary.getPooledSketch("los").getCount());
+		assertTrue(means.getConfidenceHalfWidth() > 0);
+	}
+
+	@Test
+	public void testParallelRunsLikeSequentialRun() throws Exception {
+		ReplicationSummary parallel = new ReplicationRunner(4).run(replications, HORIZON);
+		ReplicationSummary sequential = new ReplicationRunner(1).run(createReplications(42), HORIZON);
+		assertEquals(sequential.getEvents(), parallel.getEvents());
+		assertEquals(sequential.getMeans("los").getMean(), parallel.getMeans("los").getMean(), 0.);
+		assertEquals(sequential.getMeans("dtdt").getVariance(), parallel.getMeans("dtdt").getVariance(), 0.);
+	}
+
+	private ArrayList<EmergencyDepartment> createReplications(long seed) {
+		ArrayList<EmergencyDepartment> EDs = new ArrayList<EmergencyDepartment>();
+		for (int i = 0; i < REPLICATIONS; i++) {
+			EDs.add(TestEmergencyDepartments.create("Replication " + i, RandomStreams.deriveSeed(seed, i), HistoryFidelity.NONE));
+		}
+		return EDs;
+	}
+
+}
@@ -0,0 +1,79 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.RoomRegistry;
+import resources.BoxRoom;
+import resources.Patient;
+import resources.Room;
+import resources.WaitingRoom;
+import utils.NoInsurance;
+
+public class RoomRegistryTest {
+
+	private EmergencyDepartment ED;
+	private RoomRegistry roomRegistry;
+	private BoxRoom boxRoom;
+	private WaitingRoom waitingRoom;
+	private Patient patient;
+
+	@Before
+	public void setUp() throws Exception {
+		ED = new EmergencyDepartment("Test ED");
+		roomRegistry = ED.getRoomRegistry();
+		boxRoom = new BoxRoom("Box Room", 1, ED);
+		waitingRoom = new WaitingRoom("Waiting Room", 1, ED);
+		ED.addRooms(new Room[] {boxRoom, waitingRoom});
+		patient = new Patient("John", "Doe", new NoInsurance(), ED.getSeverityLevel(3), ED);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		roomRegistry = null;
+		boxRoom = null;
+		waitingRoom = null;
+		patient = null;
+	}
+
+	@Test
+	public void testGetAvailableRoom() {
+		assertEquals(boxRoom, roomRegistry.getAvailableRoom(BoxRoom.class));
+		assertEquals(boxRoom, roomRegistry.getAvailableRoom("BoxRoom"));
+		assertNull(roomRegistry.getAvailableRoom("ShockRoom"));
+	}
+
+	@Test
+	public void testGetAvailableRoomBySuperclass() {
+		boxRoom.addPatient(patient);
+		assertEquals(waitingRoom, roomRegistry.getAvailableRoom(Room.class));
+	}
+
+	@Test
+	public void testAcquireAndReleaseRoom() {
+		Room room = roomRegistry.acquireRoom(BoxRoom.class, patient);
+		assertEquals(boxRoom, room);
+		assertNull(roomRegistry.getAvailableRoom(BoxRoom.class));
+		roomRegistry.releaseRoom(room, patient);
+		assertEquals(boxRoom, roomRegistry.getAvailableRoom(BoxRoom.class));
+	}
+
+	@Test
+	public void testCorridorFallback() {
+		waitingRoom.addPatient(patient);
+		Room room = ED.getAvailableRoom("WaitingRoom");
+		assertEquals("Corridor", room.getName());
+	}
+
+	@Test
+	public void testUnregister() {
+		ED.removeRoom(boxRoom);
+		assertNull(roomRegistry.getAvailableRoom(BoxRoom.class));
+	}
+
+}
@@ -0,0 +1,100 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.HistoryFidelity;
+import main.CLUI;
+import main.ScenarioBuilder;
+import resources.BoxRoom;
+
+/*
+ * This is the JUnit test for ScenarioBuilder
+ * @author Thomas
+ */
+public class ScenarioBuilderTest {
+
+	private ScenarioBuilder builder;
+
+	@Before
+	public void setUp() throws Exception {
+		System.out.println("=== Initialisation ===");
+		builder = new ScenarioBuilder();
+		builder.execute(new String[] {"createED", "Hospital"});
+		System.out.println("=== End of initialisation ===");
+	}
+
+	@After
+	public void tearDown() {
+		builder = null;
+	}
+
+	@Test
+	public void testExecute() {
+		builder.execute(new String[] {"addRoom", "Hospital", "BoxRoom", "Box", "3"});
+		builder.execute(new String[] {"addNurse", "Hospital"});
+		builder.execute(new String[] {"setDuration", "Hospital", "Triage", "uniform", "2", "5"});
+		EmergencyDepartment ED = builder.getEmergencyDepartments().get("Hospital");
+		assertEquals(1, ED.getRooms().size());
+		assertTrue(ED.getRooms().get(0) instanceof BoxRoom);
+		assertEquals(1, ED.getStaff().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownRoomType() {
+		builder.execute(new String[] {"addRoom", "Hospital", "BoxRom", "Box", "3"});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownEmergencyDepartment() {
+		builder.execute(new String[] {"addNurse", "Clinic"});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownService() {
+		builder.execute(new String[] {"setDuration", "Hospital", "Foo", "uniform", "2", "5"});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotConfigurationCommand() {
+		builder.execute(new String[] {"simulate", "Hospital", "100"});
+	}
+
+	@Test
+	public void testBuildReplications() {
+		ArrayList<String[]> commands = new ArrayList<String[]>();
+		commands.add(new String[] {"createED", "Hospital"});
+		commands.add(new String[] {"addRoom", "Hospital", "BoxRoom", "Box", "3"});
+		LinkedHashMap<String, ArrayList<EmergencyDepartment>> replications = CLUI.buildReplications(commands, 3, 42);
+		assertEquals(1, replications.size());
+		ArrayList<EmergencyDepartment> copies = replications.get("Hospital");
+		assertEquals(3, copies.size());
+		for (EmergencyDepartment ED : copies) {
+			assertEquals("Hospital", ED.getName());
+			assertEquals(HistoryFidelity.NONE, ED.getHistoryFidelity());
+			assertEquals(1, ED.getRooms().size());
+		}
+		assertNotEquals(copies.get(0).getSeed(), copies.get(1).getSeed());
+	}
+
+	@Test
+	public void testBuildReplicationsFailingCommand() {
+		ArrayList<String[]> commands = new ArrayList<String[]>();
+		commands.add(new String[] {"createED", "Hospital"});
+		commands.add(new String[] {"addRoom", "Hospital", "BoxRom", "Box", "3"});
+		try {
+			CLUI.buildReplications(commands, 2, 42);
+			fail("The failing command should be reported");
+		} catch(IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("addRoom Hospital BoxRom Box 3"));
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.SimulationClock;
+import processing.TaskHeap;
+
+public class SimulationClockTest {
+
+	private SimulationClock clock;
+
+	@Before
+	public void setUp() throws Exception {
+		clock = new SimulationClock(SimulationClock.MICROSECONDS);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		clock = null;
+	}
+
+	@Test
+	public void testAddIsExactOnLongRuns() {
+		double time = 0;
+		for (int i = 0; i < 1000000; i++) {
+			time = clock.add(time, 0.1);
+		}
+		assertTrue(clock.toTicks(time) == 100000L * SimulationClock.MICROSECONDS);
+	}
+
+	@Test
+	public void testRound() {
+		assertTrue(new SimulationClock(SimulationClock.SECONDS).round(1.005) == 1.);
+	}
+
+	@Test
+	public void testEmergencyDepartmentWithTickClock() {
+		EmergencyDepartment ED = new EmergencyDepartment("Test Hospital");
+		SimulationClock seconds = new SimulationClock(SimulationClock.SECONDS);
+		ED.setClock(seconds);
+		assertTrue(ED.getService("Triage").getTasksQueue().getQueue() instanceof TaskHeap);
+		for (int i = 0; i < 100; i++) {
+			ED.executeNextTask();
+			assertTrue(seconds.round(ED.getTime()) == ED.getTime());
+		}
+		ED.setClock(null);
+		assertTrue(ED.getService("Triage").getTasksQueue().getQueue() instanceof TaskHeap);
+	}
+
+}
@@ -0,0 +1,80 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.StaffRegistry;
+import resources.Human;
+import resources.HumanState;
+import resources.Nurse;
+import resources.Physician;
+
+public class StaffRegistryTest {
+
+	private EmergencyDepartment ED;
+	private StaffRegistry staffRegistry;
+	private Nurse nurse1;
+	private Nurse nurse2;
+	private Physician physician;
+
+	@Before
+	public void setUp() throws Exception {
+		ED = new EmergencyDepartment("Test ED");
+		staffRegistry = ED.getStaffRegistry();
+		nurse1 = new Nurse("Mary", "Smith", ED);
+		nurse2 = new Nurse("Lisa", "Jones", ED);
+		physician = new Physician("John", "Brown", ED);
+		ED.addEmployee(nurse1);
+		ED.addEmployee(nurse2);
+		ED.addEmployee(physician);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		staffRegistry = null;
+		nurse1 = null;
+		nurse2 = null;
+		physician = null;
+	}
+
+	@Test
+	public void testGetIdleStaff() {
+		assertEquals(nurse1, staffRegistry.getIdleStaff(Nurse.class));
+		assertEquals(physician, staffRegistry.getIdleStaff(Physician.class));
+		assertEquals(3, staffRegistry.countIdleStaff(Human.class));
+	}
+
+	@Test
+	public void testStateChangeUpdatesIdlePool() {
+		nurse1.setState(HumanState.OCCUPIED);
+		assertEquals(nurse2, ED.getIdleNurse());
+		nurse2.setState(HumanState.OCCUPIED);
+		assertNull(ED.getIdleNurse());
+		nurse1.setState(HumanState.IDLE);
+		assertEquals(nurse1, ED.getIdleNurse());
+	}
+
+	@Test
+	public void testRemoveEmployee() {
+		ED.removeEmployee(physician);
+		assertNull(ED.getIdlePhysician());
+	}
+
+	@Test
+	public void testStateLabel() {
+		nurse1.setState("occupied");
+		assertEquals(HumanState.OCCUPIED, nurse1.getHumanState());
+		assertEquals("occupied", nurse1.getState());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownStateLabel() {
+		nurse1.setState("sleeping");
+	}
+
+}
@@ -0,0 +1,112 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import main.CLUI;
+import main.StaffingOptimizer;
+import main.StaffingOptimizer.Evaluation;
+
+/*
+ * This is the JUnit test for StaffingOptimizer
+ * @author Thomas
+ */
+public class StaffingOptimizerTest {
+	private File scenario;
+	private StaffingOptimizer optimizer;
+
+	@Before
+	public void setUp() throws Exception {
+		System.out.println("=== Initialisation ===");
+		scenario = File.createTempFile("scenario", ".txt");
+		TestEmergencyDepartments.writeScenario(scenario, TestEmergencyDepartments.getScenario("Optimized Hospital", 0, 0, 1));
+		optimizer = new StaffingOptimizer(CLUI.readScenarioFile(scenario.getPath()), 3, 1000., 42);
+		optimizer.addResource("nurses", 1, 4, 1.);
+		optimizer.addResource("physicians", 1, 4, 3.);
+		optimizer.addResource("BoxRoom", 1, 4, 1.);
+		optimizer.setParallelism(2);
+		System.out.println("=== End of initialisation ===");
+	}
+
+	@After
+	public void tearDown() {
+		scenario.delete();
+		optimizer = null;
+	}
+
+	@Test
+	public void testOptimize() throws Exception {
+		optimizer.setTarget("dtdt", "mean", 1, 5, 60.);
+		optimizer.setBudget(16);
+		StaffingOptimizer.Evaluation best = optimizer.optimize();
+		assertNotNull(best);
+		assertTrue(best.isFeasible());
+		assertTrue(best.getValue() <= 60.);
+		assertEquals(3, best.getValues().getCount());
+		assertTrue(best.getCost() < 4 * 1. + 4 * 3. + 4 * 1.);
+		assertTrue(optimizer.getEvaluationsCount() <= 16);
+		assertTrue(best == optimizer.getPath().get(optimizer.getPath().size() - 1));
+	}
+
+	@Test
+	public void testBudgetSpent() throws Exception {
+		optimizer.setTarget("dtdt", "p90", 1, 2, 0.);
+		optimizer.setBudget(3);
+		assertNull(optimizer.optimize());
+		assertEquals(3, optimizer.getEvaluationsCount());
+	}
+
+	@Test
+	public void testClimbOnlyImprovingSteps() throws Exception {
+		optimizer.setTarget("dtdt", "mean", 1, 5, 20.);
+		optimizer.setBudget(30);
+		optimizer.optimize();
+		Evaluation previous = null;
+		for (Evaluation step : optimizer.getPath()) {
+			assertFalse(step.isDropped());
+			if (previous != null && !previous.isFeasible()) {
+				assertTrue(step.isFeasible() || step.getValue() < previous.getValue());
+			}
+			previous = step;
+		}
+	}
+
+	@Test
+	public void testNoPatientOfTheLevels() throws Exception {
+		StaffingOptimizer shortOptimizer = new StaffingOptimizer(CLUI.readScenarioFile(scenario.getPath()), 3, 0.001, 42);
+		shortOptimizer.addResource("nurses", 1, 4, 1.);
+		shortOptimizer.setTarget("dtdt", "mean", 1, 1, 60.);
+		shortOptimizer.setBudget(4);
+		assertNull(shortOptimizer.optimize());
+		Evaluation start = shortOptimizer.getPath().get(0);
+		assertEquals(0, start.getValues().getCount());
+		assertTrue(Double.isNaN(start.getValue()));
+		assertFalse(start.isFeasible());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLevelsOutOfRange() {
+		optimizer.setTarget("dtdt", "mean", 1, 6, 30.);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSeveralEmergencyDepartments() throws Exception {
+		PrintWriter writer = new PrintWriter(new FileWriter(scenario, true));
+		writer.println("createED \"Other Hospital\"");
+		writer.close();
+		new StaffingOptimizer(CLUI.readScenarioFile(scenario.getPath()), 3, 1000., 42);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownStatistic() {
+		optimizer.setTarget("dtdt", "median", 1, 2, 30.);
+	}
+
+}
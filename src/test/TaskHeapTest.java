@@ -0,0 +1,79 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import processing.Task;
+import processing.TaskHeap;
+
+public class TaskHeapTest {
+
+	private TaskHeap heap;
+
+	@Before
+	public void setUp() throws Exception {
+		heap = new TaskHeap(2);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		heap = null;
+	}
+
+	@Test
+	public void testPollInOrderOfTimestamp() {
+		double[] timestamps = {5., 3., 8., 1., 9., 2., 7., 4., 6., 0.};
+		for (double timestamp : timestamps) {
+			heap.add(new Task(timestamp, () -> {}));
+		}
+		assertTrue(heap.size() == timestamps.length);
+		for (int i = 0; i < timestamps.length; i++) {
+			assertTrue(heap.poll().getTimestamp() == i);
+		}
+		assertNull(heap.poll());
+	}
+
+	@Test
+	public void testEqualTimestampsInOrderOfInsertion() {
+		Task task1 = new Task(2., () -> {});
+		Task task2 = new Task(2., () -> {});
+		Task task3 = new Task(2., () -> {});
+		heap.add(task1);
+		heap.add(task2);
+		heap.add(task3);
+		assertEquals(task1, heap.poll());
+		assertEquals(task2, heap.poll());
+		assertEquals(task3, heap.poll());
+	}
+
+	@Test
+	public void testRemove() {
+		Task task1 = new Task(1., () -> {});
+		Task task2 = new Task(2., () -> {});
+		Task task3 = new Task(3., () -> {});
+		heap.add(task1);
+		heap.add(task2);
+		heap.add(task3);
+		assertTrue(heap.remove(task2));
+		assertFalse(heap.remove(task2));
+		assertFalse(heap.contains(task2));
+		assertEquals(task1, heap.poll());
+		assertEquals(task3, heap.poll());
+		heap.add(task2);
+		assertEquals(task2, heap.peek());
+	}
+
+	@Test
+	public void testClear() {
+		Task task = new Task(1., () -> {});
+		heap.add(task);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(task));
+		assertTrue(heap.peekTimestamp() == Double.POSITIVE_INFINITY);
+	}
+
+}
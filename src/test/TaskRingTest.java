@@ -0,0 +1,96 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import processing.CalendarQueue;
+import processing.Task;
+import processing.TaskHeap;
+import processing.TaskRing;
+import utils.DeterministicDistribution;
+import utils.UniformDistribution;
+import workflow.WorkflowElement;
+
+public class TaskRingTest {
+
+	private TaskRing ring;
+
+	@Before
+	public void setUp() throws Exception {
+		ring = new TaskRing(2);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ring = null;
+	}
+
+	@Test
+	public void testPollInOrderOfInsertion() {
+		for (int i = 0; i < 100; i++) {
+			ring.add(new Task(i / 2, () -> {}));
+			if (i % 3 == 0) {
+				assertTrue(ring.poll().getTimestamp() == i / 3 / 2);
+			}
+		}
+		double previous = -1;
+		while (!ring.isEmpty()) {
+			double timestamp = ring.poll().getTimestamp();
+			assertTrue(timestamp >= previous);
+			previous = timestamp;
+		}
+		assertNull(ring.poll());
+	}
+
+	@Test
+	public void testAddBeforeTheLastTask() {
+		Task task1 = new Task(1., () -> {});
+		Task task2 = new Task(5., () -> {});
+		Task task3 = new Task(3., () -> {});
+		ring.add(task1);
+		ring.add(task2);
+		ring.add(task3);
+		assertEquals(task1, ring.poll());
+		assertEquals(task3, ring.poll());
+		assertEquals(task2, ring.poll());
+	}
+
+	@Test
+	public void testRemove() {
+		Task task1 = new Task(1., () -> {});
+		Task task2 = new Task(1., () -> {});
+		Task task3 = new Task(2., () -> {});
+		ring.add(task1);
+		ring.add(task2);
+		ring.add(task3);
+		assertTrue(ring.remove(task1));
+		assertFalse(ring.remove(task1));
+		assertTrue(ring.size() == 2);
+		assertEquals(task2, ring.peek());
+		assertTrue(ring.remove(task3));
+		assertEquals(task2, ring.poll());
+		assertTrue(ring.isEmpty());
+	}
+
+	@Test
+	public void testDeterministicServicesUseARing() {
+		EmergencyDepartment ED = new EmergencyDepartment("Test Hospital");
+		WorkflowElement installation = ED.getService("Installation");
+		WorkflowElement triage = ED.getService("Triage");
+		assertTrue(installation.getTasksQueue().getQueue() instanceof TaskRing);
+		assertTrue(triage.getTasksQueue().getQueue() instanceof TaskHeap);
+		installation.getTasksQueue().addTask(new Task(5., () -> {}));
+		installation.setDurationProbability(new UniformDistribution(2, 5));
+		assertTrue(installation.getTasksQueue().getQueue() instanceof TaskHeap);
+		assertTrue(installation.getTasksQueue().getQueue().size() == 1);
+		ED.setCalendarQueues(true);
+		assertTrue(installation.getTasksQueue().getQueue() instanceof CalendarQueue);
+		triage.setDurationProbability(new DeterministicDistribution(3));
+		assertTrue(triage.getTasksQueue().getQueue() instanceof TaskRing);
+	}
+
+}
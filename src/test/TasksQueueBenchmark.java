@@ -0,0 +1,48 @@
+package test;
+
+import java.util.Random;
+
+import processing.CalendarQueue;
+import processing.Command;
+import processing.Task;
+import processing.TaskHeap;
+import processing.TaskStore;
+
+/**
+ * This class compares the binary heap and the calendar queue keeping the pending tasks of a service.
+ * It uses the classic hold model: the queue is filled with n pending tasks, then the first task is repeatedly
+ * polled and replaced by a new one, ending between 15 and 90 minutes later (like the blood tests).
+ * Usage: TasksQueueBenchmark [<holds>]
+ * @author Thomas
+ *
+ */
+public class TasksQueueBenchmark {
+	private static final Command NOTHING = () -> {};
+
+	private static double hold(TaskStore store, int pending, int holds, long seed) {
+		Random random = new Random(seed);
+		for (int i = 0; i < pending; i++) {
+			store.add(new Task(15 + 75 * random.nextDouble(), NOTHING));
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < holds; i++) {
+			Task task = store.poll();
+			store.add(new Task(task.getTimestamp() + 15 + 75 * random.nextDouble(), NOTHING));
+		}
+		return (System.nanoTime() - start) / (double) holds;
+	}
+
+	public static void main(String[] args) {
+		int holds = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		System.out.println("Pending tasks | binary heap (ns/hold) | calendar queue (ns/hold)");
+		for (int pending = 1000; pending <= 1000000; pending *= 10) {
+			// warm up
+			hold(new TaskHeap(), pending, holds / 10, 0);
+			hold(new CalendarQueue(), pending, holds / 10, 0);
+			double heap = hold(new TaskHeap(), pending, holds, 1);
+			double calendar = hold(new CalendarQueue(), pending, holds, 1);
+			System.out.println(String.format("%13d | %21.1f | %24.1f", pending, heap, calendar));
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import processing.CalendarQueue;
+import processing.FutureEventList;
+import processing.Task;
+import processing.TaskRing;
+import processing.TasksQueue;
+
+public class TasksQueueTest {
+
+	private FutureEventList futureEventList;
+	private TasksQueue tasksQueue;
+	private TasksQueue otherQueue;
+	private Task task1;
+	private Task task2;
+	private Task otherTask;
+
+	@Before
+	public void setUp() throws Exception {
+		futureEventList = new FutureEventList();
+		tasksQueue = new TasksQueue();
+		otherQueue = new TasksQueue();
+		futureEventList.addQueue(tasksQueue);
+		futureEventList.addQueue(otherQueue);
+		task1 = tasksQueue.addTask(1., () -> {});
+		task2 = tasksQueue.addTask(5., () -> {});
+		otherTask = otherQueue.addTask(3., () -> {});
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		futureEventList = null;
+		tasksQueue = null;
+		otherQueue = null;
+		task1 = null;
+		task2 = null;
+		otherTask = null;
+	}
+
+	@Test
+	public void testCancel() {
+		assertTrue(task1.isScheduled());
+		assertTrue(task1.cancel());
+		assertFalse(task1.isScheduled());
+		assertFalse(task1.cancel());
+		assertEquals(otherTask, futureEventList.getNextTask());
+	}
+
+	@Test
+	public void testReschedule() {
+		assertTrue(task1.reschedule(10.));
+		assertEquals(otherTask, futureEventList.pollNextTask());
+		assertEquals(task2, futureEventList.pollNextTask());
+		assertEquals(task1, futureEventList.pollNextTask());
+		assertFalse(task1.isScheduled());
+		assertFalse(task1.reschedule(2.));
+	}
+
+	@Test
+	public void testSetTimestampReschedules() {
+		task2.setTimestamp(0.5);
+		assertEquals(task2, futureEventList.getNextTask());
+		assertTrue(task2.getTimestamp() == 0.5);
+	}
+
+	@Test
+	public void testCancelAndRescheduleWithOtherStructures() {
+		tasksQueue.setQueue(new TaskRing());
+		task2.reschedule(0.);
+		assertEquals(task2, tasksQueue.getNextTask());
+		tasksQueue.setQueue(new CalendarQueue());
+		assertTrue(task2.cancel());
+		task1.reschedule(4.);
+		assertEquals(otherTask, futureEventList.pollNextTask());
+		assertEquals(task1, futureEventList.pollNextTask());
+		assertNull(futureEventList.pollNextTask());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddScheduledTask() {
+		otherQueue.addTask(task1);
+	}
+
+}
@@ -0,0 +1,100 @@
+package test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+
+import core.EmergencyDepartment;
+import core.HistoryFidelity;
+import main.CLUI;
+import main.ScenarioBuilder;
+
+/**
+ * This class builds the Emergency Department shared by the tests which simulate a whole ED: a waiting room of
+ * 20 places, a box room of 2 places, a shock room, a blood test room, an XRay room and an MRI room of 1 place,
+ * 2 nurses, 2 physicians and 1 transporter.
+ * The ED is described once, as scenario commands, and can be built directly or written to a scenario file.
+ * @author Thomas
+ *
+ */
+public class TestEmergencyDepartments {
+
+	/**
+	 * This method return the scenario commands creating the ED.
+	 * @param name the name of the ED
+	 * @param nurses the number of nurses
+	 * @param physicians the number of physicians
+	 * @param transporters the number of transporters
+	 * @return the commands, as lines of a scenario file
+	 */
+	public static ArrayList<String> getScenario(String name, int nurses, int physicians, int transporters) {
+		String ED = "\"" + name + "\"";
+		ArrayList<String> lines = new ArrayList<String>();
+		lines.add("createED " + ED);
+		lines.add("addRoom " + ED + " WaitingRoom \"Waiting Room\" 20");
+		lines.add("addRoom " + ED + " BoxRoom \"Box Room\" 2");
+		lines.add("addRoom " + ED + " ShockRoom \"Shock Room\" 1");
+		lines.add("addRoom " + ED + " BloodTestRoom \"Blood Test Room\" 1");
+		lines.add("addRoom " + ED + " XRayRoom \"XRay Room\" 1");
+		lines.add("addRoom " + ED + " MRIRoom \"MRI Room\" 1");
+		for (int i = 0; i < nurses; i++) {
+			lines.add("addNurse " + ED);
+		}
+		for (int i = 0; i < physicians; i++) {
+			lines.add("addPhysician " + ED);
+		}
+		for (int i = 0; i < transporters; i++) {
+			lines.add("addTransporter " + ED);
+		}
+		return lines;
+	}
+
+	/**
+	 * This method return the scenario commands creating the ED, with its 2 nurses, 2 physicians and 1 transporter.
+	 * @param name the name of the ED
+	 * @return the commands, as lines of a scenario file
+	 */
+	public static ArrayList<String> getScenario(String name) {
+		return getScenario(name, 2, 2, 1);
+	}
+
+	/**
+	 * This method builds the ED.
+	 * @param name the name of the ED
+	 * @param seed the seed of the random streams of the ED
+	 * @param historyFidelity the history kept by the ED
+	 * @return the ED, at time 0
+	 */
+	public static EmergencyDepartment create(String name, long seed, HistoryFidelity historyFidelity) {
+		ScenarioBuilder builder = new ScenarioBuilder();
+		builder.setHistoryFidelity(historyFidelity);
+		ArrayList<String> lines = getScenario(name);
+		builder.execute(CLUI.splitInput(lines.get(0)));
+		builder.execute(new String[] {"setSeed", name, Long.toString(seed)});
+		for (String line : lines.subList(1, lines.size())) {
+			builder.execute(CLUI.splitInput(line));
+		}
+		return builder.getEmergencyDepartments().get(name);
+	}
+
+	/**
+	 * This method writes a scenario file creating the ED, followed by other commands.
+	 * @param file the scenario file
+	 * @param lines the commands creating the ED, as returned by getScenario
+	 * @param otherLines the commands written after them
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writeScenario(File file, ArrayList<String> lines, String... otherLines) throws IOException {
+		PrintWriter writer = new PrintWriter(new FileWriter(file));
+		for (String line : lines) {
+			writer.println(line);
+		}
+		for (String line : otherLines) {
+			writer.println(line);
+		}
+		writer.close();
+	}
+
+}
@@ -74,7 +74,7 @@ public class TriageTest {
 	@Test
 	public void testEndServiceOnPatient() {
 		// Simulate startServiceOnPatient effects
-		patient.setState("being-registrated");
+		patient.setState("being-registered");
 		triage.removePatientFromWaitingList(patient);
 		// Execution
 		triage.endServiceOnPatient(patient);
@@ -0,0 +1,75 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import core.NurseFactory;
+import core.UtilizationMonitor;
+import resources.BoxRoom;
+import resources.HumanState;
+import resources.Nurse;
+import resources.Patient;
+import utils.TimeWeightedStatistic;
+
+public class UtilizationMonitorTest {
+
+	private EmergencyDepartment ED;
+	private UtilizationMonitor monitor;
+
+	@Before
+	public void setUp() throws Exception {
+		System.out.println("=== Initialisation ===");
+		ED = new EmergencyDepartment("Test ED");
+		ED.addStaff(2, new NurseFactory());
+		monitor = ED.getUtilizationMonitor();
+		System.out.println("=== End of initialisation ===");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		monitor = null;
+	}
+
+	@Test
+	public void testTimeWeightedStatistic() {
+		TimeWeightedStatistic statistic = new TimeWeightedStatistic(0);
+		statistic.update(2, 3);
+		statistic.update(4, 1);
+		assertEquals(1.25, statistic.getAverage(8), 1e-12);
+		assertTrue(statistic.getMax() == 3);
+		statistic.reset(8);
+		assertTrue(statistic.getAverage(10) == 1);
+	}
+
+	@Test
+	public void testStaffUtilization() {
+		ED.setTime(10);
+		ED.getIdleNurse().setState(HumanState.OCCUPIED);
+		ED.setTime(20);
+		assertEquals(0.25, monitor.getStaffUtilization(Nurse.class, 20), 1e-12);
+		assertEquals(0.5, monitor.getBusyStaff(Nurse.class).getAverage(20), 1e-12);
+		assertTrue(monitor.getBusyStaff(Nurse.class).getMax() == 1);
+	}
+
+	@Test
+	public void testRoomOccupancyAndQueueLength() {
+		BoxRoom room = new BoxRoom("Box", 2, ED);
+		ED.addRoom(room);
+		Patient patient = ED.getPatientFactory().create(ED.getSeverityLevel(3), ED);
+		ED.setTime(5);
+		room.addPatient(patient);
+		ED.getService("Consultation").addPatientToWaitingList(patient);
+		ED.setTime(10);
+		room.removePatient(patient);
+		ED.getService("Consultation").removePatientFromWaitingList(patient);
+		assertEquals(0.25, monitor.getRoomUtilization(BoxRoom.class, 10), 1e-12);
+		assertEquals(0.5, monitor.getQueueLength("Consultation").getAverage(10), 1e-12);
+		assertTrue(monitor.getQueueLength("Consultation").getMax() == 1);
+	}
+
+}
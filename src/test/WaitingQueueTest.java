@@ -0,0 +1,92 @@
+package test;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import core.EmergencyDepartment;
+import resources.Patient;
+import utils.DeterministicDistribution;
+import utils.NoInsurance;
+import utils.SeverityLevel_L1;
+import utils.SeverityLevel_L2;
+import utils.SeverityLevel_L3;
+import utils.SeverityLevel_L5;
+import workflow.WaitingQueue;
+
+public class WaitingQueueTest {
+
+	private EmergencyDepartment ED;
+	private WaitingQueue waitingQueue;
+	private Patient lightPatient1;
+	private Patient lightPatient2;
+	private Patient severePatient1;
+	private Patient severePatient2;
+
+	@Before
+	public void setUp() throws Exception {
+		ED = new EmergencyDepartment("Test Hospital");
+		waitingQueue = new WaitingQueue();
+		lightPatient1 = new Patient("John", "Doe", new NoInsurance(), new SeverityLevel_L5(new DeterministicDistribution(2)), ED);
+		severePatient1 = new Patient("Henri", "Golo", new NoInsurance(), new SeverityLevel_L2(new DeterministicDistribution(2)), ED);
+		lightPatient2 = new Patient("Jane", "Doe", new NoInsurance(), new SeverityLevel_L3(new DeterministicDistribution(2)), ED);
+		severePatient2 = new Patient("Paul", "Golo", new NoInsurance(), new SeverityLevel_L1(new DeterministicDistribution(2)), ED);
+		waitingQueue.add(lightPatient1);
+		waitingQueue.add(severePatient1);
+		waitingQueue.add(lightPatient2);
+		waitingQueue.add(severePatient2);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ED = null;
+		waitingQueue = null;
+		lightPatient1 = null;
+		lightPatient2 = null;
+		severePatient1 = null;
+		severePatient2 = null;
+	}
+
+	@Test
+	public void testNextPatientsInOrderOfArrival() {
+		assertEquals(severePatient1, waitingQueue.getNextSeverePatient());
+		assertEquals(lightPatient1, waitingQueue.getNextLightPatient());
+		assertEquals(lightPatient1, waitingQueue.poll());
+		assertEquals(severePatient1, waitingQueue.poll());
+		assertEquals(lightPatient2, waitingQueue.poll());
+		assertEquals(severePatient2, waitingQueue.poll());
+		assertNull(waitingQueue.poll());
+	}
+
+	@Test
+	public void testRemove() {
+		assertTrue(waitingQueue.remove(severePatient1));
+		assertFalse(waitingQueue.remove(severePatient1));
+		assertFalse(waitingQueue.contains(severePatient1));
+		assertTrue(waitingQueue.size() == 3);
+		assertEquals(severePatient2, waitingQueue.getNextSeverePatient());
+	}
+
+	@Test
+	public void testAddTwice() {
+		assertFalse(waitingQueue.add(lightPatient1));
+		assertTrue(waitingQueue.size() == 4);
+	}
+
+	@Test
+	public void testIteratorInOrderOfArrival() {
+		Iterator<Patient> iterator = waitingQueue.iterator();
+		assertEquals(lightPatient1, iterator.next());
+		assertEquals(severePatient1, iterator.next());
+		iterator.remove();
+		assertEquals(lightPatient2, iterator.next());
+		assertEquals(severePatient2, iterator.next());
+		assertFalse(iterator.hasNext());
+		assertFalse(waitingQueue.contains(severePatient1));
+	}
+
+}
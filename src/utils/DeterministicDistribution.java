@@ -1,5 +1,7 @@
 package utils;
 
+import java.util.SplittableRandom;
+
 /**
  * This class simulates a deterministic probability distribution
  * @author Thomas
@@ -17,4 +19,9 @@ public class DeterministicDistribution implements ProbabilityDistribution {
 	public double generateSample() {
 		return value;
 	}
+	
+	@Override
+	public double generateSample(SplittableRandom random) {
+		return value;
+	}
 }
@@ -1,12 +1,11 @@
 package utils;
 
 import core.EmergencyDepartment;
-import core.Event;
-import resources.Patient;
+import core.Milestone;
 
 /**
  * This class herits from KeyPerformanceIndicator.
- * It implements computeKPI to compute the duration between a patient's arrival and his first consultation.
+ * Its KPI is the duration between a patient's arrival and his first consultation.
  * @author Quentin
  *
  */
@@ -18,12 +17,7 @@ public class DoorToDoctorTime extends KeyPerformanceIndicator {
 	}
 
 	@Override
-	public double computeKPI(Patient patient) {
-		for (Event event : patient.getHistory()) {
-			if (event.getName() == "Consultation beginning") {
-				return event.getTimestamp() - patient.getArrivalTime();
-			}
-		}
-		return Double.POSITIVE_INFINITY;
+	public Milestone getMilestone() {
+		return Milestone.FIRST_CONSULTATION;
 	}
 }
@@ -1,5 +1,8 @@
 package utils;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
+
 /**
  * This class simulates an exponential probability distribution
  * @author Thomas
@@ -15,6 +18,11 @@ public class ExponentialDistribution implements ProbabilityDistribution {
 
 	@Override
 	public double generateSample() {
-		return (-1) * Math.log(Math.random()) / lambda;
+		return (-1) * Math.log(1 - ThreadLocalRandom.current().nextDouble()) / lambda;
+	}
+	
+	@Override
+	public double generateSample(SplittableRandom random) {
+		return (-1) * Math.log(1 - random.nextDouble()) / lambda;
 	}
 }
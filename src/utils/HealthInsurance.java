@@ -15,6 +15,14 @@ public abstract class HealthInsurance {
 		this.discount = discount;
 	}
 	
+	public String getName() {
+		return name;
+	}
+
+	public double getDiscount() {
+		return discount;
+	}
+	
 	/**
 	 * Compute the price payed by the patient after the discount of his health insurance
 	 * @param charge is the amount charged to the patient by the hospital
@@ -0,0 +1,202 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import core.EventType;
+import core.Milestone;
+import resources.Patient;
+
+/**
+ * This class breaks the KPIs of the released patients down by severity level, health insurance and examination path
+ * (the set of the examinations prescribed to the patient). Each cell of the cube keeps the statistics of the length
+ * of stay and of the door to doctor time of its patients; a patient is added to his cell when he is released, in
+ * O(1). Any breakdown is then read from the cells, without going through the patients: a slice of the cube (all the
+ * patients of a severity level, for instance) merges the statistics of its cells.
+ * The insurances are added to the cube as patients with new insurances are released.
+ * @author Quentin
+ *
+ */
+public class KPICube {
+	public static final String LENGTH_OF_STAY = "los";
+	public static final String DOOR_TO_DOCTOR_TIME = "dtdt";
+	public static final int PATHS = 8;
+
+	protected ArrayList<String> insurances;
+	protected HashMap<String, Integer> insurancesIndexes;
+	protected ArrayList<OnlineStatistics[]> lengthsOfStay;
+	protected ArrayList<OnlineStatistics[]> doorToDoctorTimes;
+
+	public KPICube() {
+		super();
+		insurances = new ArrayList<String>();
+		insurancesIndexes = new HashMap<String, Integer>();
+		lengthsOfStay = new ArrayList<OnlineStatistics[]>();
+		doorToDoctorTimes = new ArrayList<OnlineStatistics[]>();
+	}
+
+	/**
+	 * This method adds a released patient to the cell of his severity level, insurance and examination path.
+	 * @param patient A released patient
+	 */
+	public void add(Patient patient) {
+		int cell = cell(patient.getSeverityLevel().getLevel(), patient.getExaminations() & (PATHS - 1));
+		if (cell < 0) {
+			return;
+		}
+		int insurance = insuranceIndex(patient.getHealthInsurance().getName());
+		double release = patient.getMilestone(Milestone.RELEASE);
+		if (!Double.isNaN(release)) {
+			lengthsOfStay.get(insurance)[cell].add(release - patient.getArrivalTime());
+		}
+		double consultation = patient.getMilestone(Milestone.FIRST_CONSULTATION);
+		if (!Double.isNaN(consultation)) {
+			doorToDoctorTimes.get(insurance)[cell].add(consultation - patient.getArrivalTime());
+		}
+	}
+
+	/**
+	 * This method return the statistics of a KPI for a slice of the cube.
+	 * @param KPI los or dtdt
+	 * @param level the severity level, from 1 to 5, or 0 for all the levels
+	 * @param insurance the name of the insurance, or null for all the insurances
+	 * @param path the bits of the examinations prescribed, or -1 for all the paths
+	 * @return the statistics of the patients of the slice
+	 * @throws IllegalArgumentException if the KPI isn't los or dtdt
+	 */
+	public OnlineStatistics getStatistics(String KPI, int level, String insurance, int path) {
+		ArrayList<OnlineStatistics[]> cube = getCells(KPI);
+		OnlineStatistics statistics = new OnlineStatistics();
+		for (int i = 0; i < insurances.size(); i++) {
+			if (insurance != null && !insurance.equals(insurances.get(i))) {
+				continue;
+			}
+			for (int l = 1; l <= SeverityLevel.LEVELS; l++) {
+				if (level != 0 && level != l) {
+					continue;
+				}
+				for (int p = 0; p < PATHS; p++) {
+					if (path < 0 || path == p) {
+						statistics.merge(cube.get(i)[cell(l, p)]);
+					}
+				}
+			}
+		}
+		return statistics;
+	}
+
+	public ArrayList<String> getInsurances() {
+		return insurances;
+	}
+
+	public void clear() {
+		insurances.clear();
+		insurancesIndexes.clear();
+		lengthsOfStay.clear();
+		doorToDoctorTimes.clear();
+	}
+
+	/**
+	 * This method return a report of the whole cube, one line per cell with released patients.
+	 * @return the report
+	 */
+	public String getReport() {
+		StringBuffer content = new StringBuffer();
+		content.append("- Severity / Insurance / Examinations : patients, mean (sd) length of stay, mean (sd) door to doctor time\n");
+		for (int l = 1; l <= SeverityLevel.LEVELS; l++) {
+			for (int i = 0; i < insurances.size(); i++) {
+				for (int p = 0; p < PATHS; p++) {
+					OnlineStatistics los = lengthsOfStay.get(i)[cell(l, p)];
+					OnlineStatistics dtdt = doorToDoctorTimes.get(i)[cell(l, p)];
+					if (los.getCount() == 0 && dtdt.getCount() == 0) {
+						continue;
+					}
+					content.append("  * L").append(l).append(" / ").append(insurances.get(i)).append(" / ").append(getPathLabel(p))
+							.append(" : ").append(los.getCount()).append(", ").append(los.getMean()).append(" (")
+							.append(los.getStandardDeviation()).append("), ").append(dtdt.getMean()).append(" (")
+							.append(dtdt.getStandardDeviation()).append(")\n");
+				}
+			}
+		}
+		return content.toString();
+	}
+
+	/**
+	 * This method return the names of the examinations of a path.
+	 * @param path the bits of the examinations prescribed
+	 * @return the names of the examinations separated by +, none if there is no examination
+	 */
+	public static String getPathLabel(int path) {
+		StringBuffer label = new StringBuffer();
+		for (EventType type : EventType.values()) {
+			if ((path & type.getExaminationBit()) != 0) {
+				label.append(label.length() > 0 ? "+" : "").append(type.getExamination());
+			}
+		}
+		return label.length() > 0 ? label.toString() : "none";
+	}
+
+	/**
+	 * This method return the path of a list of examinations.
+	 * @param label the names of the examinations separated by +, or none
+	 * @return the bits of the examinations
+	 * @throws IllegalArgumentException if an examination is unknown
+	 */
+	public static int getPath(String label) {
+		int path = 0;
+		if (label.equals("none")) {
+			return path;
+		}
+		for (String examination : label.split("\\+")) {
+			int bit = 0;
+			for (EventType type : EventType.values()) {
+				if (examination.equals(type.getExamination())) {
+					bit = type.getExaminationBit();
+				}
+			}
+			if (bit == 0) {
+				throw new IllegalArgumentException("Unknown examination " + examination);
+			}
+			path |= bit;
+		}
+		return path;
+	}
+
+	private ArrayList<OnlineStatistics[]> getCells(String KPI) {
+		if (KPI.equals(LENGTH_OF_STAY)) {
+			return lengthsOfStay;
+		}
+		if (KPI.equals(DOOR_TO_DOCTOR_TIME)) {
+			return doorToDoctorTimes;
+		}
+		throw new IllegalArgumentException("Unknown KPI " + KPI);
+	}
+
+	private int cell(int level, int path) {
+		if (level < 1 || level > SeverityLevel.LEVELS) {
+			return -1;
+		}
+		return (level - 1) * PATHS + path;
+	}
+
+	private int insuranceIndex(String insurance) {
+		Integer index = insurancesIndexes.get(insurance);
+		if (index == null) {
+			index = insurances.size();
+			insurances.add(insurance);
+			insurancesIndexes.put(insurance, index);
+			lengthsOfStay.add(newCells());
+			doorToDoctorTimes.add(newCells());
+		}
+		return index;
+	}
+
+	private static OnlineStatistics[] newCells() {
+		OnlineStatistics[] cells = new OnlineStatistics[SeverityLevel.LEVELS * PATHS];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = new OnlineStatistics();
+		}
+		return cells;
+	}
+
+}
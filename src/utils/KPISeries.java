@@ -0,0 +1,254 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class keeps the KPIs of an emergency department over consecutive windows of simulated time of the same width
+ * (an hour, a shift, a day...): the number of arrivals and releases, and the count, sum and maximum of the lengths of
+ * stay and door to doctor times, for each window. The values are added as the events happen, in O(1), and the windows
+ * are stored in ring buffers of primitive arrays: only the last windows are kept, the oldest ones are overwritten.
+ * Each window can be read alone (tumbling windows), or aggregated with the windows before it (sliding windows).
+ * @author Quentin
+ *
+ */
+public class KPISeries {
+	
+	/**
+	 * The measures kept for each window
+	 */
+	public enum Metric {
+		ARRIVALS("arrivals"),
+		RELEASES("releases"),
+		LOS("los"),
+		DTDT("dtdt");
+		
+		private static final HashMap<String, Metric> metricsByLabel = new HashMap<String, Metric>();
+		static {
+			for (Metric metric : values()) {
+				metricsByLabel.put(metric.label, metric);
+			}
+		}
+		
+		private final String label;
+		
+		private Metric(String label) {
+			this.label = label;
+		}
+		
+		public String getLabel() {
+			return label;
+		}
+		
+		/**
+		 * Return the metric corresponding to a label
+		 * @param label the label of the metric
+		 * @return the corresponding metric
+		 * @throws IllegalArgumentException if no metric has this label
+		 */
+		public static Metric fromLabel(String label) {
+			Metric metric = metricsByLabel.get(label);
+			if (metric == null) {
+				throw new IllegalArgumentException("Unknown metric " + label);
+			}
+			return metric;
+		}
+		
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+	
+	protected double width;
+	protected int capacity;
+	protected long[][] counts;
+	protected double[][] sums;
+	protected double[][] maxima;
+	protected long lastWindow;
+
+	/**
+	 * Create an empty series
+	 * @param width the width of a window, in minutes
+	 * @param capacity the number of windows kept
+	 * @throws IllegalArgumentException if the width or the capacity isn't positive
+	 */
+	public KPISeries(double width, int capacity) {
+		super();
+		if (!(width > 0) || capacity <= 0) {
+			throw new IllegalArgumentException("The width and the number of windows of a series must be positive");
+		}
+		this.width = width;
+		this.capacity = capacity;
+		int metrics = Metric.values().length;
+		counts = new long[metrics][capacity];
+		sums = new double[metrics][capacity];
+		maxima = new double[metrics][capacity];
+		clear();
+	}
+
+	/**
+	 * This method adds a value to the window containing a timestamp. The windows before the timestamp are opened
+	 * if needed; nothing happens if the window of the timestamp isn't kept anymore.
+	 * @param metric the metric of the value
+	 * @param timestamp the time of the event
+	 * @param value the value (ignored for the counts of arrivals and releases)
+	 */
+	public void add(Metric metric, double timestamp, double value) {
+		long window = getWindow(timestamp);
+		if (window > lastWindow) {
+			advance(window);
+		}
+		else if (window < getFirstWindow()) {
+			return;
+		}
+		int slot = slot(window);
+		int row = metric.ordinal();
+		if (counts[row][slot] == 0 || value > maxima[row][slot]) {
+			maxima[row][slot] = value;
+		}
+		counts[row][slot]++;
+		sums[row][slot] += value;
+	}
+
+	/**
+	 * This method opens the windows up to the one containing the given time, so that the windows without any
+	 * event are reported too.
+	 * @param time the current time
+	 */
+	public void update(double time) {
+		long window = getWindow(time);
+		if (window > lastWindow) {
+			advance(window);
+		}
+	}
+
+	private void advance(long window) {
+		for (long w = Math.max(lastWindow + 1, window - capacity + 1); w <= window; w++) {
+			int slot = slot(w);
+			for (int row = 0; row < counts.length; row++) {
+				counts[row][slot] = 0;
+				sums[row][slot] = 0;
+				maxima[row][slot] = 0;
+			}
+		}
+		lastWindow = window;
+	}
+
+	public void clear() {
+		for (int row = 0; row < counts.length; row++) {
+			Arrays.fill(counts[row], 0);
+			Arrays.fill(sums[row], 0);
+			Arrays.fill(maxima[row], 0);
+		}
+		lastWindow = -1;
+	}
+
+	/**
+	 * This method return the number of values added to windows, for instance the number of arrivals.
+	 * @param metric the metric
+	 * @param window the number of the last window
+	 * @param span the number of windows aggregated, ending with the given one (1 for a tumbling window)
+	 * @return the number of values in these windows (those which aren't kept anymore are ignored)
+	 */
+	public long getCount(Metric metric, long window, int span) {
+		long count = 0;
+		for (long w = Math.max(window - span + 1, getFirstWindow()); w <= Math.min(window, lastWindow); w++) {
+			count += counts[metric.ordinal()][slot(w)];
+		}
+		return count;
+	}
+
+	/**
+	 * This method return the mean of the values added to windows, for instance the average length of stay of the
+	 * patients released during these windows.
+	 * @param metric the metric
+	 * @param window the number of the last window
+	 * @param span the number of windows aggregated, ending with the given one (1 for a tumbling window)
+	 * @return the mean of the values in these windows, NaN if there is none
+	 */
+	public double getMean(Metric metric, long window, int span) {
+		long count = 0;
+		double sum = 0;
+		for (long w = Math.max(window - span + 1, getFirstWindow()); w <= Math.min(window, lastWindow); w++) {
+			count += counts[metric.ordinal()][slot(w)];
+			sum += sums[metric.ordinal()][slot(w)];
+		}
+		return count == 0 ? Double.NaN : sum / count;
+	}
+
+	/**
+	 * This method return the largest value added to windows.
+	 * @param metric the metric
+	 * @param window the number of the last window
+	 * @param span the number of windows aggregated, ending with the given one (1 for a tumbling window)
+	 * @return the largest value in these windows, NaN if there is none
+	 */
+	public double getMax(Metric metric, long window, int span) {
+		double max = Double.NaN;
+		for (long w = Math.max(window - span + 1, getFirstWindow()); w <= Math.min(window, lastWindow); w++) {
+			int slot = slot(w);
+			if (counts[metric.ordinal()][slot] > 0 && !(maxima[metric.ordinal()][slot] <= max)) {
+				max = maxima[metric.ordinal()][slot];
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * This method return the value of a metric over windows: the count for the arrivals and the releases, the mean
+	 * for the KPIs.
+	 * @param metric the metric
+	 * @param window the number of the last window
+	 * @param span the number of windows aggregated, ending with the given one (1 for a tumbling window)
+	 * @return the value of the metric
+	 */
+	public double getValue(Metric metric, long window, int span) {
+		if (metric == Metric.ARRIVALS || metric == Metric.RELEASES) {
+			return getCount(metric, window, span);
+		}
+		return getMean(metric, window, span);
+	}
+
+	/**
+	 * This method return the number of the window containing a timestamp.
+	 * @param timestamp a time
+	 * @return the number of its window, the first window starting at time 0
+	 */
+	public long getWindow(double timestamp) {
+		return (long) Math.floor(timestamp / width);
+	}
+
+	public double getWindowStart(long window) {
+		return window * width;
+	}
+
+	/**
+	 * This method return the number of the oldest window kept.
+	 * @return the number of the oldest window, 0 if no window has been opened
+	 */
+	public long getFirstWindow() {
+		return Math.max(lastWindow - capacity + 1, 0);
+	}
+
+	/**
+	 * This method return the number of the latest window.
+	 * @return the number of the latest window, -1 if no window has been opened
+	 */
+	public long getLastWindow() {
+		return lastWindow;
+	}
+
+	public double getWidth() {
+		return width;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	private int slot(long window) {
+		return (int) (window % capacity);
+	}
+
+}
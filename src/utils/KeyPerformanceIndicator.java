@@ -3,22 +3,43 @@ package utils;
 import java.util.ArrayList;
 
 import core.EmergencyDepartment;
+import core.Milestone;
 import resources.Patient;
 
 /**
  * This is an abstract class for the computation of KPI.i
  * The method computeAverageKPI computes the average of each patient KPI.
  * The abstract method computeKPI computes the KPI for one patient.
+ * The KPI of a patient is the time between his arrival and a milestone of his stay. The emergency department
+ * notifies its KPIs each time a patient reaches a milestone, so that they keep their statistics up to date as
+ * the simulation goes: the statistics of the patients who reached the milestone, and the number of patients who
+ * arrived but didn't reach it yet (censored). These statistics are read in O(1) whatever the number of patients.
+ * The KPIs also feed quantile sketches, overall and for each severity level, so that their percentiles can be
+ * read at any time in bounded memory.
  * @author Quentin
  *
  */
 
 public abstract class KeyPerformanceIndicator {
 	protected EmergencyDepartment emergencyDepartment;
+	protected OnlineStatistics statistics;
+	protected long censoredCount;
+	protected QuantileSketch sketch;
+	protected OnlineStatistics[] levelsStatistics;
+	protected QuantileSketch[] levelsSketches;
 
 	public KeyPerformanceIndicator(EmergencyDepartment emergencyDepartment) {
 		super();
 		this.emergencyDepartment = emergencyDepartment;
+		this.statistics = new OnlineStatistics();
+		this.censoredCount = 0;
+		this.sketch = new QuantileSketch();
+		this.levelsStatistics = new OnlineStatistics[SeverityLevel.LEVELS];
+		this.levelsSketches = new QuantileSketch[SeverityLevel.LEVELS];
+		for (int i = 0; i < SeverityLevel.LEVELS; i++) {
+			levelsStatistics[i] = new OnlineStatistics();
+			levelsSketches[i] = new QuantileSketch();
+		}
 	}
 
 	/**
@@ -50,8 +71,107 @@ public abstract class KeyPerformanceIndicator {
 	/**
 	 * This method computes the KPI for one patient.
 	 * @param patient
-	 * @return the computed KPI
+	 * @return the computed KPI, +infinity if the patient hasn't reached the milestone of the KPI
+	 */
+	public double computeKPI(Patient patient) {
+		double milestone = patient.getMilestone(getMilestone());
+		if (Double.isNaN(milestone)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return milestone - patient.getArrivalTime();
+	}
+	
+	/**
+	 * This method return the milestone ending the KPI of a patient.
+	 * @return the milestone measured from the arrival of the patient
 	 */
-	public abstract double computeKPI(Patient patient);
+	public abstract Milestone getMilestone();
+	
+	/**
+	 * This method updates the statistics of the KPI when a patient reaches a milestone of his stay.
+	 * @param patient the patient
+	 * @param milestone the milestone he reached
+	 * @param timestamp the time at which he reached it
+	 */
+	public void milestoneReached(Patient patient, Milestone milestone, double timestamp) {
+		if (milestone == Milestone.ARRIVAL) {
+			censoredCount++;
+		}
+		else if (milestone == getMilestone()) {
+			if (censoredCount > 0) {
+				censoredCount--;
+			}
+			double KPI = timestamp - patient.getArrivalTime();
+			statistics.add(KPI);
+			sketch.add(KPI);
+			int level = patient.getSeverityLevel().getLevel();
+			if (level >= 1 && level <= SeverityLevel.LEVELS) {
+				levelsStatistics[level - 1].add(KPI);
+				levelsSketches[level - 1].add(KPI);
+			}
+		}
+	}
+	
+	/**
+	 * This method return the average KPI of the patients who reached the milestone of the KPI, in O(1).
+	 * @return the average KPI, 0 if no patient reached the milestone
+	 */
+	public double getMean() {
+		return statistics.getMean();
+	}
+	
+	public OnlineStatistics getStatistics() {
+		return statistics;
+	}
+	
+	/**
+	 * This method return the statistics of the KPI for the patients of a severity level.
+	 * @param level the severity level, from 1 to 5
+	 * @return the statistics of the patients of this level
+	 */
+	public OnlineStatistics getStatistics(int level) {
+		return levelsStatistics[level - 1];
+	}
+	
+	/**
+	 * This method estimates a percentile of the KPI of the patients who reached the milestone of the KPI.
+	 * @param quantile the quantile, between 0 and 1 (0.9 for the 90th percentile)
+	 * @return the estimated quantile, NaN if no patient reached the milestone
+	 */
+	public double getQuantile(double quantile) {
+		return sketch.getQuantile(quantile);
+	}
+	
+	public QuantileSketch getSketch() {
+		return sketch;
+	}
+	
+	/**
+	 * This method return the quantile sketch of the KPI for the patients of a severity level.
+	 * @param level the severity level, from 1 to 5
+	 * @return the sketch of the patients of this level
+	 */
+	public QuantileSketch getSketch(int level) {
+		return levelsSketches[level - 1];
+	}
+	
+	/**
+	 * This method return the number of patients who arrived in the emergency department but didn't reach the
+	 * milestone of the KPI yet.
+	 * @return the number of censored patients
+	 */
+	public long getCensoredCount() {
+		return censoredCount;
+	}
+	
+	public void clear() {
+		statistics.clear();
+		censoredCount = 0;
+		sketch.clear();
+		for (int i = 0; i < SeverityLevel.LEVELS; i++) {
+			levelsStatistics[i].clear();
+			levelsSketches[i].clear();
+		}
+	}
 	
 }
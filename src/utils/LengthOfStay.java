@@ -1,12 +1,11 @@
 package utils;
 
 import core.EmergencyDepartment;
-import core.Event;
-import resources.Patient;
+import core.Milestone;
 
 /**
  * This class herits from KeyPerformanceIndicator.
- * It implements computeKPI to compute the duration between a patient's arrival and his release.
+ * Its KPI is the duration between a patient's arrival and his release.
  * @author Quentin
  *
  */
@@ -17,14 +16,7 @@ public class LengthOfStay extends KeyPerformanceIndicator {
 	}
 
 	@Override
-	public double computeKPI(Patient patient) {
-		Event lastEvent = patient.getHistory().get(patient.getHistory().size()-1);
-		if(lastEvent.getName().equals("Released")) {
-			return lastEvent.getTimestamp() - patient.getArrivalTime();
-		}
-		return Double.POSITIVE_INFINITY;
+	public Milestone getMilestone() {
+		return Milestone.RELEASE;
 	}
-	
-	
-
 }
@@ -0,0 +1,116 @@
+package utils;
+
+/**
+ * This class computes the count, mean and variance of a stream of values in O(1) memory, with Welford's algorithm:
+ * the values are added one by one and never stored. Two statistics can be merged (Chan's formula), for instance
+ * those of several replications of a simulation.
+ * @author Quentin
+ *
+ */
+public class OnlineStatistics {
+	/** Quantiles of order 0.975 of the Student's t distribution, by degrees of freedom (from 1 to 30) */
+	protected static final double[] STUDENT_QUANTILES = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306,
+			2.262, 2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069,
+			2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+	protected long count;
+	protected double mean;
+	protected double m2;
+
+	public OnlineStatistics() {
+		super();
+		count = 0;
+		mean = 0;
+		m2 = 0;
+	}
+
+	/**
+	 * This method adds a value to the statistics.
+	 * @param value the new value
+	 */
+	public void add(double value) {
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+	}
+
+	/**
+	 * This method adds all the values of other statistics to these ones.
+	 * @param statistics the statistics to merge
+	 */
+	public void merge(OnlineStatistics statistics) {
+		if (statistics.count == 0) {
+			return;
+		}
+		long total = count + statistics.count;
+		double delta = statistics.mean - mean;
+		mean += delta * statistics.count / total;
+		m2 += statistics.m2 + delta * delta * count * statistics.count / total;
+		count = total;
+	}
+
+	public void clear() {
+		count = 0;
+		mean = 0;
+		m2 = 0;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * This method return the mean of the values.
+	 * @return the mean, 0 if there is no value
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * This method return the sample variance of the values.
+	 * @return the variance, 0 if there are less than two values
+	 */
+	public double getVariance() {
+		return count < 2 ? 0 : m2 / (count - 1);
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * This method return the half width of the 95% confidence interval of the mean, computed with the Student's t
+	 * distribution: the values are supposed to be independent and approximately normal, like the means of the
+	 * KPIs over independent replications of a simulation.
+	 * @return the half width of the confidence interval, +infinity if there are less than two values
+	 */
+	public double getConfidenceHalfWidth() {
+		if (count < 2) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return getStudentQuantile(count - 1) * getStandardDeviation() / Math.sqrt(count);
+	}
+
+	/**
+	 * This method return the quantile of order 0.975 of the Student's t distribution, from a table up to 30 degrees
+	 * of freedom and from its Cornish-Fisher expansion above.
+	 * @param degrees the degrees of freedom
+	 * @return the quantile
+	 */
+	public static double getStudentQuantile(long degrees) {
+		if (degrees <= STUDENT_QUANTILES.length) {
+			return STUDENT_QUANTILES[(int) degrees - 1];
+		}
+		double z = 1.959964;
+		double z3 = z * z * z;
+		return z + (z3 + z) / (4 * degrees) + (5 * z3 * z * z + 16 * z3 + 3 * z) / (96. * degrees * degrees);
+	}
+
+	@Override
+	public String toString() {
+		return "mean " + mean + ", standard deviation " + getStandardDeviation() + " (" + count + " values)";
+	}
+
+}
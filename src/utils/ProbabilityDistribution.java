@@ -1,5 +1,7 @@
 package utils;
 
+import java.util.SplittableRandom;
+
 /**
  * This interface implements a method to generate a sample from a given probability distribution.
  * @author Thomas
@@ -13,4 +15,11 @@ public interface ProbabilityDistribution {
 	 */
 	public abstract double generateSample();
 	
+	/**
+	 * This method generates a sample from the probability distribution, drawn from the given random stream
+	 * @param random the random stream
+	 * @return a sampled value
+	 */
+	public abstract double generateSample(SplittableRandom random);
+	
 }
@@ -0,0 +1,199 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * This class estimates the quantiles of a stream of non negative values in bounded memory, with a histogram whose
+ * buckets grow geometrically (like an HDR histogram or a DDSketch). The bucket of a value v is the integer i such
+ * that gamma^(i-1) < v <= gamma^i, where gamma = (1 + a) / (1 - a): every quantile is then estimated within a
+ * relative error a. With a = 1%, a thousand buckets cover values from one millisecond to a year, whatever the
+ * number of values added.
+ * The values smaller than MIN_VALUE are counted as zeros. Sketches with the same accuracy can be merged, for
+ * instance those of several replications of a simulation.
+ * @author Quentin
+ *
+ */
+public class QuantileSketch {
+	public static final double DEFAULT_ACCURACY = 0.01;
+	protected static final double MIN_VALUE = 1e-6;
+
+	protected double accuracy;
+	protected double gamma;
+	protected double logGamma;
+	protected long[] counts;
+	protected int offset;
+	protected long zeroCount;
+	protected long count;
+	protected double min;
+	protected double max;
+
+	public QuantileSketch() {
+		this(DEFAULT_ACCURACY);
+	}
+
+	/**
+	 * Create an empty sketch
+	 * @param accuracy the relative accuracy of the quantiles, between 0 and 1 excluded
+	 * @throws IllegalArgumentException if the accuracy isn't between 0 and 1 excluded
+	 */
+	public QuantileSketch(double accuracy) {
+		super();
+		if (!(accuracy > 0 && accuracy < 1)) {
+			throw new IllegalArgumentException("The accuracy of a sketch must be between 0 and 1 excluded");
+		}
+		this.accuracy = accuracy;
+		this.gamma = (1 + accuracy) / (1 - accuracy);
+		this.logGamma = Math.log(gamma);
+		this.counts = new long[0];
+		this.offset = 0;
+		clear();
+	}
+
+	/**
+	 * This method adds a value to the sketch, in O(1) (amortized).
+	 * @param value the new value
+	 */
+	public void add(double value) {
+		add(value, 1);
+	}
+
+	private void add(double value, long n) {
+		if (value < MIN_VALUE) {
+			zeroCount += n;
+		}
+		else {
+			int index = index(value);
+			ensureCapacity(index, index);
+			counts[index - offset] += n;
+		}
+		count += n;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * This method adds all the values of another sketch to this one.
+	 * @param sketch a sketch with the same accuracy
+	 * @throws IllegalArgumentException if the sketch doesn't have the same accuracy
+	 */
+	public void merge(QuantileSketch sketch) {
+		if (sketch.accuracy != accuracy) {
+			throw new IllegalArgumentException("Only sketches with the same accuracy can be merged");
+		}
+		if (sketch.count == 0) {
+			return;
+		}
+		if (sketch.counts.length > 0) {
+			ensureCapacity(sketch.offset, sketch.offset + sketch.counts.length - 1);
+			for (int i = 0; i < sketch.counts.length; i++) {
+				counts[sketch.offset + i - offset] += sketch.counts[i];
+			}
+		}
+		zeroCount += sketch.zeroCount;
+		count += sketch.count;
+		min = Math.min(min, sketch.min);
+		max = Math.max(max, sketch.max);
+	}
+
+	/**
+	 * This method estimates a quantile of the values added to the sketch (with the nearest rank method).
+	 * @param quantile the quantile, between 0 and 1 (0.5 for the median, 0.9 for the 90th percentile...)
+	 * @return the estimated quantile, within the relative accuracy of the sketch; NaN if the sketch is empty
+	 * @throws IllegalArgumentException if the quantile isn't between 0 and 1
+	 */
+	public double getQuantile(double quantile) {
+		if (!(quantile >= 0 && quantile <= 1)) {
+			throw new IllegalArgumentException("A quantile must be between 0 and 1");
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		long rank = Math.max((long) Math.ceil(quantile * count) - 1, 0);
+		long seen = zeroCount;
+		if (seen > rank) {
+			return Math.max(min, 0.);
+		}
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen > rank) {
+				double value = 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+				return Math.min(Math.max(value, min), max);
+			}
+		}
+		return max;
+	}
+
+	public void clear() {
+		Arrays.fill(counts, 0);
+		zeroCount = 0;
+		count = 0;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+
+	public double getAccuracy() {
+		return accuracy;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * This method return the smallest value added to the sketch.
+	 * @return the smallest value, +infinity if the sketch is empty
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * This method return the largest value added to the sketch.
+	 * @return the largest value, -infinity if the sketch is empty
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * This method return the number of buckets of the sketch, which bounds its memory.
+	 * @return the number of buckets
+	 */
+	public int getBucketsCount() {
+		return counts.length;
+	}
+
+	private int index(double value) {
+		return (int) Math.ceil(Math.log(value) / logGamma);
+	}
+
+	/**
+	 * Grow the array of counts so that it covers the buckets from first to last
+	 */
+	private void ensureCapacity(int first, int last) {
+		if (counts.length == 0) {
+			counts = new long[Math.max(last - first + 1, 16)];
+			offset = first;
+			return;
+		}
+		int newFirst = Math.min(first, offset);
+		int newLast = Math.max(last, offset + counts.length - 1);
+		if (newFirst == offset && newLast == offset + counts.length - 1) {
+			return;
+		}
+		int length = Math.max(newLast - newFirst + 1, 2 * counts.length);
+		if (newFirst < offset) {
+			newFirst = Math.min(newFirst, newLast - length + 1);
+		}
+		long[] newCounts = new long[length];
+		System.arraycopy(counts, 0, newCounts, offset - newFirst, counts.length);
+		counts = newCounts;
+		offset = newFirst;
+	}
+
+	@Override
+	public String toString() {
+		return "p50 " + getQuantile(0.5) + ", p90 " + getQuantile(0.9) + ", p99 " + getQuantile(0.99) + " (" + count + " values)";
+	}
+
+}
@@ -0,0 +1,79 @@
+package utils;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * This class gives the random streams of a simulation, all derived from one seed. Each stream has a name
+ * (the arrivals of a severity level, the durations of a service, the examinations prescribed...) and its seed
+ * is computed from the seed of the simulation and the name of the stream only: the draws of a stream don't
+ * depend on the order in which the streams are created nor on the draws of the other streams, so two
+ * simulations with the same seed give the same results, and changing one distribution doesn't move the others.
+ * The streams are SplittableRandom generators, which don't share any state and need no synchronization.
+ * @author Thomas
+ *
+ */
+public class RandomStreams {
+	protected static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	protected long seed;
+	protected HashMap<String, SplittableRandom> streams;
+
+	/**
+	 * Create random streams with a seed drawn at random
+	 */
+	public RandomStreams() {
+		this(new SplittableRandom().nextLong());
+	}
+
+	public RandomStreams(long seed) {
+		super();
+		this.seed = seed;
+		streams = new HashMap<String, SplittableRandom>();
+	}
+
+	/**
+	 * This method returns the stream with the given name, created the first time it is asked for.
+	 * @param name the name of the stream
+	 * @return the random stream
+	 */
+	public SplittableRandom getStream(String name) {
+		SplittableRandom stream = streams.get(name);
+		if (stream == null) {
+			stream = new SplittableRandom(deriveSeed(seed, hash(name)));
+			streams.put(name, stream);
+		}
+		return stream;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * This method derives a new seed from a seed and an index, for instance the seed of each replication of a
+	 * simulation. The bits are mixed (finalizer of SplitMix64), so that close indexes give unrelated seeds.
+	 * @param seed the original seed
+	 * @param index the index of the derived seed
+	 * @return the derived seed
+	 */
+	public static long deriveSeed(long seed, long index) {
+		long z = seed + (index + 1) * GOLDEN_GAMMA;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * 64 bits FNV-1a hash of a name
+	 */
+	private static long hash(String name) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < name.length(); i++) {
+			hash ^= name.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+}
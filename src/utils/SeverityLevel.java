@@ -6,6 +6,8 @@ package utils;
  *
  */
 public abstract class SeverityLevel {
+	public static final int LEVELS = 5;
+	
 	protected String name;
 	protected int level;
 	protected ProbabilityDistribution probabilityDistribution;
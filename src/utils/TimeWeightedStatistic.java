@@ -0,0 +1,84 @@
+package utils;
+
+/**
+ * This class computes the time average and the maximum of a level which changes over time, like the number of busy
+ * nurses or the length of a waiting queue. The integral of the level over time is updated in O(1) at each change,
+ * so that the average is known at any time without keeping the changes.
+ * @author Quentin
+ *
+ */
+public class TimeWeightedStatistic {
+	protected double startTime;
+	protected double lastTime;
+	protected double level;
+	protected double integral;
+	protected double max;
+
+	/**
+	 * Create a statistic of a level which is 0 at the start time
+	 * @param startTime the time from which the level is averaged
+	 */
+	public TimeWeightedStatistic(double startTime) {
+		super();
+		reset(startTime);
+	}
+
+	/**
+	 * This method changes the level at a given time.
+	 * @param time the time of the change, not before the previous one
+	 * @param level the new level
+	 */
+	public void update(double time, double level) {
+		if (time > lastTime) {
+			integral += this.level * (time - lastTime);
+			lastTime = time;
+		}
+		this.level = level;
+		max = Math.max(max, level);
+	}
+
+	/**
+	 * This method adds a quantity to the level at a given time.
+	 * @param time the time of the change, not before the previous one
+	 * @param delta the quantity added to the level (negative to remove some)
+	 */
+	public void add(double time, double delta) {
+		update(time, level + delta);
+	}
+
+	/**
+	 * This method starts the statistic again from a given time, keeping the current level.
+	 * @param time the new start time
+	 */
+	public void reset(double time) {
+		startTime = time;
+		lastTime = time;
+		integral = 0;
+		max = level;
+	}
+
+	/**
+	 * This method return the time average of the level from the start time up to a given time.
+	 * @param time the end of the period, not before the last change
+	 * @return the time average of the level, the current level if the period is empty
+	 */
+	public double getAverage(double time) {
+		if (time <= startTime) {
+			return level;
+		}
+		return (integral + level * (Math.max(time, lastTime) - lastTime)) / (Math.max(time, lastTime) - startTime);
+	}
+
+	public double getLevel() {
+		return level;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	public double getStartTime() {
+		return startTime;
+	}
+
+}
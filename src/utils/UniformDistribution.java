@@ -1,5 +1,8 @@
 package utils;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
+
 /**
  * This class simulates a Uniform probability distribution
  * @author Thomas
@@ -23,7 +26,12 @@ public class UniformDistribution implements ProbabilityDistribution {
 
 	@Override
 	public double generateSample() {
-		return min + Math.random() * ( max - min );
+		return min + ThreadLocalRandom.current().nextDouble() * ( max - min );
+	}
+	
+	@Override
+	public double generateSample(SplittableRandom random) {
+		return min + random.nextDouble() * ( max - min );
 	}
 	
 	public static void main(String[] args) {
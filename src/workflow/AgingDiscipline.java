@@ -0,0 +1,37 @@
+package workflow;
+
+/**
+ * A severity queue discipline with aging: the priority of a patient is his severity level, decreased by
+ * agingRate for each unit of time spent in the waiting queue, and the smallest priority is treated first.
+ * At time t, the priority of a patient who entered the queue at time t0 is level - agingRate * (t - t0). All the
+ * priorities decrease at the same speed, so their order never changes and the patients can be compared with the
+ * constant key level + agingRate * t0: nothing has to be sorted again as the simulated time goes on.
+ * @author Quentin
+ *
+ */
+public class AgingDiscipline extends QueueDiscipline {
+	protected double agingRate;
+
+	public AgingDiscipline(double agingRate) {
+		super("aging");
+		if (agingRate < 0) {
+			throw new IllegalArgumentException("The aging rate must be positive");
+		}
+		this.agingRate = agingRate;
+	}
+
+	@Override
+	protected double getKey(int level, double timestamp) {
+		return level + agingRate * timestamp;
+	}
+
+	public double getAgingRate() {
+		return agingRate;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + agingRate + " level per unit of time)";
+	}
+
+}
@@ -1,6 +1,8 @@
 package workflow;
 
 import core.EmergencyDepartment;
+import core.EventType;
+import resources.HumanState;
 import utils.ProbabilityDistribution;
 
 /**
@@ -21,5 +23,19 @@ public class BloodTest extends HealthService {
 		super(name, durationProbability, cost, emergencyDepartment);
 	}
 
+	@Override
+	protected HumanState getExaminationState() {
+		return HumanState.TAKING_BLOOD_TEST;
+	}
+
+	@Override
+	protected EventType getBeginningEvent() {
+		return EventType.BLOOD_TEST_BEGINNING;
+	}
+
+	@Override
+	protected EventType getEndingEvent() {
+		return EventType.BLOOD_TEST_ENDING;
+	}
 
 }
@@ -1,11 +1,17 @@
 package workflow;
 
+import java.util.SplittableRandom;
+
 import core.EmergencyDepartment;
-import core.Event;
+import core.Entity;
+import core.EventType;
+import resources.HumanState;
 import resources.Patient;
 import resources.Physician;
 import resources.Room;
+import resources.WaitingRoom;
 import utils.ProbabilityDistribution;
+import utils.RandomStreams;
 
 /**
  * This is a class extending WorkflowElement. It represent the consultation service.
@@ -28,6 +34,7 @@ public class Consultation extends WorkflowElement {
 	private Double noExamRate;
 	private Double bloodTestRate;
 	private Double xRayRate;
+	private SplittableRandom examinationRandom;
 	
 
 	public Consultation(String name, ProbabilityDistribution durationProbability, Double cost, EmergencyDepartment emergencyDepartment) {
@@ -55,6 +62,16 @@ public class Consultation extends WorkflowElement {
 	public boolean canTreatPatient(Patient patient) {
 		return (patient != null && patient.getPhysician() == null && emergencyDepartment.getIdlePhysician() != null) || (patient != null && patient.getPhysician() != null);
 	}
+	
+	/**
+	 * This method overrides dependsOn of WorkflowElement.
+	 * The consultation needs physicians.
+	 * @see WorkflowElement#dependsOn
+	 */
+	@Override
+	public boolean dependsOn(Entity resource) {
+		return resource instanceof Physician;
+	}
 
 	/**
 	 * This method overrides startServiceOnPatient of WorkflowElement.
@@ -74,10 +91,9 @@ public class Consultation extends WorkflowElement {
 			physician = emergencyDepartment.getIdlePhysician();
 			physician.addOverseenPatient(patient);
 		}
-		physician.setState("visiting");
-		Event beginConsultation = new Event("Consultation beginning", emergencyDepartment.getTime());
-		patient.addEvent(beginConsultation);
-		patient.setState("being-visited");
+		physician.setState(HumanState.VISITING);
+		patient.addEvent(EventType.CONSULTATION_BEGINNING, emergencyDepartment.getTime());
+		patient.setState(HumanState.BEING_VISITED);
 		this.generateEndTask(this, patient, physician);
 	}
 
@@ -90,46 +106,55 @@ public class Consultation extends WorkflowElement {
 	 */
 	@Override
 	public void endServiceOnPatient(Patient patient) {
-		Event endConsultation = new Event("Consultation ending", emergencyDepartment.getTime());
-		Room room = emergencyDepartment.getAvailableRoom("WaitingRoom");
+		Room room = emergencyDepartment.getAvailableRoom(WaitingRoom.class);
 		room.addPatient(patient);
 		patient.getLocation().removePatient(patient);
 		patient.setLocation(room);
-		patient.addEvent(endConsultation);
+		patient.addEvent(EventType.CONSULTATION_ENDING, emergencyDepartment.getTime());
 		patient.addCharges(cost);
-		patient.setState("waiting");
+		patient.setState(HumanState.WAITING);
 		this.examinePatient(patient);
 	}
 
-	private String determineExamination() {
-		double exam = Math.random();
+	/**
+	 * This method overrides setRandomStreams of WorkflowElement.
+	 * The examinations prescribed are drawn from their own stream, apart from the durations of the consultations.
+	 * @param randomStreams the random streams of the simulation
+	 */
+	@Override
+	public void setRandomStreams(RandomStreams randomStreams) {
+		super.setRandomStreams(randomStreams);
+		examinationRandom = randomStreams.getStream(name + " examinations");
+	}
+
+	private EventType determineExamination() {
+		double exam = examinationRandom == null ? Math.random() : examinationRandom.nextDouble();
 		if(exam < noExamRate) {
-			return "Release";
+			return EventType.RELEASED;
 		}
 		else if (exam < (noExamRate + bloodTestRate)) {
-			return "BloodTest";
+			return EventType.BLOOD_TEST_PRESCRIBED;
 		}
 		else if (exam < (noExamRate + bloodTestRate + xRayRate)) {
-			return "XRay";
+			return EventType.XRAY_PRESCRIBED;
 		}
 		else {
-			return "MRI";
+			return EventType.MRI_PRESCRIBED;
 		}
 	}
 	
 	public void examinePatient(Patient patient) {
-		String examination = this.determineExamination();
-		if(examination != "Release") {
-			patient.addEvent(new Event(examination + " prescribed", this.emergencyDepartment.getTime()));
+		EventType examination = this.determineExamination();
+		patient.addEvent(examination, this.emergencyDepartment.getTime());
+		if(examination != EventType.RELEASED) {
 			emergencyDepartment.getService("Transportation").addPatientToWaitingList(patient);
 		}
 		else {
-			patient.addEvent(new Event("Released", this.emergencyDepartment.getTime()));
 			patient.getPhysician().addTreatedPatient(patient);
 			patient.getPhysician().removeOverseenPatient(patient);
 			patient.getLocation().removePatient(patient);
 			patient.setLocation(null);
-			patient.setState("released");
+			patient.setState(HumanState.RELEASED);
 			emergencyDepartment.removePatient(patient);
 		}
 	}
@@ -0,0 +1,19 @@
+package workflow;
+
+/**
+ * A FIFO queue discipline: the patients are treated in their order of arrival, whatever their severity level.
+ * @author Quentin
+ *
+ */
+public class FifoDiscipline extends QueueDiscipline {
+
+	public FifoDiscipline() {
+		super("fifo");
+	}
+
+	@Override
+	protected double getKey(int level, double timestamp) {
+		return 0;
+	}
+
+}
@@ -1,9 +1,11 @@
 package workflow;
 
 import core.EmergencyDepartment;
-import core.Event;
+import core.EventType;
+import resources.HumanState;
 import resources.Patient;
 import resources.Room;
+import resources.WaitingRoom;
 import utils.ProbabilityDistribution;
 
 /**
@@ -35,22 +37,38 @@ public abstract class HealthService extends WorkflowElement {
 	@Override
 	public void startServiceOnPatient(Patient patient) {
 		this.waitingQueue.remove(patient);
-		Event beginService = new Event(this.name + " beginning", emergencyDepartment.getTime());
-		patient.addEvent(beginService);
-		patient.setState("taking-" + this.name);
+		patient.addEvent(this.getBeginningEvent(), emergencyDepartment.getTime());
+		patient.setState(this.getExaminationState());
 		this.generateEndTask(this, patient);
 	}
 
 	@Override
 	public void endServiceOnPatient(Patient patient) {
-		Event endService = new Event(this.name + " ending", emergencyDepartment.getTime());
-		Room room = emergencyDepartment.getAvailableRoom("WaitingRoom");
+		Room room = emergencyDepartment.getAvailableRoom(WaitingRoom.class);
 		room.addPatient(patient);
 		patient.getLocation().removePatient(patient);
 		patient.setLocation(room);
-		patient.addEvent(endService);
+		patient.addEvent(this.getEndingEvent(), emergencyDepartment.getTime());
 		patient.addCharges(cost);
-		patient.setState("waiting");
+		patient.setState(HumanState.WAITING);
 		emergencyDepartment.getService("Installation").addPatientToWaitingList(patient);
 	}
+	
+	/**
+	 * This method return the state of a patient during the examination.
+	 * @return the state of the patients treated by the service
+	 */
+	protected abstract HumanState getExaminationState();
+	
+	/**
+	 * This method return the type of the event marking the beginning of the examination.
+	 * @return the type of the beginning event
+	 */
+	protected abstract EventType getBeginningEvent();
+	
+	/**
+	 * This method return the type of the event marking the end of the examination.
+	 * @return the type of the ending event
+	 */
+	protected abstract EventType getEndingEvent();
 }
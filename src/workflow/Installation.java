@@ -1,10 +1,14 @@
 package workflow;
 
 import core.EmergencyDepartment;
-import core.Event;
+import core.Entity;
+import core.EventType;
+import resources.BoxRoom;
 import resources.Nurse;
+import resources.HumanState;
 import resources.Patient;
 import resources.Room;
+import resources.ShockRoom;
 import utils.ProbabilityDistribution;
 
 /**
@@ -35,16 +39,26 @@ public class Installation extends WorkflowElement {
 	@Override
 	public boolean canTreatPatient(Patient patient) {
 		Nurse nurse = emergencyDepartment.getIdleNurse();
-		String roomType;
+		Class<? extends Room> roomType;
 		if (patient != null && patient.getSeverityLevel().getLevel() < 3) {
-			roomType = "ShockRoom";
+			roomType = ShockRoom.class;
 		}
 		else {
-			roomType = "BoxRoom";
+			roomType = BoxRoom.class;
 		}
 		return (patient != null && nurse != null && emergencyDepartment.getAvailableRoom(roomType) != null);
 	}
 	
+	/**
+	 * This method overrides dependsOn of WorkflowElement.
+	 * The installation needs nurses, box rooms and shock rooms.
+	 * @see WorkflowElement#dependsOn
+	 */
+	@Override
+	public boolean dependsOn(Entity resource) {
+		return resource instanceof Nurse || resource instanceof BoxRoom || resource instanceof ShockRoom;
+	}
+	
 
 	/**
 	 * This method overrides startServiceOnPatient of WorkflowElement.
@@ -57,21 +71,20 @@ public class Installation extends WorkflowElement {
 	public void startServiceOnPatient(Patient patient) {
 		this.waitingQueue.remove(patient);
 		Nurse nurse = emergencyDepartment.getIdleNurse();
-		nurse.setState("occupied");
+		nurse.setState(HumanState.OCCUPIED);
 		Room room;
 		if(patient.getSeverityLevel().getLevel() <= 2) {
-			room = emergencyDepartment.getAvailableRoom("ShockRoom");
+			room = emergencyDepartment.getAvailableRoom(ShockRoom.class);
 			room.addPatient(patient);
 		}
 		else {
-			room = emergencyDepartment.getAvailableRoom("BoxRoom");
+			room = emergencyDepartment.getAvailableRoom(BoxRoom.class);
 			room.addPatient(patient);
 		}
 		patient.getLocation().removePatient(patient);
 		patient.setLocation(room);
-		Event beginTransportation = new Event("Installation beginning", emergencyDepartment.getTime());
-		patient.addEvent(beginTransportation);
-		patient.setState("being-installed");
+		patient.addEvent(EventType.INSTALLATION_BEGINNING, emergencyDepartment.getTime());
+		patient.setState(HumanState.BEING_INSTALLED);
 		this.generateEndTask(this, patient, nurse);
 	}
 	
@@ -84,10 +97,9 @@ public class Installation extends WorkflowElement {
 	 */
 	@Override
 	public void endServiceOnPatient(Patient patient) {
-		Event endTransportation = new Event("Installation ending", emergencyDepartment.getTime());
-		patient.addEvent(endTransportation);
+		patient.addEvent(EventType.INSTALLATION_ENDING, emergencyDepartment.getTime());
 		patient.addCharges(cost);
-		patient.setState("waiting");
+		patient.setState(HumanState.WAITING);
 		emergencyDepartment.getService("Consultation").addPatientToWaitingList(patient);
 	}
 
@@ -1,6 +1,8 @@
 package workflow;
 
 import core.EmergencyDepartment;
+import core.EventType;
+import resources.HumanState;
 import utils.ProbabilityDistribution;
 
 /**
@@ -19,6 +21,21 @@ public class MRI extends HealthService {
 	
 	public MRI(String name, ProbabilityDistribution durationProbability, Double cost, EmergencyDepartment emergencyDepartment) {
 		super(name, durationProbability, cost, emergencyDepartment);
-	}	
+	}
+
+	@Override
+	protected HumanState getExaminationState() {
+		return HumanState.TAKING_MRI;
+	}
+
+	@Override
+	protected EventType getBeginningEvent() {
+		return EventType.MRI_BEGINNING;
+	}
+
+	@Override
+	protected EventType getEndingEvent() {
+		return EventType.MRI_ENDING;
+	}
 
 }
@@ -0,0 +1,20 @@
+package workflow;
+
+/**
+ * A strict priority queue discipline: the patients are treated by severity level (L1 first, then L2, ..., then L5),
+ * in their order of arrival within a level.
+ * @author Quentin
+ *
+ */
+public class PriorityDiscipline extends QueueDiscipline {
+
+	public PriorityDiscipline() {
+		super("priority");
+	}
+
+	@Override
+	protected double getKey(int level, double timestamp) {
+		return level;
+	}
+
+}
@@ -0,0 +1,76 @@
+package workflow;
+
+import resources.Patient;
+import utils.SeverityLevel;
+
+/**
+ * The subclasses of this class represent the order in which a service treats its waiting patients.
+ * Every discipline keeps the patients of a same severity level in their order of arrival, so only the first
+ * waiting patient of each level of the waiting queue has to be compared: the discipline gives a priority key
+ * to each of them, and the patient with the smallest key (the first arrived one in case of equality) is treated
+ * first. If the service can't treat this patient, the first patient of the next level in this order is considered,
+ * and so on: only the first patient of each level is considered, so a patient who can't be treated holds back the
+ * patients of his level who arrived after him. The default SeverityDiscipline considers even fewer patients.
+ * Finding the next patient is thus done in O(1) whatever the number of waiting patients.
+ * @author Quentin
+ *
+ */
+public abstract class QueueDiscipline {
+	protected String name;
+
+	public QueueDiscipline(String name) {
+		super();
+		this.name = name;
+	}
+
+	/**
+	 * This method return the priority key of the first waiting patient of a severity level.
+	 * The smallest key is treated first. It must not decrease with the time at which the patient entered the queue.
+	 * @param level the severity level of the patient (1 to 5)
+	 * @param timestamp the time at which the patient entered the waiting queue
+	 * @return the priority key of the patient
+	 */
+	protected abstract double getKey(int level, double timestamp);
+
+	/**
+	 * This method return the next waiting patient who can be treated by the service.
+	 * @param waitingQueue the waiting queue of the service
+	 * @param service the service treating the patients
+	 * @return Patient, null if no waiting patient can be treated
+	 */
+	public Patient getNextPatient(WaitingQueue waitingQueue, WorkflowElement service) {
+		int considered = 0;
+		while (true) {
+			WaitingQueue.Node next = null;
+			double nextKey = 0;
+			for (int bucket = 0; bucket < SeverityLevel.LEVELS; bucket++) {
+				WaitingQueue.Node head = waitingQueue.heads[bucket];
+				if (head == null || (considered & (1 << bucket)) != 0) {
+					continue;
+				}
+				double key = getKey(bucket + 1, head.timestamp);
+				if (next == null || key < nextKey || (key == nextKey && head.rank < next.rank)) {
+					next = head;
+					nextKey = key;
+				}
+			}
+			if (next == null) {
+				return null;
+			}
+			if (service.canTreatPatient(next.patient)) {
+				return next.patient;
+			}
+			considered |= 1 << next.bucket;
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
@@ -0,0 +1,44 @@
+package workflow;
+
+import resources.Patient;
+
+/**
+ * The default queue discipline: the severe patients (L1 or L2) are treated before the light ones (L3 to L5),
+ * in their order of arrival.
+ * Like the first versions of the services, it only considers two patients: the first arrived severe patient, and
+ * if the service can't treat him, the first arrived light patient.
+ * @author Quentin
+ *
+ */
+public class SeverityDiscipline extends QueueDiscipline {
+
+	public SeverityDiscipline() {
+		super("severity");
+	}
+
+	@Override
+	protected double getKey(int level, double timestamp) {
+		return level < WaitingQueue.LIGHT_LEVEL ? 0 : 1;
+	}
+
+	/**
+	 * This method return the first arrived severe patient if the service can treat him, otherwise the first arrived
+	 * light patient if the service can treat him.
+	 * @param waitingQueue the waiting queue of the service
+	 * @param service the service treating the patients
+	 * @return Patient, null if none of these two patients can be treated
+	 */
+	@Override
+	public Patient getNextPatient(WaitingQueue waitingQueue, WorkflowElement service) {
+		Patient severePatient = waitingQueue.getNextSeverePatient();
+		if (severePatient != null && service.canTreatPatient(severePatient)) {
+			return severePatient;
+		}
+		Patient lightPatient = waitingQueue.getNextLightPatient();
+		if (lightPatient != null && service.canTreatPatient(lightPatient)) {
+			return lightPatient;
+		}
+		return null;
+	}
+
+}
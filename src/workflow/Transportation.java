@@ -1,8 +1,12 @@
 package workflow;
 
 import core.EmergencyDepartment;
+import core.Entity;
 import core.Event;
+import core.EventType;
 import resources.BloodTestRoom;
+import resources.MRIRoom;
+import resources.HumanState;
 import resources.Patient;
 import resources.Room;
 import resources.Transporter;
@@ -49,36 +53,47 @@ public class Transportation extends WorkflowElement {
 	@Override
 	public boolean canTreatPatient(Patient patient) {
 		if (patient != null) {
-			String healthService = patient.getHistory().get(patient.getHistory().size() - 1).getName().split(" ")[0];
-			String roomType = healthService + "Room";
+			EventType prescription = patient.getPrescribedExamination();
+			if (prescription == null) {
+				return false;
+			}
+			String roomType = prescription.getExamination() + "Room";
 			return (this.emergencyDepartment.getIdleTransporter() != null && emergencyDepartment.getAvailableRoom(roomType) != null);
 		}
 		else return false;
 	}
 	
+	/**
+	 * This method overrides dependsOn of WorkflowElement.
+	 * The transportation needs transporters and the rooms of the health services.
+	 * @see WorkflowElement#dependsOn
+	 */
+	@Override
+	public boolean dependsOn(Entity resource) {
+		return resource instanceof Transporter || resource instanceof BloodTestRoom || resource instanceof XRayRoom
+				|| resource instanceof MRIRoom;
+	}
+	
 	@Override
 	public void startServiceOnPatient(Patient patient) {
 		this.waitingQueue.remove(patient);
 		Transporter transporter = emergencyDepartment.getIdleTransporter();
-		transporter.setState("occupied");
-		String healthService = patient.getHistory().get(patient.getHistory().size() - 1).getName().split(" ")[0];
-		String roomType = healthService + "Room";
+		transporter.setState(HumanState.OCCUPIED);
+		String roomType = patient.getPrescribedExamination().getExamination() + "Room";
 		Room room = emergencyDepartment.getAvailableRoom(roomType);
 		room.addPatient(patient);
 		patient.getLocation().removePatient(patient);
 		patient.setLocation(room);
-		Event beginTransportation = new Event("Transportation beginning", emergencyDepartment.getTime());
-		patient.addEvent(beginTransportation);
-		patient.setState("being-transported");
+		patient.addEvent(EventType.TRANSPORTATION_BEGINNING, emergencyDepartment.getTime());
+		patient.setState(HumanState.BEING_TRANSPORTED);
 		this.generateEndTask(this, patient, transporter);
 	}
 
 	@Override
 	public void endServiceOnPatient(Patient patient) {
-		Event endTransportation = new Event("Transportation ending", emergencyDepartment.getTime());
-		patient.addEvent(endTransportation);
+		patient.addEvent(EventType.TRANSPORTATION_ENDING, emergencyDepartment.getTime());
 		patient.addCharges(cost);
-		patient.setState("waiting");
+		patient.setState(HumanState.WAITING);
 		String healthService;
 		if (patient.getLocation() instanceof BloodTestRoom) {
 			healthService = "BloodTest";
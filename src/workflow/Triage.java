@@ -1,10 +1,13 @@
 package workflow;
 
 import core.EmergencyDepartment;
-import core.Event;
+import core.Entity;
+import core.EventType;
 import resources.Nurse;
+import resources.HumanState;
 import resources.Patient;
 import resources.Room;
+import resources.WaitingRoom;
 import utils.ProbabilityDistribution;
 
 /**
@@ -37,6 +40,16 @@ public class Triage extends WorkflowElement {
 		Nurse nurse = emergencyDepartment.getIdleNurse();
 		return patient != null & nurse != null;
 	}
+	
+	/**
+	 * This method overrides dependsOn of WorkflowElement.
+	 * The triage needs nurses.
+	 * @see WorkflowElement#dependsOn
+	 */
+	@Override
+	public boolean dependsOn(Entity resource) {
+		return resource instanceof Nurse;
+	}
 
 	/**
 	 * This method overrides startServiceOnPatient of WorkflowElement.
@@ -49,11 +62,10 @@ public class Triage extends WorkflowElement {
 	public void startServiceOnPatient(Patient patient) {
 		this.waitingQueue.remove(patient);
 		Nurse nurse = emergencyDepartment.getIdleNurse();
-		nurse.setState("occupied");
-		Event beginRegistration = new Event("Registration beginning", emergencyDepartment.getTime());
-		patient.addEvent(beginRegistration);
-		patient.setState("being-registered");
-		Room room = emergencyDepartment.getAvailableRoom("WaitingRoom");
+		nurse.setState(HumanState.OCCUPIED);
+		patient.addEvent(EventType.REGISTRATION_BEGINNING, emergencyDepartment.getTime());
+		patient.setState(HumanState.BEING_REGISTERED);
+		Room room = emergencyDepartment.getAvailableRoom(WaitingRoom.class);
 		room.addPatient(patient);
 		patient.getLocation().removePatient(patient);
 		patient.setLocation(room);
@@ -69,10 +81,9 @@ public class Triage extends WorkflowElement {
 	 */
 	@Override
 	public void endServiceOnPatient(Patient patient) {
-		Event endRegistration = new Event("Registration ending", emergencyDepartment.getTime());
-		patient.addEvent(endRegistration);
+		patient.addEvent(EventType.REGISTRATION_ENDING, emergencyDepartment.getTime());
 		patient.addCharges(cost);
-		patient.setState("waiting");
+		patient.setState(HumanState.WAITING);
 		emergencyDepartment.getService("Installation").addPatientToWaitingList(patient);
 	}
 
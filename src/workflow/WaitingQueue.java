@@ -0,0 +1,272 @@
+package workflow;
+
+import java.util.AbstractCollection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import resources.Patient;
+import utils.SeverityLevel;
+
+/**
+ * This class represents the waiting queue of patients of a workflow element.
+ * The patients are stored in one FIFO bucket per severity level (a doubly linked list), and each of them
+ * keeps its arrival rank in the queue. This way the next severe patient (L1 or L2) and the next light
+ * patient (L3 to L5) in order of arrival are found in O(1), and a patient is removed in O(1) wherever
+ * he is in the queue.
+ * The queue is iterated in order of arrival.
+ * The service owning the queue is notified each time its length changes.
+ * @author Quentin
+ *
+ */
+
+public class WaitingQueue extends AbstractCollection<Patient> {
+	protected static final int LIGHT_LEVEL = 3;
+
+	protected Node[] heads;
+	protected Node[] tails;
+	protected IdentityHashMap<Patient, Node> nodes;
+	protected long nextRank;
+	protected WorkflowElement service;
+
+	public WaitingQueue() {
+		super();
+		heads = new Node[SeverityLevel.LEVELS];
+		tails = new Node[SeverityLevel.LEVELS];
+		nodes = new IdentityHashMap<Patient, Node>();
+		nextRank = 0;
+		service = null;
+	}
+
+	/**
+	 * This method adds a patient at the end of the bucket of his severity level.
+	 * @param patient A Patient instance
+	 * @return true if the patient has been added, false if he was already in the queue
+	 */
+	@Override
+	public boolean add(Patient patient) {
+		return add(patient, 0.);
+	}
+
+	/**
+	 * This method adds a patient at the end of the bucket of his severity level, remembering when he entered the queue.
+	 * @param patient A Patient instance
+	 * @param timestamp the time at which the patient enters the queue
+	 * @return true if the patient has been added, false if he was already in the queue
+	 */
+	public boolean add(Patient patient, double timestamp) {
+		if (nodes.containsKey(patient)) {
+			return false;
+		}
+		int bucket = Math.min(Math.max(patient.getSeverityLevel().getLevel(), 1), SeverityLevel.LEVELS) - 1;
+		Node node = new Node(patient, nextRank++, bucket, timestamp);
+		if (tails[bucket] == null) {
+			heads[bucket] = node;
+		}
+		else {
+			tails[bucket].next = node;
+			node.previous = tails[bucket];
+		}
+		tails[bucket] = node;
+		nodes.put(patient, node);
+		lengthChanged();
+		return true;
+	}
+
+	/**
+	 * This method removes a patient from the queue.
+	 * @param object The patient to remove
+	 * @return true if the patient was in the queue, false otherwise
+	 */
+	@Override
+	public boolean remove(Object object) {
+		Node node = nodes.remove(object);
+		if (node == null) {
+			return false;
+		}
+		if (node.previous == null) {
+			heads[node.bucket] = node.next;
+		}
+		else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			tails[node.bucket] = node.previous;
+		}
+		else {
+			node.next.previous = node.previous;
+		}
+		lengthChanged();
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object object) {
+		return nodes.containsKey(object);
+	}
+
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < SeverityLevel.LEVELS; i++) {
+			heads[i] = null;
+			tails[i] = null;
+		}
+		nodes.clear();
+		lengthChanged();
+	}
+
+	public WorkflowElement getService() {
+		return service;
+	}
+
+	/**
+	 * This method sets the service owning the queue, notified each time the length of the queue changes.
+	 * @param service A WorkflowElement instance
+	 */
+	public void setService(WorkflowElement service) {
+		this.service = service;
+	}
+
+	private void lengthChanged() {
+		if (service != null) {
+			service.waitingQueueChanged();
+		}
+	}
+
+	/**
+	 * This method return the first arrived patient with a severity level between two given levels.
+	 * @param minLevel the most severe level considered
+	 * @param maxLevel the lightest level considered
+	 * @return Patient, null if there is no patient of these levels
+	 */
+	public Patient getNextPatient(int minLevel, int maxLevel) {
+		Node node = firstNode(minLevel - 1, maxLevel - 1);
+		return node == null ? null : node.patient;
+	}
+
+	/**
+	 * This method return the first arrived patient with a severe level (L1 or L2).
+	 * @return Patient, null if there is no severe patient
+	 */
+	public Patient getNextSeverePatient() {
+		return getNextPatient(1, LIGHT_LEVEL - 1);
+	}
+
+	/**
+	 * This method return the first arrived patient with a light level (L3 to L5).
+	 * @return Patient, null if there is no light patient
+	 */
+	public Patient getNextLightPatient() {
+		return getNextPatient(LIGHT_LEVEL, SeverityLevel.LEVELS);
+	}
+
+	/**
+	 * This method return the time at which a patient entered the queue.
+	 * @param patient A Patient instance
+	 * @return the timestamp given when the patient was added, NaN if he is not in the queue
+	 */
+	public double getTimestamp(Patient patient) {
+		Node node = nodes.get(patient);
+		return node == null ? Double.NaN : node.timestamp;
+	}
+
+	/**
+	 * This method return the first arrived patient of the queue.
+	 * @return Patient, null if the queue is empty
+	 */
+	public Patient peek() {
+		return getNextPatient(1, SeverityLevel.LEVELS);
+	}
+
+	/**
+	 * This method removes and return the first arrived patient of the queue.
+	 * @return Patient, null if the queue is empty
+	 */
+	public Patient poll() {
+		Patient patient = peek();
+		if (patient != null) {
+			remove(patient);
+		}
+		return patient;
+	}
+
+	@Override
+	public Iterator<Patient> iterator() {
+		return new Iterator<Patient>() {
+			private Node[] cursors = heads.clone();
+			private Patient last = null;
+
+			@Override
+			public boolean hasNext() {
+				for (Node cursor : cursors) {
+					if (cursor != null) {
+						return true;
+					}
+				}
+				return false;
+			}
+
+			@Override
+			public Patient next() {
+				int first = -1;
+				for (int i = 0; i < SeverityLevel.LEVELS; i++) {
+					if (cursors[i] != null && (first < 0 || cursors[i].rank < cursors[first].rank)) {
+						first = i;
+					}
+				}
+				if (first < 0) {
+					throw new NoSuchElementException();
+				}
+				last = cursors[first].patient;
+				cursors[first] = cursors[first].next;
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				WaitingQueue.this.remove(last);
+				last = null;
+			}
+		};
+	}
+
+	private Node firstNode(int firstBucket, int lastBucket) {
+		Node first = null;
+		for (int i = firstBucket; i <= lastBucket; i++) {
+			if (heads[i] != null && (first == null || heads[i].rank < first.rank)) {
+				first = heads[i];
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * A node of the linked list of a bucket
+	 */
+	protected static class Node {
+		protected Patient patient;
+		protected long rank;
+		protected int bucket;
+		protected double timestamp;
+		protected Node previous;
+		protected Node next;
+
+		protected Node(Patient patient, long rank, int bucket, double timestamp) {
+			this.patient = patient;
+			this.rank = rank;
+			this.bucket = bucket;
+			this.timestamp = timestamp;
+			this.previous = null;
+			this.next = null;
+		}
+	}
+
+}
@@ -1,9 +1,11 @@
 package workflow;
 
-import java.util.ArrayList;
+import java.util.SplittableRandom;
+
 import core.EmergencyDepartment;
 import core.Entity;
 import processing.EndService;
+import processing.FutureEventList;
 import processing.StartService;
 import processing.Task;
 import processing.TasksQueue;
@@ -11,6 +13,7 @@ import resources.Human;
 import resources.Patient;
 import resources.Room;
 import utils.ProbabilityDistribution;
+import utils.RandomStreams;
 
 /**
  * This is an abstract class which represents every workflow element in the Emergency Department.
@@ -24,17 +27,22 @@ import utils.ProbabilityDistribution;
  */
 
 public abstract class WorkflowElement extends Entity {
-	protected ArrayList<Patient> waitingQueue;
+	protected WaitingQueue waitingQueue;
 	protected ProbabilityDistribution durationProbability;
 	protected Double cost;
 	protected TasksQueue tasksQueue;
+	protected QueueDiscipline queueDiscipline;
+	protected SplittableRandom random;
 	
 	public WorkflowElement(String name, ProbabilityDistribution durationProbability, Double cost, EmergencyDepartment emergencyDepartment) {
 		super(name, emergencyDepartment);
-		this.waitingQueue = new ArrayList<Patient>();
+		this.waitingQueue = new WaitingQueue();
+		this.waitingQueue.setService(this);
 		this.durationProbability = durationProbability;
 		this.cost = cost;
 		this.tasksQueue = new TasksQueue();
+		this.queueDiscipline = new SeverityDiscipline();
+		this.random = null;
 	}
 	
 	/**
@@ -42,7 +50,8 @@ public abstract class WorkflowElement extends Entity {
 	 * @param patient A Patient instance
 	 */
 	public void addPatientToWaitingList(Patient patient) {
-		this.waitingQueue.add(patient);
+		this.waitingQueue.add(patient, this.emergencyDepartment.getTime());
+		this.emergencyDepartment.wakeUp(this);
 	}
 	
 	/**
@@ -61,25 +70,23 @@ public abstract class WorkflowElement extends Entity {
 	 * @return Patient
 	 */
 	public Patient getNextPatient() {
-		return this.waitingQueue.remove(0);
+		return this.waitingQueue.poll();
 	}
 	
+	/**
+	 * This method return the first arrived patient with a severe level (L1 or L2), in O(1).
+	 * @return Patient, null if there is no severe patient waiting
+	 */
 	public Patient getNextSeverePatient() {
-		for (Patient patient : waitingQueue) {
-			if (patient.getSeverityLevel().getLevel() < 3) {
-				return patient;
-			}
-		}
-		return null;
+		return this.waitingQueue.getNextSeverePatient();
 	}
 	
+	/**
+	 * This method return the first arrived patient with a light level (L3 to L5), in O(1).
+	 * @return Patient, null if there is no light patient waiting
+	 */
 	public Patient getNextLightPatient() {
-		for (Patient patient : waitingQueue) {
-			if (patient.getSeverityLevel().getLevel() >= 3) {
-				return patient;
-			}
-		}
-		return null;
+		return this.waitingQueue.getNextLightPatient();
 	}
 	
 	/**
@@ -98,26 +105,35 @@ public abstract class WorkflowElement extends Entity {
 	 * This method return the next task to be executed by the service
 	 * The priority in the tasks is the following:
 	 * <ul>
-	 * <li>Treat the next severe patient (L1 or L2)</li>
-	 * <li>Treat the next light patient (L3 to L5)</li>
+	 * <li>Treat the next waiting patient who can be treated, chosen by the queue discipline of the service</li>
 	 * <li>End the treatment of the next patient in the tasks queue</li>
 	 * </ul>
 	 * @return The next task to be done by the installation service
 	 */
 	public Task getNextTask() {
-		Patient severePatient = this.getNextSeverePatient();
-		Patient lightPatient = this.getNextLightPatient();
-		if (this.canTreatPatient(severePatient)) {
-			return new Task(this.emergencyDepartment.getTime(), new StartService(this, severePatient));			
-		}
-		else if (this.canTreatPatient(lightPatient)) {
-			return new Task(this.emergencyDepartment.getTime(), new StartService(this, lightPatient));				
+		Task startTask = this.getNextStartTask();
+		if (startTask != null) {
+			return startTask;
 		}
 		else {
 			return this.tasksQueue.getNextTask();
 		}
 	}
 	
+	/**
+	 * This method return the task starting the service on the next patient who can be treated right now.
+	 * The patients are considered in the order given by the queue discipline of the service
+	 * (by default the severe patients (L1 or L2) before the light ones (L3 to L5)).
+	 * @return A StartService task at the current time, null if no waiting patient can be treated
+	 */
+	public Task getNextStartTask() {
+		Patient patient = this.queueDiscipline.getNextPatient(this.waitingQueue, this);
+		if (patient != null) {
+			return new Task(this.emergencyDepartment.getTime(), new StartService(this, patient));
+		}
+		return null;
+	}
+	
 	/**
 	 * This abstract method determine if the given patient can be treated by the service.
 	 * The requirements depend on the service.
@@ -126,28 +142,60 @@ public abstract class WorkflowElement extends Entity {
 	 */
 	public abstract boolean canTreatPatient(Patient patient);
 	
-	public void generateEndTask(WorkflowElement workflowElement, Patient patient) {
-		Double endTimestamp = emergencyDepartment.getTime() + workflowElement.durationProbability.generateSample();
-		Task endTask = new Task(endTimestamp, new EndService(workflowElement, patient));
-		this.getTasksQueue().addTask(endTask);
+	/**
+	 * This method tells if the service may need the given resource (staff member or room) to treat its patients.
+	 * When such a resource is released, the service is dispatched again by the Emergency Department.
+	 * By default a service doesn't need any resource.
+	 * @param resource A staff member or a room
+	 * @return boolean: true if the resource can be used by the service, false otherwise
+	 */
+	public boolean dependsOn(Entity resource) {
+		return false;
 	}
 	
-	public void generateEndTask(WorkflowElement workflowElement, Patient patient, Human employee) {
-		Double endTimestamp = emergencyDepartment.getTime() + workflowElement.durationProbability.generateSample();
-		Task endTask = new Task(endTimestamp, new EndService(workflowElement, patient, employee));
-		this.getTasksQueue().addTask(endTask);
+	/**
+	 * This method draws the duration of a treatment from the distribution of the service, with the random
+	 * stream of the service if the Emergency Department gave it one.
+	 * @return the duration of the treatment
+	 */
+	public double generateDuration() {
+		return random == null ? durationProbability.generateSample() : durationProbability.generateSample(random);
 	}
 	
-	public void generateEndTask(WorkflowElement workflowElement, Patient patient, Human employee, Room room) {
-		Double endTimestamp = emergencyDepartment.getTime() + workflowElement.durationProbability.generateSample();
-		Task endTask = new Task(endTimestamp, new EndService(workflowElement, patient, employee, room));
-		this.getTasksQueue().addTask(endTask);
+	/**
+	 * This method takes the random streams of the service from the random streams of the Emergency Department.
+	 * @param randomStreams the random streams of the simulation
+	 */
+	public void setRandomStreams(RandomStreams randomStreams) {
+		this.random = randomStreams.getStream(name + " duration");
 	}
 	
-	public void generateEndTask(WorkflowElement workflowElement, Patient patient, Room room) {
-		Double endTimestamp = emergencyDepartment.getTime() + workflowElement.durationProbability.generateSample();
-		Task endTask = new Task(endTimestamp, new EndService(workflowElement, patient, room));
-		this.getTasksQueue().addTask(endTask);
+	/**
+	 * This method schedules the end of the treatment of a patient in the tasks queue of the service,
+	 * after a duration drawn from the distribution of the given service.
+	 * The returned task can be used to cancel or reschedule the end of the treatment.
+	 * @param workflowElement the service treating the patient
+	 * @param patient A Patient instance
+	 * @return the scheduled EndService task
+	 */
+	public Task generateEndTask(WorkflowElement workflowElement, Patient patient) {
+		double endTimestamp = emergencyDepartment.addDuration(emergencyDepartment.getTime(), workflowElement.generateDuration());
+		return this.getTasksQueue().addTask(endTimestamp, new EndService(workflowElement, patient));
+	}
+	
+	public Task generateEndTask(WorkflowElement workflowElement, Patient patient, Human employee) {
+		double endTimestamp = emergencyDepartment.addDuration(emergencyDepartment.getTime(), workflowElement.generateDuration());
+		return this.getTasksQueue().addTask(endTimestamp, new EndService(workflowElement, patient, employee));
+	}
+	
+	public Task generateEndTask(WorkflowElement workflowElement, Patient patient, Human employee, Room room) {
+		double endTimestamp = emergencyDepartment.addDuration(emergencyDepartment.getTime(), workflowElement.generateDuration());
+		return this.getTasksQueue().addTask(endTimestamp, new EndService(workflowElement, patient, employee, room));
+	}
+	
+	public Task generateEndTask(WorkflowElement workflowElement, Patient patient, Room room) {
+		double endTimestamp = emergencyDepartment.addDuration(emergencyDepartment.getTime(), workflowElement.generateDuration());
+		return this.getTasksQueue().addTask(endTimestamp, new EndService(workflowElement, patient, room));
 	}
 
 	public Double getCost() {
@@ -158,32 +206,74 @@ public abstract class WorkflowElement extends Entity {
 		this.cost = cost;
 	}
 		
-	public ArrayList<Patient> getWaitingQueue() {
+	public WaitingQueue getWaitingQueue() {
 		return waitingQueue;
 	}
 
-	public void setWaitingQueue(ArrayList<Patient> waitingQueue) {
+	public void setWaitingQueue(WaitingQueue waitingQueue) {
 		this.waitingQueue = waitingQueue;
+		this.waitingQueue.setService(this);
+		waitingQueueChanged();
+	}
+	
+	/**
+	 * This method notifies the emergency department that the length of the waiting queue changed.
+	 */
+	public void waitingQueueChanged() {
+		if (emergencyDepartment != null) {
+			emergencyDepartment.waitingQueueChanged(this, waitingQueue.size());
+		}
+	}
+
+	public QueueDiscipline getQueueDiscipline() {
+		return queueDiscipline;
+	}
+
+	/**
+	 * Change the order in which the waiting patients are treated. The patients already waiting are
+	 * ordered by the new discipline from now on.
+	 * @param queueDiscipline the new queue discipline
+	 */
+	public void setQueueDiscipline(QueueDiscipline queueDiscipline) {
+		this.queueDiscipline = queueDiscipline;
+		this.emergencyDepartment.wakeUp(this);
 	}
 
 	public ProbabilityDistribution getDurationProbability() {
 		return durationProbability;
 	}
 
+	/**
+	 * Change the distribution of the duration of the service. The tasks queue of the service is given
+	 * the structure fitting the new distribution.
+	 * @param durationProbability the new distribution
+	 */
 	public void setDurationProbability(ProbabilityDistribution durationProbability) {
 		this.durationProbability = durationProbability;
+		this.emergencyDepartment.configureTasksQueue(this);
 	}
 
 	public TasksQueue getTasksQueue() {
 		return tasksQueue;
 	}
 
+	/**
+	 * Replace the tasks queue of the service. If the previous queue was registered in a future event list,
+	 * the new one takes its place.
+	 * @param tasksQueue the new tasks queue
+	 */
 	public void setTasksQueue(TasksQueue tasksQueue) {
+		FutureEventList futureEventList = this.tasksQueue.getFutureEventList();
+		if (futureEventList != null) {
+			futureEventList.removeQueue(this.tasksQueue);
+			futureEventList.addQueue(tasksQueue);
+		}
 		this.tasksQueue = tasksQueue;
+		this.emergencyDepartment.configureTasksQueue(this);
 	}
 	
 	public void removeNextTask() {
-		this.tasksQueue.getQueue().poll();
+		this.tasksQueue.pollNextTask();
 	}
 
 	@Override
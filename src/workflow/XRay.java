@@ -1,6 +1,8 @@
 package workflow;
 
 import core.EmergencyDepartment;
+import core.EventType;
+import resources.HumanState;
 import utils.ProbabilityDistribution;
 
 /**
@@ -21,4 +23,19 @@ public class XRay extends HealthService {
 		super(name, durationProbability, cost, emergencyDepartment);
 	}
 
+	@Override
+	protected HumanState getExaminationState() {
+		return HumanState.TAKING_XRAY;
+	}
+
+	@Override
+	protected EventType getBeginningEvent() {
+		return EventType.XRAY_BEGINNING;
+	}
+
+	@Override
+	protected EventType getEndingEvent() {
+		return EventType.XRAY_ENDING;
+	}
+
 }